@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Queries or tails the audit journal. The reader only needs the compiled classes (mvn compile).
+#   scripts/audit-journal.sh [directory] --product 42 --last 20
+#   scripts/audit-journal.sh ./data/audit --type STOCK_RESERVED --follow
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+DIR=./data/audit
+if [[ $# -gt 0 && "$1" != --* ]]; then
+    DIR=$1
+    shift
+fi
+exec java -cp target/classes com.ecommerce.audit.AuditJournalCli "$DIR" "$@"
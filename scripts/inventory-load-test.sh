@@ -0,0 +1,129 @@
+#!/usr/bin/env bash
+# Compares the blocking (servlet, port 8080) and reactive (Netty + R2DBC, port 8081) inventory reads
+# under sustained load and writes a Markdown report with requests/second, latency, and the resident
+# memory, heap and live threads each load adds. Every stack runs in a fresh JVM (the blocking run
+# without the reactive server), and the memory and thread figures are deltas against that JVM's own
+# idle sample, so neither stack is charged for the other's pools. Memory per connection is the RSS
+# growth between the low and high connection counts. Admission control is off, so the blocking stack
+# serves every request instead of shedding load with 503s; any non-2xx responses are still counted.
+# Requires wrk, a migrated MySQL with the product and warehouse below, and a prior `mvn package`.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+BLOCKING_PORT=${BLOCKING_PORT:-8080}
+REACTIVE_PORT=${REACTIVE_PORT:-8081}
+PRODUCT_ID=${PRODUCT_ID:-1}
+WAREHOUSE_ID=${WAREHOUSE_ID:-1}
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+THREADS=${THREADS:-4}
+LOW_CONNECTIONS=${LOW_CONNECTIONS:-50}
+HIGH_CONNECTIONS=${HIGH_CONNECTIONS:-1000}
+REPORT=${REPORT:-target/inventory-load-report.md}
+JAR=${JAR:-$(ls target/ecommerce-inventory-*.jar | grep -v -- '-exec' | head -n 1)}
+PATH_UNDER_TEST="/api/inventory/$PRODUCT_ID/$WAREHOUSE_ID"
+PID=
+
+mkdir -p target
+
+stop_app() {
+    if [ -n "$PID" ]; then
+        kill "$PID" 2>/dev/null || true
+        wait "$PID" 2>/dev/null || true
+        PID=
+    fi
+}
+trap stop_app EXIT
+
+# Starts a fresh JVM; only the reactive run enables the Netty server
+start_app() {
+    local stack=$1 port=$2
+    java -jar "$JAR" --server.port="$BLOCKING_PORT" --ecommerce.admission.enabled=false \
+        --ecommerce.reactive-read.enabled="$([ "$stack" = reactive ] && echo true || echo false)" \
+        --ecommerce.reactive-read.port="$REACTIVE_PORT" > "target/load-test-$stack.log" 2>&1 &
+    PID=$!
+    until curl -sf -o /dev/null "http://localhost:$port$PATH_UNDER_TEST"; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "application exited before serving a request, see target/load-test-$stack.log" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+}
+
+metric() {
+    curl -sf "http://localhost:$BLOCKING_PORT/actuator/metrics/$1" \
+        | sed -E 's/.*"value":([0-9.E+-]+).*/\1/' | awk '{printf "%d", $1}'
+}
+
+# Prints: rss_kb heap_kb threads
+sample() {
+    local rss heap threads
+    rss=$(ps -o rss= -p "$PID" | tr -d ' ')
+    heap=$(( $(metric "jvm.memory.used?tag=area:heap") / 1024 ))
+    threads=$(metric jvm.threads.live)
+    echo "$rss $heap $threads"
+}
+
+# Idle sample after a warm-up, with a full GC first when jcmd is available so heap deltas are not just garbage
+baseline() {
+    local port=$1
+    wrk -t"$THREADS" -c"$LOW_CONNECTIONS" -d"$WARMUP" "http://localhost:$port$PATH_UNDER_TEST" > /dev/null
+    sleep 2
+    if command -v jcmd > /dev/null; then
+        jcmd "$PID" GC.run > /dev/null
+    fi
+    sample
+}
+
+# Runs wrk and samples halfway through, once every connection is open.
+# Prints: rps p50 p99 non_2xx rss_kb heap_kb threads
+run() {
+    local port=$1 connections=$2 out usage
+    out=$(mktemp)
+    wrk -t"$THREADS" -c"$connections" -d"$DURATION" --latency "http://localhost:$port$PATH_UNDER_TEST" > "$out" &
+    local wrk_pid=$!
+    sleep $(( ${DURATION%s} / 2 ))
+    usage=$(sample)
+    wait "$wrk_pid"
+    local rps p50 p99 errors
+    rps=$(awk '/Requests\/sec/ {print $2}' "$out")
+    p50=$(awk '$1 == "50%" {print $2}' "$out")
+    p99=$(awk '$1 == "99%" {print $2}' "$out")
+    errors=$(awk '/Non-2xx/ {print $NF}' "$out")
+    rm -f "$out"
+    echo "$rps $p50 $p99 ${errors:-0} $usage"
+}
+
+{
+    echo "# Inventory read load test"
+    echo
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ), \`GET $PATH_UNDER_TEST\`, $DURATION per run, $THREADS wrk threads, one JVM per stack"
+    echo
+    echo "| Stack | Connections | Requests/s | p50 | p99 | Non-2xx | RSS +MB | Heap +MB | Threads + |"
+    echo "|-------|-------------|------------|-----|-----|---------|---------|----------|-----------|"
+} > "$REPORT"
+: > "$REPORT.notes"
+
+for stack in blocking reactive; do
+    port=$BLOCKING_PORT
+    [ "$stack" = reactive ] && port=$REACTIVE_PORT
+    start_app "$stack" "$port"
+    read -r rss_idle heap_idle threads_idle <<< "$(baseline "$port")"
+    for connections in "$LOW_CONNECTIONS" "$HIGH_CONNECTIONS"; do
+        read -r rps p50 p99 errors rss heap threads <<< "$(run "$port" "$connections")"
+        echo "| $stack | $connections | $rps | $p50 | $p99 | $errors | $(( (rss - rss_idle) / 1024 )) | $(( (heap - heap_idle) / 1024 )) | $((threads - threads_idle)) |" >> "$REPORT"
+        [ "$connections" = "$LOW_CONNECTIONS" ] && rss_low=$rss || rss_high=$rss
+    done
+    per_connection=$(( (rss_high - rss_low) / (HIGH_CONNECTIONS - LOW_CONNECTIONS) ))
+    echo "- $stack: idle ${rss_idle} KB resident, ${threads_idle} live threads; ~${per_connection} KB resident per additional connection" >> "$REPORT.notes"
+    stop_app
+done
+
+{
+    echo
+    cat "$REPORT.notes"
+} >> "$REPORT"
+rm -f "$REPORT.notes"
+
+cat "$REPORT"
@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Runs the application built with `mvn -Pstartup package` using the AOT-generated context
+# and the class-data-sharing archive recorded during the build. Arguments go to the application
+# (e.g. --server.port=8081); extra JVM options go in JAVA_OPTS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+TARGET=target
+JAR=$(ls "$TARGET"/ecommerce-inventory-*.jar | grep -v -- '-exec.jar' | head -n 1)
+
+# shellcheck disable=SC2086
+exec java ${JAVA_OPTS:-} \
+    -XX:SharedArchiveFile="$TARGET/app.jsa" \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=startup \
+    -cp "$JAR:$TARGET/lib/*" \
+    com.ecommerce.EcommerceInventoryApplication \
+    "$@"
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request for the default and startup-optimized launch modes and writes
+# a Markdown report. Requires a migrated MySQL (docker compose up -d; mvn -Pmigrate flyway:migrate)
+# and a prior `mvn -Pstartup package`.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:$PORT/api/warehouses"
+REPORT=${REPORT:-target/startup-report.md}
+TARGET=target
+EXEC_JAR=$(ls "$TARGET"/ecommerce-inventory-*-exec.jar | head -n 1)
+
+# Prints milliseconds from launch until the first successful response
+measure() {
+    local start end pid
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$TARGET/startup-run.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited before serving a request, see $TARGET/startup-run.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local total=0 best=0 ms
+    for _ in $(seq "$RUNS"); do
+        ms=$(measure "$@")
+        total=$((total + ms))
+        if [ "$best" -eq 0 ] || [ "$ms" -lt "$best" ]; then
+            best=$ms
+        fi
+    done
+    echo "| $name | $((total / RUNS)) | $best |" >> "$REPORT"
+}
+
+{
+    echo "# Time to first request"
+    echo
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ), $RUNS runs per mode, first successful \`GET /api/warehouses\`"
+    echo
+    echo "| Mode | Mean (ms) | Best (ms) |"
+    echo "|------|-----------|-----------|"
+} > "$REPORT"
+
+run_mode "default (fat jar)" java -jar "$EXEC_JAR"
+run_mode "startup profile (no JDBC metadata, deferred repos)" java -Dspring.profiles.active=startup -jar "$EXEC_JAR"
+run_mode "startup profile + AOT + CDS" scripts/run-startup.sh
+
+cat "$REPORT"
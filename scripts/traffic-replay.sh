@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Replays captured order and inventory traffic against a local instance. Only needs the compiled classes (mvn compile).
+#   scripts/traffic-replay.sh [directory] --speed 10 --ids ids.csv
+#   scripts/traffic-replay.sh ./data/capture --dump
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+DIR=./data/capture
+if [[ $# -gt 0 && "$1" != --* ]]; then
+    DIR=$1
+    shift
+fi
+exec java -cp target/classes com.ecommerce.capture.TrafficReplayCli "$DIR" "$@"
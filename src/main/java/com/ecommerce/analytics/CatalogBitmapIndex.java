@@ -0,0 +1,237 @@
+package com.ecommerce.analytics;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps over product ids for listing filters: one per category, brand, warehouse and region,
+ * plus active and in-stock-anywhere. A filter is answered by intersecting the relevant bitmaps, so its cost
+ * depends on the number of containers touched rather than on the number of products.
+ * <p>
+ * Product ids are used directly as bit positions and must fit in an int. Writers are batched by the
+ * owning service; readers share a read lock and always get a private copy of the result.
+ */
+public class CatalogBitmapIndex {
+    
+    /**
+     * Listing filter; {@code null} fields do not constrain the result.
+     */
+    public record Filter(String category, String brand, Boolean active, boolean inStock, Long warehouseId, String region) {
+    }
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final RoaringBitmap products = new RoaringBitmap();
+    private final RoaringBitmap active = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> byBrand = new HashMap<>();
+    
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byWarehouse = new HashMap<>();
+    private final Map<String, RoaringBitmap> byRegion = new HashMap<>();
+    private final Map<Long, String> warehouseRegions = new HashMap<>();
+    
+    public void registerWarehouse(long warehouseId, String region) {
+        lock.writeLock().lock();
+        try {
+            warehouseRegions.put(warehouseId, region);
+            byWarehouse.computeIfAbsent(warehouseId, id -> new RoaringBitmap());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean hasWarehouse(long warehouseId) {
+        lock.readLock().lock();
+        try {
+            return warehouseRegions.containsKey(warehouseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void setAttributes(long productId, String category, String brand, boolean isActive) {
+        int bit = ordinal(productId);
+        lock.writeLock().lock();
+        try {
+            clearAttributes(bit);
+            products.add(bit);
+            if (isActive) {
+                active.add(bit);
+            }
+            if (category != null) {
+                byCategory.computeIfAbsent(category, key -> new RoaringBitmap()).add(bit);
+            }
+            if (brand != null) {
+                byBrand.computeIfAbsent(brand, key -> new RoaringBitmap()).add(bit);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void removeProduct(long productId) {
+        int bit = ordinal(productId);
+        lock.writeLock().lock();
+        try {
+            clearAttributes(bit);
+            inStock.remove(bit);
+            byWarehouse.values().forEach(bitmap -> bitmap.remove(bit));
+            byRegion.values().forEach(bitmap -> bitmap.remove(bit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Records whether a product has sellable units at a warehouse. The region and in-stock-anywhere
+     * bitmaps are only cleared once no other warehouse still holds the product.
+     */
+    public void setStock(long productId, long warehouseId, boolean available) {
+        int bit = ordinal(productId);
+        lock.writeLock().lock();
+        try {
+            String region = warehouseRegions.get(warehouseId);
+            RoaringBitmap warehouse = byWarehouse.computeIfAbsent(warehouseId, id -> new RoaringBitmap());
+            if (available) {
+                warehouse.add(bit);
+                inStock.add(bit);
+                if (region != null) {
+                    byRegion.computeIfAbsent(region, key -> new RoaringBitmap()).add(bit);
+                }
+                return;
+            }
+            
+            if (!warehouse.checkedRemove(bit)) {
+                return;
+            }
+            boolean elsewhere = false;
+            boolean inRegion = false;
+            for (Map.Entry<Long, RoaringBitmap> entry : byWarehouse.entrySet()) {
+                if (entry.getValue().contains(bit)) {
+                    elsewhere = true;
+                    if (region != null && region.equals(warehouseRegions.get(entry.getKey()))) {
+                        inRegion = true;
+                        break;
+                    }
+                }
+            }
+            if (!elsewhere) {
+                inStock.remove(bit);
+            }
+            if (region != null && !inRegion) {
+                RoaringBitmap regional = byRegion.get(region);
+                if (regional != null) {
+                    regional.remove(bit);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public RoaringBitmap select(Filter filter) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> terms = new ArrayList<>();
+            terms.add(products);
+            if (filter.category() != null) {
+                terms.add(byCategory.getOrDefault(filter.category(), new RoaringBitmap()));
+            }
+            if (filter.brand() != null) {
+                terms.add(byBrand.getOrDefault(filter.brand(), new RoaringBitmap()));
+            }
+            if (Boolean.TRUE.equals(filter.active())) {
+                terms.add(active);
+            }
+            if (filter.inStock()) {
+                if (filter.warehouseId() != null) {
+                    terms.add(byWarehouse.getOrDefault(filter.warehouseId(), new RoaringBitmap()));
+                } else if (filter.region() != null) {
+                    terms.add(byRegion.getOrDefault(filter.region(), new RoaringBitmap()));
+                } else {
+                    terms.add(inStock);
+                }
+            }
+            
+            // Start from the smallest bitmap so every intersection step shrinks the working set early
+            terms.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            RoaringBitmap result = terms.get(0).clone();
+            for (int i = 1; i < terms.size() && !result.isEmpty(); i++) {
+                result.and(terms.get(i));
+            }
+            if (Boolean.FALSE.equals(filter.active())) {
+                result.andNot(active);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long productCount() {
+        lock.readLock().lock();
+        try {
+            return products.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = products.getLongSizeInBytes() + active.getLongSizeInBytes() + inStock.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byCategory.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byBrand.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byWarehouse.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byRegion.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Run-length encode long runs of consecutive ids after a bulk load
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            products.runOptimize();
+            active.runOptimize();
+            inStock.runOptimize();
+            byCategory.values().forEach(RoaringBitmap::runOptimize);
+            byBrand.values().forEach(RoaringBitmap::runOptimize);
+            byWarehouse.values().forEach(RoaringBitmap::runOptimize);
+            byRegion.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Categories and brands number in the hundreds, so clearing a bit from each is cheaper than a reverse map
+    private void clearAttributes(int bit) {
+        products.remove(bit);
+        active.remove(bit);
+        byCategory.values().forEach(bitmap -> bitmap.remove(bit));
+        byBrand.values().forEach(bitmap -> bitmap.remove(bit));
+    }
+    
+    private static int ordinal(long productId) {
+        return Math.toIntExact(productId);
+    }
+}
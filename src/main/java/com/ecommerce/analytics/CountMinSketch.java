@@ -0,0 +1,141 @@
+package com.ecommerce.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over long keys: {@code depth} rows of {@code width} int counters. An estimate never
+ * undercounts and overcounts by at most about {@code e / width} of the total added, with probability
+ * {@code 1 - e^-depth}. Sketches of the same shape can be subtracted exactly, which is how expired
+ * time slots are removed from a window total.
+ */
+public class CountMinSketch {
+    
+    // Fixed, so sketches written to disk hash the same way after a restart
+    private static final long[] SEEDS = {
+            0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0x2545f4914f6cdd1dL,
+            0x632be59bd9b4e019L, 0x85ebca77c2b2ae63L, 0xc2b2ae3d27d4eb4fL, 0x165667b19e3779f9L};
+    
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final int[] counts;
+    
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        if (depth <= 0 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + SEEDS.length);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counts = new int[width * depth];
+    }
+    
+    public void add(long key, int count) {
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + index(key, row)] += count;
+        }
+    }
+    
+    public int estimate(long key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + index(key, row)]);
+        }
+        return estimate;
+    }
+    
+    public void add(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+    
+    public void subtract(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= other.counts[i];
+        }
+    }
+    
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+    
+    public int width() {
+        return width;
+    }
+    
+    public int depth() {
+        return depth;
+    }
+    
+    // Slots of a quiet window are mostly zeros, so write non-zero counters only when that is smaller
+    public void write(DataOutput out) throws IOException {
+        int nonZero = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                nonZero++;
+            }
+        }
+        boolean sparse = nonZero * 2 < counts.length;
+        out.writeBoolean(sparse);
+        if (sparse) {
+            out.writeInt(nonZero);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    out.writeInt(i);
+                    out.writeInt(counts[i]);
+                }
+            }
+        } else {
+            for (int count : counts) {
+                out.writeInt(count);
+            }
+        }
+    }
+    
+    /**
+     * Replaces the counters with ones written by {@link #write} from a sketch of the same shape.
+     */
+    public void read(DataInput in) throws IOException {
+        clear();
+        if (in.readBoolean()) {
+            int nonZero = in.readInt();
+            for (int i = 0; i < nonZero; i++) {
+                int index = in.readInt();
+                if (index < 0 || index >= counts.length) {
+                    throw new IOException("Counter index out of range: " + index);
+                }
+                counts[index] = in.readInt();
+            }
+        } else {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = in.readInt();
+            }
+        }
+    }
+    
+    // MurmurHash3 finalizer
+    public static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+    
+    private int index(long key, int row) {
+        return (int) mix(key + SEEDS[row]) & mask;
+    }
+    
+    private void checkShape(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Sketch shapes differ");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ecommerce.analytics;
+
+/**
+ * Exponentially weighted mean and variance of daily demand for one (product, warehouse).
+ * <p>
+ * Units are accumulated into the open day; when a later day is recorded the open day is folded in as
+ * one observation, followed by a zero-demand observation for every day without sales. Each update is
+ * O(1) apart from that gap, which is capped because the estimate has decayed to nothing long before.
+ * Not thread-safe; callers synchronize on the instance.
+ */
+public class DemandEstimator {
+    
+    private static final int MAX_FOLDED_GAP_DAYS = 730;
+    
+    private final double alpha;
+    private double mean;
+    private double variance;
+    private int observedDays;
+    private long openDay;
+    private int openDayUnits;
+    
+    public DemandEstimator(double alpha, long openDay) {
+        this.alpha = alpha;
+        this.openDay = openDay;
+    }
+    
+    public DemandEstimator(double alpha, double mean, double variance, int observedDays, long openDay, int openDayUnits) {
+        this.alpha = alpha;
+        this.mean = mean;
+        this.variance = variance;
+        this.observedDays = observedDays;
+        this.openDay = openDay;
+        this.openDayUnits = openDayUnits;
+    }
+    
+    /**
+     * Records units sold on {@code epochDay}. Units dated before the open day, e.g. an order created
+     * yesterday and confirmed today, count towards the open day.
+     */
+    public void record(long epochDay, int units) {
+        advanceTo(epochDay);
+        openDayUnits += units;
+    }
+    
+    /**
+     * Takes back units of a cancelled sale. They come off the open day even when the sale was folded into
+     * a closed day, which keeps the smoothed volume right; the open day never goes below zero.
+     */
+    public void cancel(long epochDay, int units) {
+        advanceTo(epochDay);
+        openDayUnits = Math.max(0, openDayUnits - units);
+    }
+    
+    /**
+     * Closes every day before {@code epochDay}, so a product that stops selling sees its demand decay.
+     */
+    public void advanceTo(long epochDay) {
+        if (epochDay <= openDay) {
+            return;
+        }
+        observe(openDayUnits);
+        long gap = epochDay - openDay - 1;
+        if (gap > MAX_FOLDED_GAP_DAYS) {
+            mean = 0;
+            variance = 0;
+            observedDays += (int) gap;
+        } else {
+            for (long i = 0; i < gap; i++) {
+                observe(0);
+            }
+        }
+        openDay = epochDay;
+        openDayUnits = 0;
+    }
+    
+    private void observe(double units) {
+        if (observedDays == 0) {
+            mean = units;
+            variance = 0;
+        } else {
+            // West's incremental form of the exponentially weighted mean and variance
+            double diff = units - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        observedDays++;
+    }
+    
+    /**
+     * Stock level at which to reorder: expected demand over the lead time plus safety stock for the
+     * given z-score, assuming independent daily demand.
+     */
+    public int reorderLevel(double leadTimeDays, double z) {
+        double safetyStock = z * Math.sqrt(variance * leadTimeDays);
+        return (int) Math.ceil(mean * leadTimeDays + safetyStock);
+    }
+    
+    public int reorderQuantity(double coverDays, int minimum) {
+        return Math.max(minimum, (int) Math.ceil(mean * coverDays));
+    }
+    
+    public double mean() {
+        return mean;
+    }
+    
+    public double variance() {
+        return variance;
+    }
+    
+    public int observedDays() {
+        return observedDays;
+    }
+    
+    public long openDay() {
+        return openDay;
+    }
+    
+    public int openDayUnits() {
+        return openDayUnits;
+    }
+    
+    /**
+     * Standard normal quantile for a service level in (0, 1), using Acklam's rational approximation
+     * (relative error below 1.2e-9).
+     */
+    public static double zScore(double serviceLevel) {
+        if (serviceLevel <= 0 || serviceLevel >= 1) {
+            throw new IllegalArgumentException("Service level must be between 0 and 1: " + serviceLevel);
+        }
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        double low = 0.02425;
+        
+        if (serviceLevel < low) {
+            double q = Math.sqrt(-2 * Math.log(serviceLevel));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (serviceLevel > 1 - low) {
+            return -zScore(1 - serviceLevel);
+        }
+        double q = serviceLevel - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
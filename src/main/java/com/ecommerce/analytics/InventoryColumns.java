@@ -0,0 +1,199 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.dto.InventoryRow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar inventory store backed by direct (off-heap) buffers.
+ * <p>
+ * A single writer appends and updates rows; readers scan without locking and may observe a row
+ * mid-update, which is acceptable for dashboard aggregates. Growing the store publishes a new
+ * {@link Segment}, so a reader always sees consistently sized columns. {@link #clear()} keeps the
+ * buffers, so a store can be refilled without allocating native memory again.
+ */
+public class InventoryColumns {
+    
+    private static final int CHUNK_ROWS = 1 << 16;
+    
+    private volatile Segment segment;
+    private final LongIntHashMap rowByInventoryId;
+    private final LongIntHashMap warehouseOrdinals = new LongIntHashMap(64);
+    private volatile long[] warehouseIds = new long[16];
+    private volatile int warehouseCount;
+    
+    public InventoryColumns(int initialCapacity) {
+        this.segment = new Segment(Math.max(CHUNK_ROWS, initialCapacity));
+        this.rowByInventoryId = new LongIntHashMap(initialCapacity);
+    }
+    
+    public int size() {
+        return segment.size;
+    }
+    
+    public int capacity() {
+        return segment.capacity;
+    }
+    
+    /**
+     * Drops every row and warehouse but keeps the allocated columns for the next fill.
+     */
+    public synchronized void clear() {
+        segment.size = 0;
+        rowByInventoryId.clear();
+        warehouseOrdinals.clear();
+        warehouseCount = 0;
+    }
+    
+    public synchronized void upsert(InventoryRow row) {
+        int index = rowByInventoryId.get(row.getInventoryId(), -1);
+        Segment current = segment;
+        if (index < 0) {
+            if (current.size == current.capacity) {
+                current = current.grow();
+                segment = current;
+            }
+            index = current.size;
+            rowByInventoryId.put(row.getInventoryId(), index);
+            current.productId.put(index, row.getProductId());
+            current.warehouse.put(index, warehouseOrdinal(row.getWarehouseId()));
+        }
+        
+        current.quantity.put(index, row.getQuantity());
+        current.reserved.put(index, row.getReservedQuantity());
+        current.reorderLevel.put(index, row.getReorderLevel());
+        current.priceCents.put(index, row.getPrice().movePointRight(2).longValue());
+        
+        if (index == current.size) {
+            // Publish the new row only after all of its columns are written
+            current.size = index + 1;
+        }
+    }
+    
+    /**
+     * Single pass over all rows aggregating per warehouse ordinal; chunks run in parallel.
+     */
+    public WarehouseAggregate aggregateByWarehouse() {
+        Segment current = segment;
+        int rows = current.size;
+        int warehouses = warehouseCount;
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> current.aggregate(chunk * CHUNK_ROWS,
+                        Math.min(rows, (chunk + 1) * CHUNK_ROWS), warehouses))
+                .reduce(WarehouseAggregate::merge)
+                .orElseGet(() -> WarehouseAggregate.empty(warehouses));
+    }
+    
+    public long warehouseId(int ordinal) {
+        return warehouseIds[ordinal];
+    }
+    
+    private int warehouseOrdinal(long warehouseId) {
+        int ordinal = warehouseOrdinals.get(warehouseId, -1);
+        if (ordinal < 0) {
+            ordinal = warehouseOrdinals.size();
+            long[] ids = warehouseIds;
+            if (ordinal == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[ordinal] = warehouseId;
+            warehouseIds = ids;
+            warehouseOrdinals.put(warehouseId, ordinal);
+            warehouseCount = ordinal + 1;
+        }
+        return ordinal;
+    }
+    
+    /**
+     * Per-warehouse accumulators, indexed by warehouse ordinal.
+     */
+    public record WarehouseAggregate(long[] rows, long[] onHand, long[] reserved, long[] lowStock, long[] valueCents) {
+        
+        static WarehouseAggregate empty(int warehouses) {
+            return new WarehouseAggregate(new long[warehouses], new long[warehouses], new long[warehouses],
+                    new long[warehouses], new long[warehouses]);
+        }
+        
+        public int warehouses() {
+            return rows.length;
+        }
+        
+        WarehouseAggregate merge(WarehouseAggregate other) {
+            for (int w = 0; w < rows.length; w++) {
+                rows[w] += other.rows[w];
+                onHand[w] += other.onHand[w];
+                reserved[w] += other.reserved[w];
+                lowStock[w] += other.lowStock[w];
+                valueCents[w] += other.valueCents[w];
+            }
+            return this;
+        }
+    }
+    
+    private static final class Segment {
+        final int capacity;
+        final LongBuffer productId;
+        final IntBuffer warehouse;
+        final IntBuffer quantity;
+        final IntBuffer reserved;
+        final IntBuffer reorderLevel;
+        final LongBuffer priceCents;
+        volatile int size;
+        
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.productId = allocate(capacity, Long.BYTES).asLongBuffer();
+            this.warehouse = allocate(capacity, Integer.BYTES).asIntBuffer();
+            this.quantity = allocate(capacity, Integer.BYTES).asIntBuffer();
+            this.reserved = allocate(capacity, Integer.BYTES).asIntBuffer();
+            this.reorderLevel = allocate(capacity, Integer.BYTES).asIntBuffer();
+            this.priceCents = allocate(capacity, Long.BYTES).asLongBuffer();
+        }
+        
+        private static ByteBuffer allocate(int rows, int width) {
+            return ByteBuffer.allocateDirect(rows * width).order(ByteOrder.nativeOrder());
+        }
+        
+        Segment grow() {
+            Segment next = new Segment(capacity * 2);
+            for (int i = 0; i < size; i++) {
+                next.productId.put(i, productId.get(i));
+                next.warehouse.put(i, warehouse.get(i));
+                next.quantity.put(i, quantity.get(i));
+                next.reserved.put(i, reserved.get(i));
+                next.reorderLevel.put(i, reorderLevel.get(i));
+                next.priceCents.put(i, priceCents.get(i));
+            }
+            next.size = size;
+            return next;
+        }
+        
+        WarehouseAggregate aggregate(int from, int to, int warehouses) {
+            WarehouseAggregate acc = WarehouseAggregate.empty(warehouses);
+            for (int i = from; i < to; i++) {
+                int w = warehouse.get(i);
+                if (w >= warehouses) {
+                    // Warehouse registered after this scan started
+                    continue;
+                }
+                int qty = quantity.get(i);
+                int res = reserved.get(i);
+                acc.rows()[w]++;
+                acc.onHand()[w] += qty;
+                acc.reserved()[w] += res;
+                acc.valueCents()[w] += qty * priceCents.get(i);
+                if (qty - res <= reorderLevel.get(i)) {
+                    acc.lowStock()[w]++;
+                }
+            }
+            return acc;
+        }
+    }
+}
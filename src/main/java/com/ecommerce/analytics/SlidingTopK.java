@@ -0,0 +1,199 @@
+package com.ecommerce.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate best sellers over a sliding time window, for any number of scopes (e.g. all products,
+ * one category, one warehouse). The window is split into equal slots, each with its own count-min sketch,
+ * plus a running window total; when a slot expires it is subtracted from the total in one pass.
+ * <p>
+ * Every scope keeps at most {@code capacity} candidate products, replacing its weakest candidate when a
+ * product outsells it. A query re-estimates only those candidates, so its cost depends on the capacity
+ * and the sketch depth, never on the number of products or sales. Memory is fixed by the sketch shape,
+ * the slot count and the candidates per scope.
+ * <p>
+ * The window covers the current, partial slot and the full slots before it, so a one-hour window with
+ * twelve slots reports between 55 and 60 minutes of sales.
+ */
+public class SlidingTopK {
+    
+    public record Ranked(long productId, int units) {}
+    
+    private final long slotMillis;
+    private final CountMinSketch[] slots;
+    private final CountMinSketch window;
+    private final int capacity;
+    // Scope to candidate product id to its estimate when last seen
+    private final Map<Long, Map<Long, Integer>> candidates = new HashMap<>();
+    
+    private long currentSlotStart;
+    private int current;
+    
+    public SlidingTopK(Duration length, int slotCount, int width, int depth, int capacity) {
+        if (slotCount <= 0 || length.toMillis() % slotCount != 0) {
+            throw new IllegalArgumentException("Window of " + length + " cannot be split into " + slotCount + " slots");
+        }
+        this.slotMillis = length.toMillis() / slotCount;
+        this.slots = new CountMinSketch[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new CountMinSketch(width, depth);
+        }
+        this.window = new CountMinSketch(width, depth);
+        this.capacity = capacity;
+    }
+    
+    public synchronized void record(long scope, long productId, int units, long nowMillis) {
+        advance(nowMillis);
+        long key = key(scope, productId);
+        slots[current].add(key, units);
+        window.add(key, units);
+        int estimate = window.estimate(key);
+        
+        Map<Long, Integer> scoped = candidates.computeIfAbsent(scope, s -> new HashMap<>());
+        if (scoped.containsKey(productId) || scoped.size() < capacity) {
+            scoped.put(productId, estimate);
+            return;
+        }
+        // Capacity is small, so a scan for the weakest candidate is cheaper than keeping a heap in sync
+        Map.Entry<Long, Integer> weakest = null;
+        for (Map.Entry<Long, Integer> candidate : scoped.entrySet()) {
+            if (weakest == null || candidate.getValue() < weakest.getValue()) {
+                weakest = candidate;
+            }
+        }
+        if (estimate > weakest.getValue()) {
+            scoped.remove(weakest.getKey());
+            scoped.put(productId, estimate);
+        }
+    }
+    
+    public synchronized List<Ranked> top(long scope, int limit, long nowMillis) {
+        advance(nowMillis);
+        Map<Long, Integer> scoped = candidates.get(scope);
+        if (scoped == null) {
+            return List.of();
+        }
+        List<Ranked> ranked = new ArrayList<>(scoped.size());
+        for (Map.Entry<Long, Integer> candidate : scoped.entrySet()) {
+            int estimate = window.estimate(key(scope, candidate.getKey()));
+            candidate.setValue(estimate);
+            ranked.add(new Ranked(candidate.getKey(), estimate));
+        }
+        ranked.sort(Comparator.comparingInt(Ranked::units).reversed().thenComparingLong(Ranked::productId));
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+    
+    public synchronized void write(DataOutput out) throws IOException {
+        out.writeLong(slotMillis);
+        out.writeInt(slots.length);
+        out.writeInt(window.width());
+        out.writeInt(window.depth());
+        out.writeLong(currentSlotStart);
+        out.writeInt(current);
+        for (CountMinSketch slot : slots) {
+            slot.write(out);
+        }
+        out.writeInt(candidates.size());
+        for (Map.Entry<Long, Map<Long, Integer>> scoped : candidates.entrySet()) {
+            out.writeLong(scoped.getKey());
+            out.writeInt(scoped.getValue().size());
+            for (Long productId : scoped.getValue().keySet()) {
+                out.writeLong(productId);
+            }
+        }
+    }
+    
+    /**
+     * Restores state written by {@link #write} from a window of the same shape; slots that expired
+     * in the meantime are dropped on the next call.
+     */
+    public synchronized void read(DataInput in) throws IOException {
+        if (in.readLong() != slotMillis || in.readInt() != slots.length
+                || in.readInt() != window.width() || in.readInt() != window.depth()) {
+            throw new IOException("Snapshot was taken with a different window or sketch shape");
+        }
+        currentSlotStart = in.readLong();
+        current = in.readInt();
+        if (current < 0 || current >= slots.length) {
+            throw new IOException("Slot index out of range: " + current);
+        }
+        window.clear();
+        for (CountMinSketch slot : slots) {
+            slot.read(in);
+            window.add(slot);
+        }
+        candidates.clear();
+        int scopes = in.readInt();
+        for (int i = 0; i < scopes; i++) {
+            long scope = in.readLong();
+            int size = in.readInt();
+            Map<Long, Integer> scoped = new HashMap<>();
+            for (int j = 0; j < size; j++) {
+                long productId = in.readLong();
+                scoped.put(productId, window.estimate(key(scope, productId)));
+            }
+            candidates.put(scope, scoped);
+        }
+    }
+    
+    private void advance(long nowMillis) {
+        long slotStart = nowMillis - Math.floorMod(nowMillis, slotMillis);
+        if (currentSlotStart == 0) {
+            currentSlotStart = slotStart;
+            return;
+        }
+        // Also covers a clock stepping backwards: keep counting into the current slot
+        if (slotStart <= currentSlotStart) {
+            return;
+        }
+        
+        long elapsed = (slotStart - currentSlotStart) / slotMillis;
+        currentSlotStart = slotStart;
+        if (elapsed >= slots.length) {
+            for (CountMinSketch slot : slots) {
+                slot.clear();
+            }
+            window.clear();
+            candidates.clear();
+            return;
+        }
+        for (long i = 0; i < elapsed; i++) {
+            current = (current + 1) % slots.length;
+            window.subtract(slots[current]);
+            slots[current].clear();
+        }
+        rescore();
+    }
+    
+    // Estimates only fall when a slot expires; products with nothing left in the window stop being candidates
+    private void rescore() {
+        for (Iterator<Map.Entry<Long, Map<Long, Integer>>> scopes = candidates.entrySet().iterator(); scopes.hasNext(); ) {
+            Map.Entry<Long, Map<Long, Integer>> scoped = scopes.next();
+            for (Iterator<Map.Entry<Long, Integer>> it = scoped.getValue().entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Integer> candidate = it.next();
+                int estimate = window.estimate(key(scoped.getKey(), candidate.getKey()));
+                if (estimate <= 0) {
+                    it.remove();
+                } else {
+                    candidate.setValue(estimate);
+                }
+            }
+            if (scoped.getValue().isEmpty()) {
+                scopes.remove();
+            }
+        }
+    }
+    
+    private static long key(long scope, long productId) {
+        return scope ^ CountMinSketch.mix(productId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.audit;
+
+/**
+ * Kinds of journaled mutations. Codes are persisted in the journal and must never be reused.
+ */
+public enum AuditEventType {
+    INVENTORY_CREATED(1),
+    STOCK_ADDED(2),
+    STOCK_REMOVED(3),
+    STOCK_RESERVED(4),
+    RESERVATION_RELEASED(5),
+    RESERVATION_CONFIRMED(6),
+    STOCK_RETURNED(7),
+    INVENTORY_SHARDED(8),
+    RESERVATION_REPAIRED(9),
+    ORDER_CREATED(20),
+    ORDER_CONFIRMED(21),
+    ORDER_PROCESSING(22),
+    ORDER_SHIPPED(23),
+    ORDER_CANCELLED(24);
+    
+    private static final AuditEventType[] BY_CODE = new AuditEventType[32];
+    
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+    
+    private final int code;
+    
+    AuditEventType(int code) {
+        this.code = code;
+    }
+    
+    public int code() {
+        return code;
+    }
+    
+    public static AuditEventType fromCode(int code) {
+        AuditEventType type = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown audit event code " + code);
+        }
+        return type;
+    }
+}
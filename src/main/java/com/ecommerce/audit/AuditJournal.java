@@ -0,0 +1,171 @@
+package com.ecommerce.audit;
+
+import com.ecommerce.config.AuditProperties;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of inventory and order mutations. Callers copy a few primitives into a ring buffer and return;
+ * a single writer thread appends fixed-size records to memory-mapped segment files.
+ * Records made inside a transaction are held per thread and only published once it commits.
+ */
+@Component
+@Slf4j
+public class AuditJournal {
+    
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    
+    private final AuditProperties properties;
+    private final ThreadLocal<PendingRecords> pending = ThreadLocal.withInitial(PendingRecords::new);
+    
+    private AuditRingBuffer ring;
+    private AuditSegmentWriter writer;
+    private Thread writerThread;
+    private volatile boolean running;
+    
+    public AuditJournal(AuditProperties properties) {
+        this.properties = properties;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ring = new AuditRingBuffer(properties.getRingCapacity());
+        writer = new AuditSegmentWriter(Path.of(properties.getDirectory()),
+                properties.getSegmentSize().toBytes(), properties.getMaxSegments());
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+    
+    /**
+     * Stops accepting records, writes everything already published and forces it to disk.
+     */
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writerThread.join();
+        writer.close();
+    }
+    
+    public void inventory(AuditEventType type, Long inventoryId, Long productId, Long warehouseId, int quantity) {
+        record(type, id(inventoryId), id(productId), id(warehouseId), 0, 0, quantity);
+    }
+    
+    public void order(AuditEventType type, Order order) {
+        int units = 0;
+        for (OrderItem item : order.getItems()) {
+            units += item.getQuantity();
+        }
+        long warehouseId = order.getWarehouse() != null ? id(order.getWarehouse().getId()) : 0;
+        long amountCents = order.getTotalAmount() != null ? order.getTotalAmount().movePointRight(2).longValue() : 0;
+        record(type, 0, 0, warehouseId, id(order.getId()), amountCents, units);
+    }
+    
+    private void record(AuditEventType type, long inventoryId, long productId, long warehouseId, long orderId,
+                        long amountCents, int quantity) {
+        if (!running) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.get().add(timestamp, type.code(), inventoryId, productId, warehouseId, orderId, amountCents, quantity);
+        } else {
+            ring.publish(timestamp, type.code(), inventoryId, productId, warehouseId, orderId, amountCents, quantity);
+        }
+    }
+    
+    private void writeLoop() {
+        long forceIntervalNanos = properties.getForceInterval().toNanos();
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (running || !ring.isEmpty()) {
+            int drained;
+            try {
+                drained = ring.drain(writer, DRAIN_BATCH);
+            } catch (RuntimeException e) {
+                log.error("Audit journal write failed", e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                continue;
+            }
+            dirty |= drained > 0;
+            long now = System.nanoTime();
+            if (dirty && now - lastForce >= forceIntervalNanos) {
+                writer.force();
+                dirty = false;
+                lastForce = now;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+    
+    private static long id(Long id) {
+        return id != null ? id : 0;
+    }
+    
+    /**
+     * Per-thread buffer for records made inside a transaction. The same instance is registered with every
+     * transaction on its thread and its arrays are reused, so deferring does not allocate per record.
+     */
+    private class PendingRecords implements TransactionSynchronization {
+        
+        private long[] fields = new long[AuditRingBuffer.FIELDS * 16];
+        private int count;
+        private boolean registered;
+        
+        void add(long timestamp, int type, long inventoryId, long productId, long warehouseId, long orderId,
+                 long amountCents, int quantity) {
+            if (!registered) {
+                TransactionSynchronizationManager.registerSynchronization(this);
+                registered = true;
+            }
+            int offset = count * AuditRingBuffer.FIELDS;
+            if (offset == fields.length) {
+                fields = Arrays.copyOf(fields, fields.length * 2);
+            }
+            fields[offset] = timestamp;
+            fields[offset + 1] = inventoryId;
+            fields[offset + 2] = productId;
+            fields[offset + 3] = warehouseId;
+            fields[offset + 4] = orderId;
+            fields[offset + 5] = amountCents;
+            fields[offset + 6] = quantity;
+            fields[offset + 7] = type;
+            count++;
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED && running) {
+                for (int i = 0; i < count; i++) {
+                    int offset = i * AuditRingBuffer.FIELDS;
+                    ring.publish(fields[offset], (int) fields[offset + 7], fields[offset + 1], fields[offset + 2],
+                            fields[offset + 3], fields[offset + 4], fields[offset + 5], (int) fields[offset + 6]);
+                }
+            }
+            count = 0;
+            registered = false;
+        }
+    }
+}
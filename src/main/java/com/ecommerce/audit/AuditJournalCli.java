@@ -0,0 +1,108 @@
+package com.ecommerce.audit;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Predicate;
+
+/**
+ * Command-line reader for the audit journal.
+ * <pre>
+ * audit-journal &lt;directory&gt; [--type TYPE] [--inventory ID] [--product ID] [--warehouse ID] [--order ID]
+ *               [--since ISO-INSTANT] [--until ISO-INSTANT] [--last N] [--follow]
+ * </pre>
+ * Without {@code --last} all matching records are printed; {@code --follow} keeps polling for new ones.
+ */
+public final class AuditJournalCli {
+    
+    private static final long FOLLOW_POLL_MILLIS = 200;
+    
+    private AuditJournalCli() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        
+        AuditJournalReader reader = new AuditJournalReader(Path.of(args[0]));
+        Predicate<AuditRecord> filter = record -> true;
+        int last = 0;
+        boolean follow = false;
+        
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if ("--follow".equals(option)) {
+                follow = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                usage();
+                return;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--type" -> {
+                    AuditEventType type = AuditEventType.valueOf(value.toUpperCase());
+                    filter = filter.and(record -> record.type() == type);
+                }
+                case "--inventory" -> {
+                    long id = Long.parseLong(value);
+                    filter = filter.and(record -> record.inventoryId() == id);
+                }
+                case "--product" -> {
+                    long id = Long.parseLong(value);
+                    filter = filter.and(record -> record.productId() == id);
+                }
+                case "--warehouse" -> {
+                    long id = Long.parseLong(value);
+                    filter = filter.and(record -> record.warehouseId() == id);
+                }
+                case "--order" -> {
+                    long id = Long.parseLong(value);
+                    filter = filter.and(record -> record.orderId() == id);
+                }
+                case "--since" -> {
+                    long since = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(record -> record.timestamp() >= since);
+                }
+                case "--until" -> {
+                    long until = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(record -> record.timestamp() < until);
+                }
+                case "--last" -> last = Integer.parseInt(value);
+                default -> {
+                    usage();
+                    return;
+                }
+            }
+        }
+        
+        long next;
+        if (last > 0) {
+            int limit = last;
+            Deque<AuditRecord> window = new ArrayDeque<>(limit);
+            next = reader.scan(0, filter, record -> {
+                if (window.size() == limit) {
+                    window.removeFirst();
+                }
+                window.addLast(record);
+            });
+            window.forEach(System.out::println);
+        } else {
+            next = reader.scan(0, filter, System.out::println);
+        }
+        
+        while (follow) {
+            Thread.sleep(FOLLOW_POLL_MILLIS);
+            next = reader.scan(next, filter, System.out::println);
+        }
+    }
+    
+    private static void usage() {
+        System.err.println("usage: audit-journal <directory> [--type TYPE] [--inventory ID] [--product ID] "
+                + "[--warehouse ID] [--order ID] [--since ISO-INSTANT] [--until ISO-INSTANT] [--last N] [--follow]");
+    }
+}
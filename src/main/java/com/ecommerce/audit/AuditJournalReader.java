@@ -0,0 +1,68 @@
+package com.ecommerce.audit;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads journal segments directly from disk, independent of the running application.
+ */
+public class AuditJournalReader {
+    
+    private final Path directory;
+    
+    public AuditJournalReader(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Passes every complete record with a sequence at or after {@code fromSequence} that matches the filter
+     * to the consumer, oldest first.
+     *
+     * @return the sequence to resume from on the next call, which is how {@code --follow} tails the journal
+     */
+    public long scan(long fromSequence, Predicate<AuditRecord> filter, Consumer<AuditRecord> consumer) throws IOException {
+        List<Path> segments = AuditSegments.list(directory);
+        long next = fromSequence;
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip segments that end before the requested sequence
+            if (i + 1 < segments.size() && AuditSegments.firstSequence(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            try {
+                next = scanSegment(segments.get(i), next, filter, consumer);
+            } catch (NoSuchFileException e) {
+                // Pruned by the writer while we were reading
+            }
+        }
+        return next;
+    }
+    
+    private long scanSegment(Path segment, long next, Predicate<AuditRecord> filter,
+                             Consumer<AuditRecord> consumer) throws IOException {
+        long first = AuditSegments.firstSequence(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int records = (int) (channel.size() / AuditRecord.SIZE);
+            for (int index = (int) Math.max(0, next - first); index < records; index++) {
+                AuditRecord record = AuditRecord.read(buffer, index * AuditRecord.SIZE);
+                if (record == null) {
+                    break;
+                }
+                if (filter.test(record)) {
+                    consumer.accept(record);
+                }
+                next = record.sequence() + 1;
+            }
+        }
+        return next;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.audit;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * One journal entry. On disk every record is {@value #SIZE} bytes, little-endian:
+ * <pre>
+ *  0 sequence      8 timestamp (epoch ms)  16 inventoryId  24 productId
+ * 32 warehouseId  40 orderId              48 amount (cents) 56 quantity (int)
+ * 60 type (short) 62 reserved (short)
+ * </pre>
+ * The type is written last, so a zero type marks the end of the written part of a segment.
+ * Ids that do not apply to an event are 0.
+ */
+public record AuditRecord(long sequence, long timestamp, AuditEventType type, long inventoryId, long productId,
+                          long warehouseId, long orderId, long amountCents, int quantity) {
+    
+    public static final int SIZE = 64;
+    
+    static final int TYPE_OFFSET = 60;
+    
+    static AuditRecord read(ByteBuffer buffer, int offset) {
+        int code = buffer.getShort(offset + TYPE_OFFSET);
+        if (code == 0) {
+            return null;
+        }
+        return new AuditRecord(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                AuditEventType.fromCode(code),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                buffer.getLong(offset + 40),
+                buffer.getLong(offset + 48),
+                buffer.getInt(offset + 56));
+    }
+    
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) + " #" + sequence + " " + type
+                + " inventory=" + inventoryId + " product=" + productId + " warehouse=" + warehouseId
+                + " order=" + orderId + " qty=" + quantity + " amount=" + BigDecimal.valueOf(amountCents, 2);
+    }
+}
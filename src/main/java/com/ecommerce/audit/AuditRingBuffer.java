@@ -0,0 +1,85 @@
+package com.ecommerce.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer, single-consumer ring of preallocated primitive slots. Publishing copies the fields
+ * into the slot and never allocates; a full ring makes producers wait for the writer instead of dropping records.
+ */
+class AuditRingBuffer {
+    
+    static final int FIELDS = 8;
+    
+    interface Sink {
+        /**
+         * Receives one slot: timestamp, inventoryId, productId, warehouseId, orderId, amountCents,
+         * quantity and type code at {@code offset} .. {@code offset + 7}.
+         */
+        void accept(long[] slots, int offset);
+    }
+    
+    private final int capacity;
+    private final int mask;
+    private final long[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    
+    AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new long[capacity * FIELDS];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+    
+    void publish(long timestamp, int type, long inventoryId, long productId, long warehouseId, long orderId,
+                 long amountCents, int quantity) {
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= capacity) {
+            LockSupport.parkNanos(10_000);
+        }
+        int index = (int) (sequence & mask);
+        int offset = index * FIELDS;
+        slots[offset] = timestamp;
+        slots[offset + 1] = inventoryId;
+        slots[offset + 2] = productId;
+        slots[offset + 3] = warehouseId;
+        slots[offset + 4] = orderId;
+        slots[offset + 5] = amountCents;
+        slots[offset + 6] = quantity;
+        slots[offset + 7] = type;
+        // Volatile store publishes the plain writes above to the consumer
+        published.set(index, sequence);
+    }
+    
+    /**
+     * Hands up to {@code max} consecutive published slots to the sink, in claim order.
+     */
+    int drain(Sink sink, int max) {
+        long next = consumed;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            sink.accept(slots, index * FIELDS);
+            // Advance per record, so a failing sink only retries the record it failed on
+            consumed = ++next;
+            drained++;
+        }
+        return drained;
+    }
+    
+    boolean isEmpty() {
+        return consumed == claimed.get();
+    }
+}
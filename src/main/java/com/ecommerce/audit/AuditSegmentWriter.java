@@ -0,0 +1,130 @@
+package com.ecommerce.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends records to memory-mapped segment files, rotating to a new segment when the current one is full
+ * and deleting the oldest segments beyond the retention count. Only the journal's writer thread calls this.
+ */
+@Slf4j
+class AuditSegmentWriter implements AuditRingBuffer.Sink, Closeable {
+    
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int position;
+    private long nextSequence;
+    
+    AuditSegmentWriter(Path directory, long segmentBytes, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / AuditRecord.SIZE, segmentBytes / AuditRecord.SIZE);
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        
+        List<Path> segments = AuditSegments.list(directory);
+        if (segments.isEmpty()) {
+            open(0);
+        } else {
+            resume(segments.get(segments.size() - 1));
+        }
+    }
+    
+    long nextSequence() {
+        return nextSequence;
+    }
+    
+    @Override
+    public void accept(long[] slots, int offset) {
+        if (position == capacity) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int at = position * AuditRecord.SIZE;
+        buffer.putLong(at, nextSequence);
+        buffer.putLong(at + 8, slots[offset]);
+        buffer.putLong(at + 16, slots[offset + 1]);
+        buffer.putLong(at + 24, slots[offset + 2]);
+        buffer.putLong(at + 32, slots[offset + 3]);
+        buffer.putLong(at + 40, slots[offset + 4]);
+        buffer.putLong(at + 48, slots[offset + 5]);
+        buffer.putInt(at + 56, (int) slots[offset + 6]);
+        buffer.putShort(at + 62, (short) 0);
+        // Type last: readers treat a non-zero type as a complete record
+        buffer.putShort(at + AuditRecord.TYPE_OFFSET, (short) slots[offset + 7]);
+        position++;
+        nextSequence++;
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+    
+    private void resume(Path segment) throws IOException {
+        map(segment);
+        long first = AuditSegments.firstSequence(segment);
+        int index = 0;
+        while (index < capacity && buffer.getShort(index * AuditRecord.SIZE + AuditRecord.TYPE_OFFSET) != 0) {
+            index++;
+        }
+        position = index;
+        nextSequence = first + index;
+        log.info("Resuming audit journal {} at sequence {}", segment.getFileName(), nextSequence);
+    }
+    
+    private void rotate() throws IOException {
+        close();
+        open(nextSequence);
+        prune();
+    }
+    
+    private void open(long firstSequence) throws IOException {
+        Path segment = directory.resolve(AuditSegments.fileName(firstSequence));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file; the new region reads as zeros, i.e. empty records
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * AuditRecord.SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = recordsPerSegment;
+        position = 0;
+        nextSequence = firstSequence;
+    }
+    
+    private void map(Path segment) throws IOException {
+        channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Keep the size the segment was created with, even if the configured size has changed since
+        long size = channel.size() > 0 ? channel.size() : (long) recordsPerSegment * AuditRecord.SIZE;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = (int) (size / AuditRecord.SIZE);
+    }
+    
+    private void prune() throws IOException {
+        List<Path> segments = AuditSegments.list(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.capture;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Capture file naming and header. Each file is a gzip stream named after the epoch millis it was opened at,
+ * so sorting by name sorts by time; it starts with {@link #MAGIC} and {@link #VERSION}, followed by records.
+ */
+final class CaptureFiles {
+    
+    static final int MAGIC = 0x45434150; // "ECAP"
+    static final int VERSION = 2;
+    
+    // Version 1 files lack the record flags and are still read
+    static final int MIN_VERSION = 1;
+    
+    private static final String PREFIX = "capture-";
+    private static final String SUFFIX = ".bin.gz";
+    
+    private CaptureFiles() {
+    }
+    
+    static String fileName(long openedAtMillis) {
+        return String.format("%s%020d%s", PREFIX, openedAtMillis, SUFFIX);
+    }
+    
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads capture files in time order, independent of the running application. The file still being written
+ * is read up to its last flushed record.
+ */
+public class CaptureLogReader {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Path directory;
+    
+    public CaptureLogReader(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * @return the number of records passed to the consumer
+     */
+    public long read(Consumer<CaptureRecord> consumer) throws IOException {
+        long count = 0;
+        for (Path file : CaptureFiles.list(directory)) {
+            count += readFile(file, consumer);
+        }
+        return count;
+    }
+    
+    private static long readFile(Path file, Consumer<CaptureRecord> consumer) throws IOException {
+        long count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+            if (in.readInt() != CaptureFiles.MAGIC) {
+                throw new IOException("Not a capture file: " + file);
+            }
+            int version = in.readUnsignedShort();
+            if (version < CaptureFiles.MIN_VERSION || version > CaptureFiles.VERSION) {
+                throw new IOException("Unsupported capture file version " + version + ": " + file);
+            }
+            while (true) {
+                consumer.accept(CaptureRecord.read(in, version));
+                count++;
+            }
+        } catch (EOFException e) {
+            // End of a completed file, or of what has been flushed of the current one
+        }
+        return count;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.capture;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One captured API call. {@code createdId} is the id returned by a create call, which the replayer
+ * uses to map later calls on that entity to the id the replayed create returned; zero otherwise.
+ * {@code truncated} marks a request body that was larger than the capture limit and was cut short,
+ * so it cannot be resent as captured.
+ * <p>
+ * Binary layout, big-endian: timestamp (epoch micros, long), duration (micros, int), status (short),
+ * created id (long), flags (byte, bit 0 set when truncated, from file version 2), then method, path with
+ * query, content type and accept header as modified UTF-8, then the body as an int length followed by the bytes.
+ */
+public record CaptureRecord(long timestampMicros, int durationMicros, int status, long createdId,
+                            String method, String path, String contentType, String accept, byte[] body,
+                            boolean truncated) {
+    
+    private static final int TRUNCATED = 1;
+    
+    public long approximateSize() {
+        // Fixed fields, four UTF length prefixes and the body length
+        return 23 + 8 + 4 + method.length() + path.length() + contentType.length() + accept.length() + body.length;
+    }
+    
+    void write(DataOutput out) throws IOException {
+        out.writeLong(timestampMicros);
+        out.writeInt(durationMicros);
+        out.writeShort(status);
+        out.writeLong(createdId);
+        out.writeByte(truncated ? TRUNCATED : 0);
+        out.writeUTF(method);
+        out.writeUTF(path);
+        out.writeUTF(contentType);
+        out.writeUTF(accept);
+        out.writeInt(body.length);
+        out.write(body);
+    }
+    
+    static CaptureRecord read(DataInput in, int version) throws IOException {
+        long timestampMicros = in.readLong();
+        int durationMicros = in.readInt();
+        int status = in.readUnsignedShort();
+        long createdId = in.readLong();
+        int flags = version >= 2 ? in.readUnsignedByte() : 0;
+        String method = in.readUTF();
+        String path = in.readUTF();
+        String contentType = in.readUTF();
+        String accept = in.readUTF();
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new CaptureRecord(timestampMicros, durationMicros, status, createdId, method, path, contentType, accept,
+                body, (flags & TRUNCATED) != 0);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s %s %s -> %d in %.3f ms%s%s", Instant.EPOCH.plus(timestampMicros, ChronoUnit.MICROS),
+                method, path, status, durationMicros / 1000.0, createdId != 0 ? " (created " + createdId + ")" : "",
+                truncated ? " (body truncated)" : "");
+    }
+}
@@ -0,0 +1,179 @@
+package com.ecommerce.capture;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites captured ids to ids that exist on the replay target. Orders and inventory rows created during
+ * the capture map to the ids their replayed creates returned, so calls on them wait for that create.
+ * Everything else uses the fixed mapping file; ids without a mapping are sent unchanged.
+ * <p>
+ * The mapping file holds one {@code kind,capturedId,localId} line per id, with kind one of
+ * {@code order}, {@code inventory}, {@code product} or {@code warehouse}; {@code #} starts a comment.
+ */
+class IdRemapper {
+    
+    enum Kind {
+        ORDER,
+        INVENTORY,
+        PRODUCT,
+        WAREHOUSE
+    }
+    
+    private static final Pattern ORDER_PATH = Pattern.compile("/api/orders/(\\d+)(/.*)?");
+    private static final Pattern STOCK_PATH = Pattern.compile("/api/inventory/(\\d+)/(\\d+)");
+    private static final Pattern PRODUCT_PATH = Pattern.compile("/api/inventory/product/(\\d+)(/.*)?");
+    private static final Pattern INVENTORY_PATH = Pattern.compile("/api/inventory/(\\d+)(/.*)?");
+    
+    private static final Pattern ID_PARAM = Pattern.compile("\\b(productId|warehouseId)=(\\d+)");
+    private static final Pattern ID_FIELD = Pattern.compile("\"(productId|warehouseId)\"\\s*:\\s*(\\d+)");
+    private static final Pattern ID_LIST = Pattern.compile("\"(productIds|warehouseIds)\"\\s*:\\s*\\[([\\d,\\s]*)]");
+    private static final Pattern ID_PAIR = Pattern.compile("\\[\\s*(\\d+)\\s*,\\s*(\\d+)\\s*]");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    
+    private final Map<Kind, Map<Long, Long>> fixed = new EnumMap<>(Kind.class);
+    private final Map<Kind, Map<Long, CompletableFuture<Long>>> created = new EnumMap<>(Kind.class);
+    
+    IdRemapper() {
+        for (Kind kind : Kind.values()) {
+            fixed.put(kind, new ConcurrentHashMap<>());
+            created.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+    
+    static IdRemapper load(Path mappingFile) throws IOException {
+        IdRemapper remapper = new IdRemapper();
+        for (String line : Files.readAllLines(mappingFile)) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split("\\s*,\\s*");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Expected kind,capturedId,localId but got: " + line);
+            }
+            remapper.map(Kind.valueOf(fields[0].toUpperCase()), Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+        }
+        return remapper;
+    }
+    
+    void map(Kind kind, long capturedId, long localId) {
+        fixed.get(kind).put(capturedId, localId);
+    }
+    
+    /**
+     * The kind of entity a captured call created, or {@code null} for any other call.
+     */
+    static Kind createdKind(CaptureRecord record) {
+        if (!"POST".equals(record.method())) {
+            return null;
+        }
+        String path = pathOnly(record.path());
+        if (path.equals("/api/orders")) {
+            return Kind.ORDER;
+        }
+        return path.equals("/api/inventory") ? Kind.INVENTORY : null;
+    }
+    
+    /**
+     * Registers a create being replayed. Complete the returned future with the new id, or with {@code null}
+     * if the create failed so the calls waiting on it are skipped.
+     */
+    CompletableFuture<Long> expectCreated(Kind kind, long capturedId) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        created.get(kind).put(capturedId, future);
+        return future;
+    }
+    
+    /**
+     * Completes with the rewritten path and query, or with {@code null} when the call refers to an entity
+     * whose replayed create failed.
+     */
+    CompletableFuture<String> path(String captured) {
+        String path = pathOnly(captured);
+        String query = captured.length() > path.length() ? rewriteParams(captured.substring(path.length())) : "";
+        
+        Matcher matcher = ORDER_PATH.matcher(path);
+        if (matcher.matches()) {
+            return created(Kind.ORDER, "/api/orders/", matcher, query);
+        }
+        matcher = STOCK_PATH.matcher(path);
+        if (matcher.matches()) {
+            return CompletableFuture.completedFuture("/api/inventory/" + fixedId(Kind.PRODUCT, matcher.group(1))
+                    + "/" + fixedId(Kind.WAREHOUSE, matcher.group(2)) + query);
+        }
+        matcher = PRODUCT_PATH.matcher(path);
+        if (matcher.matches()) {
+            return CompletableFuture.completedFuture("/api/inventory/product/" + fixedId(Kind.PRODUCT, matcher.group(1))
+                    + rest(matcher) + query);
+        }
+        matcher = INVENTORY_PATH.matcher(path);
+        if (matcher.matches()) {
+            return created(Kind.INVENTORY, "/api/inventory/", matcher, query);
+        }
+        return CompletableFuture.completedFuture(path + query);
+    }
+    
+    /**
+     * Rewrites product and warehouse ids in a JSON body. Other bodies are returned unchanged.
+     */
+    byte[] body(String path, byte[] body) {
+        if (body.length == 0 || (body[0] != '{' && body[0] != '[')) {
+            return body;
+        }
+        String json = new String(body, StandardCharsets.UTF_8);
+        json = ID_FIELD.matcher(json).replaceAll(match -> Matcher.quoteReplacement(
+                "\"" + match.group(1) + "\":" + fixedId(kindOf(match.group(1)), match.group(2))));
+        json = ID_LIST.matcher(json).replaceAll(match -> {
+            Kind kind = kindOf(match.group(1));
+            String ids = NUMBER.matcher(match.group(2)).replaceAll(id -> String.valueOf(fixedId(kind, id.group())));
+            return Matcher.quoteReplacement("\"" + match.group(1) + "\":[" + ids + "]");
+        });
+        if (pathOnly(path).equals("/api/inventory/stock-levels")) {
+            json = ID_PAIR.matcher(json).replaceAll(match -> "[" + fixedId(Kind.PRODUCT, match.group(1))
+                    + "," + fixedId(Kind.WAREHOUSE, match.group(2)) + "]");
+        }
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private CompletableFuture<String> created(Kind kind, String prefix, Matcher matcher, String query) {
+        long capturedId = Long.parseLong(matcher.group(1));
+        String rest = rest(matcher);
+        CompletableFuture<Long> pending = created.get(kind).get(capturedId);
+        if (pending == null) {
+            return CompletableFuture.completedFuture(prefix + fixedId(kind, matcher.group(1)) + rest + query);
+        }
+        return pending.thenApply(localId -> localId != null ? prefix + localId + rest + query : null);
+    }
+    
+    private String rewriteParams(String query) {
+        return ID_PARAM.matcher(query).replaceAll(match ->
+                match.group(1) + "=" + fixedId(kindOf(match.group(1)), match.group(2)));
+    }
+    
+    private long fixedId(Kind kind, String capturedId) {
+        long id = Long.parseLong(capturedId);
+        return fixed.get(kind).getOrDefault(id, id);
+    }
+    
+    private static Kind kindOf(String field) {
+        return field.startsWith("product") ? Kind.PRODUCT : Kind.WAREHOUSE;
+    }
+    
+    private static String rest(Matcher matcher) {
+        return matcher.group(2) != null ? matcher.group(2) : "";
+    }
+    
+    private static String pathOnly(String path) {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.capture;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Latency and error counts per endpoint for a replay, next to the latencies seen when the traffic was captured.
+ */
+class ReplayStats {
+    
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final double[] PERCENTILES = {0.50, 0.90, 0.99};
+    
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private final AtomicLong maxLagMicros = new AtomicLong();
+    
+    /**
+     * Groups calls by method and path template, e.g. {@code POST /api/orders/{id}/confirm}.
+     */
+    static String endpoint(String method, String path) {
+        int query = path.indexOf('?');
+        String template = ID_SEGMENT.matcher(query < 0 ? path : path.substring(0, query)).replaceAll("/{id}");
+        return method + " " + template;
+    }
+    
+    void captured(String endpoint, int durationMicros) {
+        endpoint(endpoint).captured(durationMicros);
+    }
+    
+    /**
+     * @param status the replayed status, or -1 when the call failed without a response
+     */
+    void replayed(String endpoint, long latencyMicros, int status, int capturedStatus) {
+        endpoint(endpoint).replayed(latencyMicros, status, capturedStatus);
+    }
+    
+    void skipped(String endpoint) {
+        endpoint(endpoint).skipped();
+    }
+    
+    // Captured with a cut-off body, so not sent
+    void truncated(String endpoint) {
+        endpoint(endpoint).truncated();
+    }
+    
+    // How far behind its scheduled time a call was sent; large values mean the replayer itself was the limit
+    void lag(long lagMicros) {
+        maxLagMicros.accumulateAndGet(lagMicros, Math::max);
+    }
+    
+    void print(PrintStream out, long elapsedMillis) {
+        out.printf(Locale.ROOT, "%-40s %8s %6s %6s %6s %6s %7s %9s %9s %9s %9s %11s %11s%n",
+                "endpoint", "calls", "4xx", "5xx", "skip", "trunc", "diff", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                "cap p50 ms", "cap p99 ms");
+        long calls = 0;
+        long errors = 0;
+        long truncated = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint stats = entry.getValue();
+            synchronized (stats) {
+                long[] latencies = stats.replayed.sorted();
+                long[] captured = stats.captured.sorted();
+                out.printf(Locale.ROOT, "%-40s %8d %6d %6d %6d %6d %7d %9.2f %9.2f %9.2f %9.2f %11.2f %11.2f%n",
+                        entry.getKey(), latencies.length, stats.clientErrors, stats.serverErrors, stats.skipped,
+                        stats.truncated, stats.statusMismatches, millis(latencies, PERCENTILES[0]), millis(latencies, PERCENTILES[1]),
+                        millis(latencies, PERCENTILES[2]), millis(latencies, 1.0),
+                        millis(captured, PERCENTILES[0]), millis(captured, PERCENTILES[2]));
+                calls += latencies.length;
+                errors += stats.serverErrors;
+                truncated += stats.truncated;
+            }
+        }
+        out.printf(Locale.ROOT, "%nReplayed %d calls in %.1f s (%.1f/s), %.2f%% failed or 5xx, max send lag %.1f ms%n",
+                calls, elapsedMillis / 1000.0, calls * 1000.0 / Math.max(1, elapsedMillis),
+                calls == 0 ? 0.0 : errors * 100.0 / calls, maxLagMicros.get() / 1000.0);
+        if (truncated > 0) {
+            out.printf(Locale.ROOT, "Left out %d calls captured with a truncated body; raise max-body-size to replay them%n",
+                    truncated);
+        }
+    }
+    
+    private Endpoint endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+    }
+    
+    private static double millis(long[] sortedMicros, double percentile) {
+        if (sortedMicros.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedMicros.length) - 1;
+        return sortedMicros[Math.max(0, index)] / 1000.0;
+    }
+    
+    private static final class Endpoint {
+        
+        private final Samples replayed = new Samples();
+        private final Samples captured = new Samples();
+        private long clientErrors;
+        private long serverErrors;
+        private long skipped;
+        private long truncated;
+        private long statusMismatches;
+        
+        synchronized void captured(long durationMicros) {
+            captured.add(durationMicros);
+        }
+        
+        synchronized void replayed(long latencyMicros, int status, int capturedStatus) {
+            replayed.add(latencyMicros);
+            if (status < 0 || status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            }
+            if (status != capturedStatus) {
+                statusMismatches++;
+            }
+        }
+        
+        synchronized void skipped() {
+            skipped++;
+        }
+        
+        synchronized void truncated() {
+            truncated++;
+        }
+    }
+    
+    private static final class Samples {
+        
+        private long[] values = new long[1024];
+        private int size;
+        
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
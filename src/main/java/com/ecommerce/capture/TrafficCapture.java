@@ -0,0 +1,157 @@
+package com.ecommerce.capture;
+
+import com.ecommerce.config.CaptureProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records API calls for later replay. Request threads only enqueue a record; a single writer thread appends
+ * them to gzip-compressed capture files, rotating by size and deleting the oldest files beyond the retention
+ * count. When the queue is full, calls are counted and left out rather than slowing requests down.
+ */
+@Component
+@Slf4j
+public class TrafficCapture {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final CaptureProperties properties;
+    private final AtomicLong dropped = new AtomicLong();
+    
+    private BlockingQueue<CaptureRecord> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+    
+    // Writer thread only
+    private DataOutputStream out;
+    private long written;
+    private long lastOpenedAt;
+    
+    public TrafficCapture(CaptureProperties properties) {
+        this.properties = properties;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(Path.of(properties.getDirectory()));
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        writerThread = new Thread(this::writeLoop, "traffic-capture-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Capturing order and inventory API traffic to {}", properties.getDirectory());
+    }
+    
+    /**
+     * Stops accepting records and writes everything already queued, completing the current file.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writerThread.join();
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public void record(CaptureRecord record) {
+        if (running && !queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+    
+    private void writeLoop() {
+        long lastFlush = System.nanoTime();
+        boolean unflushed = false;
+        try {
+            while (running || !queue.isEmpty()) {
+                CaptureRecord record = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    write(record);
+                    unflushed = true;
+                }
+                // Sync-flush the deflater so a reader sees every record older than a second
+                if (unflushed && (record == null || System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS)) {
+                    out.flush();
+                    unflushed = false;
+                    lastFlush = System.nanoTime();
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+            log.error("Traffic capture stopped after a write failure", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+        if (dropped.get() > 0) {
+            log.warn("Traffic capture left out {} calls because the writer fell behind", dropped.get());
+        }
+    }
+    
+    private void write(CaptureRecord record) throws IOException {
+        if (out == null || written >= properties.getFileSize().toBytes()) {
+            closeFile();
+            open();
+        }
+        record.write(out);
+        written += record.approximateSize();
+    }
+    
+    private void open() throws IOException {
+        Path directory = Path.of(properties.getDirectory());
+        // Two rotations within a millisecond still get distinct, ordered names
+        lastOpenedAt = Math.max(System.currentTimeMillis(), lastOpenedAt + 1);
+        Path file = directory.resolve(CaptureFiles.fileName(lastOpenedAt));
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE_NEW), BUFFER_SIZE, true), BUFFER_SIZE));
+        out.writeInt(CaptureFiles.MAGIC);
+        out.writeShort(CaptureFiles.VERSION);
+        written = 0;
+        prune(directory);
+    }
+    
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Failed to complete capture file", e);
+        }
+        out = null;
+    }
+    
+    private void prune(Path directory) throws IOException {
+        List<Path> files = CaptureFiles.list(directory);
+        for (int i = 0; i < files.size() - properties.getMaxFiles(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.capture;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Re-drives captured traffic against a running instance, keeping the captured spacing between calls
+ * divided by the speed factor, and prints latency percentiles and error counts per endpoint.
+ * <pre>
+ * traffic-replay &lt;directory&gt; [--target URL] [--speed 1-50] [--ids FILE] [--max-in-flight N] [--dump]
+ * </pre>
+ * {@code --dump} prints the captured calls instead of replaying them. See {@link IdRemapper} for {@code --ids}.
+ */
+public final class TrafficReplayCli {
+    
+    private static final double MAX_SPEED = 50;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern CREATED_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    
+    private final HttpClient client;
+    private final String target;
+    private final IdRemapper remapper;
+    private final ReplayStats stats = new ReplayStats();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    
+    private TrafficReplayCli(String target, IdRemapper remapper, int maxInFlight) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.target = target;
+        this.remapper = remapper;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        
+        CaptureLogReader reader = new CaptureLogReader(Path.of(args[0]));
+        String target = "http://localhost:8080";
+        double speed = 1;
+        IdRemapper remapper = new IdRemapper();
+        int maxInFlight = 512;
+        boolean dump = false;
+        
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if ("--dump".equals(option)) {
+                dump = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                usage();
+                return;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--target" -> target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "--speed" -> speed = Double.parseDouble(value);
+                case "--ids" -> remapper = IdRemapper.load(Path.of(value));
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                default -> {
+                    usage();
+                    return;
+                }
+            }
+        }
+        
+        if (dump) {
+            reader.read(System.out::println);
+            return;
+        }
+        if (speed < 1 || speed > MAX_SPEED) {
+            System.err.println("--speed must be between 1 and " + (int) MAX_SPEED);
+            return;
+        }
+        new TrafficReplayCli(target, remapper, maxInFlight).replay(reader, speed);
+    }
+    
+    private void replay(CaptureLogReader reader, double speed) throws Exception {
+        long start = System.nanoTime();
+        long[] origin = {-1};
+        reader.read(record -> {
+            if (origin[0] < 0) {
+                origin[0] = record.timestampMicros();
+            }
+            if (record.truncated()) {
+                skipTruncated(record);
+                return;
+            }
+            long due = start + (long) ((record.timestampMicros() - origin[0]) * 1000 / speed);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquireUninterruptibly();
+            stats.lag((System.nanoTime() - due) / 1000);
+            send(record);
+        });
+        
+        // Every call holds a permit until it completes
+        inFlight.acquireUninterruptibly(maxInFlight);
+        stats.print(System.out, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    private void send(CaptureRecord record) {
+        String endpoint = ReplayStats.endpoint(record.method(), record.path());
+        stats.captured(endpoint, record.durationMicros());
+        
+        IdRemapper.Kind createdKind = record.createdId() != 0 ? IdRemapper.createdKind(record) : null;
+        CompletableFuture<Long> created = createdKind != null
+                ? remapper.expectCreated(createdKind, record.createdId()) : null;
+        
+        remapper.path(record.path())
+                .thenCompose(path -> {
+                    if (path == null) {
+                        stats.skipped(endpoint);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    HttpRequest request = request(record, path, created != null);
+                    long sent = System.nanoTime();
+                    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).handle((response, failure) -> {
+                        int status = failure != null ? -1 : response.statusCode();
+                        stats.replayed(endpoint, (System.nanoTime() - sent) / 1000, status, record.status());
+                        if (created != null) {
+                            created.complete(status >= 200 && status < 300 ? createdId(response.body()) : null);
+                        }
+                        return null;
+                    });
+                })
+                .whenComplete((ignored, failure) -> {
+                    if (created != null) {
+                        created.complete(null);
+                    }
+                    inFlight.release();
+                });
+    }
+    
+    // A cut-off body would only replay as a 400; calls on an entity it would have created are skipped too
+    private void skipTruncated(CaptureRecord record) {
+        stats.truncated(ReplayStats.endpoint(record.method(), record.path()));
+        IdRemapper.Kind createdKind = record.createdId() != 0 ? IdRemapper.createdKind(record) : null;
+        if (createdKind != null) {
+            remapper.expectCreated(createdKind, record.createdId()).complete(null);
+        }
+    }
+    
+    private HttpRequest request(CaptureRecord record, String path, boolean create) {
+        byte[] body = remapper.body(record.path(), record.body());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path))
+                .timeout(REQUEST_TIMEOUT)
+                .method(record.method(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (!record.contentType().isEmpty()) {
+            builder.header("Content-Type", record.contentType());
+        }
+        // Creates are always answered in JSON so the new id can be read back
+        if (create) {
+            builder.header("Accept", "application/json");
+        } else if (!record.accept().isEmpty()) {
+            builder.header("Accept", record.accept());
+        }
+        return builder.build();
+    }
+    
+    private static Long createdId(String body) {
+        Matcher matcher = CREATED_ID.matcher(body);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+    }
+    
+    private static void usage() {
+        System.err.println("usage: traffic-replay <directory> [--target URL] [--speed 1-50] [--ids FILE] "
+                + "[--max-in-flight N] [--dump]");
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.cluster;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shared membership and warehouse leases. Expiry is judged by the coordinator's own clock, never the caller's.
+ */
+public interface ClusterCoordinator {
+    
+    /**
+     * Registers the node, or extends its membership, for {@code lease} from now.
+     */
+    void heartbeat(String nodeId, String url, Duration lease);
+    
+    /**
+     * @return node id to URL for every node whose membership has not expired
+     */
+    Map<String, String> liveMembers();
+    
+    void leave(String nodeId);
+    
+    /**
+     * Takes the warehouse's lease if it is free, expired or already held by this node.
+     */
+    boolean acquire(long warehouseId, String nodeId, Duration lease);
+    
+    /**
+     * Extends every unexpired lease the node holds.
+     *
+     * @return the warehouses the node still holds
+     */
+    Set<Long> renew(String nodeId, Duration lease);
+    
+    /**
+     * Expires the lease now if the node holds it, so the next owner does not wait out the remainder.
+     */
+    void release(long warehouseId, String nodeId);
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.cluster;
+
+import com.ecommerce.config.ClusterProperties;
+import com.ecommerce.config.TopSellerProperties;
+import com.ecommerce.dto.TopSeller;
+import com.ecommerce.service.TopSellerService;
+import com.ecommerce.web.OwnerRoutingFilter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cluster-wide top sellers. Each node counts only the orders it confirms, so every live node is asked for
+ * its candidates in the scope and the units of each product are summed. Nodes count disjoint orders, which
+ * keeps the sum right for warehouses that changed owner within the window too.
+ * <p>
+ * A product outside a node's candidates contributes nothing from that node, so merged counts can miss
+ * units a node no longer tracks; they never count one twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.cluster", name = "enabled", havingValue = "true")
+@Slf4j
+public class ClusterTopSellers {
+    
+    private static final TypeReference<List<TopSeller>> TOP_SELLERS = new TypeReference<>() {};
+    
+    private final TopSellerService topSellerService;
+    private final TopSellerProperties topSellerProperties;
+    private final WarehouseOwnershipService ownership;
+    private final ClusterProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    
+    public ClusterTopSellers(TopSellerService topSellerService, TopSellerProperties topSellerProperties,
+                             WarehouseOwnershipService ownership, ClusterProperties properties,
+                             ObjectMapper objectMapper) {
+        this.topSellerService = topSellerService;
+        this.topSellerProperties = topSellerProperties;
+        this.ownership = ownership;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getForwardTimeout())
+                .build();
+    }
+    
+    /**
+     * Same contract as {@link TopSellerService#getTopSellers}, over the sales of every node.
+     *
+     * @return empty when a live node could not be asked, rather than a ranking that leaves its sales out
+     */
+    public Optional<List<TopSeller>> getTopSellers(TopSellerService.Window window, String category, Long warehouseId,
+                                                   int limit) {
+        int candidates = topSellerProperties.getCandidates();
+        if (limit <= 0 || limit > candidates) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + candidates);
+        }
+        List<TopSeller> local = topSellerService.getTopSellers(window, category, warehouseId, candidates);
+        
+        List<CompletableFuture<List<TopSeller>>> remote = new ArrayList<>();
+        ownership.members().forEach((nodeId, url) -> {
+            if (!nodeId.equals(ownership.nodeId())) {
+                remote.add(fetch(url, window, category, warehouseId, candidates));
+            }
+        });
+        
+        List<List<TopSeller>> rankings = new ArrayList<>();
+        rankings.add(local);
+        try {
+            for (CompletableFuture<List<TopSeller>> ranking : remote) {
+                rankings.add(ranking.join());
+            }
+        } catch (CompletionException e) {
+            log.warn("Top sellers of a cluster node are unavailable: {}", e.getCause().toString());
+            return Optional.empty();
+        }
+        return Optional.of(merge(rankings, limit));
+    }
+    
+    static List<TopSeller> merge(List<List<TopSeller>> rankings, int limit) {
+        Map<Long, Integer> units = new HashMap<>();
+        for (List<TopSeller> ranking : rankings) {
+            for (TopSeller seller : ranking) {
+                units.merge(seller.getProductId(), seller.getUnits(), Integer::sum);
+            }
+        }
+        return units.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                .limit(limit)
+                .map(entry -> new TopSeller(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+    
+    // Marked as forwarded, so the node answers from its own windows instead of fanning out again
+    private CompletableFuture<List<TopSeller>> fetch(String url, TopSellerService.Window window, String category,
+                                                     Long warehouseId, int candidates) {
+        StringBuilder query = new StringBuilder("?window=").append(window).append("&limit=").append(candidates);
+        if (category != null) {
+            query.append("&category=").append(URLEncoder.encode(category, StandardCharsets.UTF_8));
+        }
+        if (warehouseId != null) {
+            query.append("&warehouseId=").append(warehouseId);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/reports/top-sellers" + query))
+                .timeout(properties.getForwardTimeout())
+                .header(OwnerRoutingFilter.FORWARDED_HEADER, ownership.nodeId())
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(url + " answered " + response.statusCode());
+            }
+            try {
+                return objectMapper.readValue(response.body(), TOP_SELLERS);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
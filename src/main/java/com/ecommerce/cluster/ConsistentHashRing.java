@@ -0,0 +1,55 @@
+package com.ecommerce.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps warehouse ids to node ids. Each node is placed at several points on a 64-bit ring and a warehouse
+ * belongs to the first node point at or after its own hash, so a node joining or leaving only moves
+ * the warehouses adjacent to its points. Immutable; rebuilt when membership changes.
+ */
+public class ConsistentHashRing {
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private final TreeMap<Long, String> points = new TreeMap<>();
+    
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        for (String nodeId : nodeIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the smaller id wins, so every node builds the same ring
+                points.merge(hash(nodeId + "#" + i), nodeId, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+    
+    /**
+     * @return the owning node, or {@code null} when the ring is empty
+     */
+    public String ownerOf(long warehouseId) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(warehouseId));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+    
+    static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+    
+    // MurmurHash3 finalizer: spreads sequential ids over the whole ring
+    static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
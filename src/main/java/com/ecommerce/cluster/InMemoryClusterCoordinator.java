@@ -0,0 +1,87 @@
+package com.ecommerce.cluster;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process stand-in for the shared coordinator. One instance shared by several
+ * {@link WarehouseOwnershipService}s behaves like a cluster of that many nodes.
+ */
+public class InMemoryClusterCoordinator implements ClusterCoordinator {
+    
+    private record Member(String url, long expiresAt) {}
+    
+    private record Lease(String owner, long expiresAt) {}
+    
+    private final LongSupplier clock;
+    private final Map<String, Member> members = new HashMap<>();
+    private final Map<Long, Lease> leases = new HashMap<>();
+    
+    public InMemoryClusterCoordinator() {
+        this(System::nanoTime);
+    }
+    
+    // Nanosecond clock, so tests can expire leases without sleeping
+    public InMemoryClusterCoordinator(LongSupplier clock) {
+        this.clock = clock;
+    }
+    
+    @Override
+    public synchronized void heartbeat(String nodeId, String url, Duration lease) {
+        members.put(nodeId, new Member(url, clock.getAsLong() + lease.toNanos()));
+    }
+    
+    @Override
+    public synchronized Map<String, String> liveMembers() {
+        long now = clock.getAsLong();
+        Map<String, String> live = new HashMap<>();
+        members.forEach((nodeId, member) -> {
+            if (member.expiresAt() > now) {
+                live.put(nodeId, member.url());
+            }
+        });
+        return live;
+    }
+    
+    @Override
+    public synchronized void leave(String nodeId) {
+        members.remove(nodeId);
+    }
+    
+    @Override
+    public synchronized boolean acquire(long warehouseId, String nodeId, Duration lease) {
+        long now = clock.getAsLong();
+        Lease current = leases.get(warehouseId);
+        if (current != null && current.expiresAt() > now && !current.owner().equals(nodeId)) {
+            return false;
+        }
+        leases.put(warehouseId, new Lease(nodeId, now + lease.toNanos()));
+        return true;
+    }
+    
+    @Override
+    public synchronized Set<Long> renew(String nodeId, Duration lease) {
+        long now = clock.getAsLong();
+        Set<Long> held = new HashSet<>();
+        leases.replaceAll((warehouseId, current) -> {
+            if (current.owner().equals(nodeId) && current.expiresAt() > now) {
+                held.add(warehouseId);
+                return new Lease(nodeId, now + lease.toNanos());
+            }
+            return current;
+        });
+        return held;
+    }
+    
+    @Override
+    public synchronized void release(long warehouseId, String nodeId) {
+        Lease current = leases.get(warehouseId);
+        if (current != null && current.owner().equals(nodeId)) {
+            leases.put(warehouseId, new Lease(nodeId, clock.getAsLong()));
+        }
+    }
+}
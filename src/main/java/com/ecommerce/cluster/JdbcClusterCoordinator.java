@@ -0,0 +1,91 @@
+package com.ecommerce.cluster;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coordinator on the {@code cluster_nodes} and {@code warehouse_leases} tables. Every statement is a single-row
+ * compare-and-set or a read against the database clock, so nodes need no clock agreement among themselves.
+ */
+public class JdbcClusterCoordinator implements ClusterCoordinator {
+    
+    private static final String HEARTBEAT_SQL =
+            "INSERT INTO cluster_nodes (node_id, url, lease_expires_at, joined_at) " +
+            "VALUES (?, ?, NOW(6) + INTERVAL ? MICROSECOND, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE url = VALUES(url), lease_expires_at = VALUES(lease_expires_at)";
+    
+    private static final String MEMBERS_SQL = "SELECT node_id, url FROM cluster_nodes WHERE lease_expires_at > NOW(6)";
+    
+    private static final String LEAVE_SQL = "DELETE FROM cluster_nodes WHERE node_id = ?";
+    
+    private static final String CLAIM_SQL =
+            "INSERT IGNORE INTO warehouse_leases (warehouse_id, owner_node, lease_expires_at) " +
+            "VALUES (?, ?, NOW(6) + INTERVAL ? MICROSECOND)";
+    
+    private static final String TAKE_OVER_SQL =
+            "UPDATE warehouse_leases SET owner_node = ?, lease_expires_at = NOW(6) + INTERVAL ? MICROSECOND " +
+            "WHERE warehouse_id = ? AND (lease_expires_at <= NOW(6) OR owner_node = ?)";
+    
+    private static final String RENEW_SQL =
+            "UPDATE warehouse_leases SET lease_expires_at = NOW(6) + INTERVAL ? MICROSECOND " +
+            "WHERE owner_node = ? AND lease_expires_at > NOW(6)";
+    
+    private static final String HELD_SQL =
+            "SELECT warehouse_id FROM warehouse_leases WHERE owner_node = ? AND lease_expires_at > NOW(6)";
+    
+    private static final String RELEASE_SQL =
+            "UPDATE warehouse_leases SET lease_expires_at = NOW(6) WHERE warehouse_id = ? AND owner_node = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public JdbcClusterCoordinator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void heartbeat(String nodeId, String url, Duration lease) {
+        jdbcTemplate.update(HEARTBEAT_SQL, nodeId, url, micros(lease));
+    }
+    
+    @Override
+    public Map<String, String> liveMembers() {
+        Map<String, String> members = new HashMap<>();
+        jdbcTemplate.query(MEMBERS_SQL, rs -> {
+            members.put(rs.getString(1), rs.getString(2));
+        });
+        return members;
+    }
+    
+    @Override
+    public void leave(String nodeId) {
+        jdbcTemplate.update(LEAVE_SQL, nodeId);
+    }
+    
+    @Override
+    public boolean acquire(long warehouseId, String nodeId, Duration lease) {
+        if (jdbcTemplate.update(CLAIM_SQL, warehouseId, nodeId, micros(lease)) == 1) {
+            return true;
+        }
+        return jdbcTemplate.update(TAKE_OVER_SQL, nodeId, micros(lease), warehouseId, nodeId) == 1;
+    }
+    
+    @Override
+    public Set<Long> renew(String nodeId, Duration lease) {
+        jdbcTemplate.update(RENEW_SQL, micros(lease), nodeId);
+        return new HashSet<>(jdbcTemplate.queryForList(HELD_SQL, Long.class, nodeId));
+    }
+    
+    @Override
+    public void release(long warehouseId, String nodeId) {
+        jdbcTemplate.update(RELEASE_SQL, warehouseId, nodeId);
+    }
+    
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ecommerce.cluster;
+
+import com.ecommerce.config.ClusterProperties;
+import com.ecommerce.event.WarehouseOwnershipChangedEvent;
+import com.ecommerce.repository.WarehouseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Assigns warehouses to nodes in cluster mode. Every heartbeat the node renews its membership, rebuilds the
+ * hash ring if members joined or left, and then acquires leases on the warehouses the ring gives it and
+ * hands off those it no longer should own.
+ * <p>
+ * A node treats itself as owner only until its lease would have expired, measured from before the renewal
+ * was sent, so it stops acting on a warehouse before any other node can take the lease over.
+ * <p>
+ * Heartbeats run on a thread of their own rather than the shared scheduler, so a slow scheduled job
+ * cannot delay renewals until the leases lapse.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.cluster", name = "enabled", havingValue = "true")
+@Slf4j
+public class WarehouseOwnershipService implements SmartLifecycle {
+    
+    private final ClusterProperties properties;
+    private final ClusterCoordinator coordinator;
+    private final WarehouseRepository warehouseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongSupplier clock;
+    
+    // Warehouse id to the clock reading at which this node must stop acting as its owner
+    private final Map<Long, Long> owned = new ConcurrentHashMap<>();
+    private volatile Map<String, String> members = Map.of();
+    private volatile ConsistentHashRing ring;
+    private volatile boolean running;
+    private ScheduledExecutorService heartbeatExecutor;
+    
+    public WarehouseOwnershipService(ClusterProperties properties, ClusterCoordinator coordinator,
+                                     WarehouseRepository warehouseRepository, ApplicationEventPublisher eventPublisher) {
+        this(properties, coordinator, warehouseRepository, eventPublisher, System::nanoTime);
+    }
+    
+    WarehouseOwnershipService(ClusterProperties properties, ClusterCoordinator coordinator,
+                              WarehouseRepository warehouseRepository, ApplicationEventPublisher eventPublisher,
+                              LongSupplier clock) {
+        if (properties.getNodeId() == null || properties.getNodeId().isBlank()) {
+            throw new IllegalArgumentException("ecommerce.cluster.node-id is required in cluster mode");
+        }
+        if (Duration.ofMillis(properties.getHeartbeatInterval()).multipliedBy(2).compareTo(properties.getLeaseDuration()) > 0) {
+            throw new IllegalArgumentException("ecommerce.cluster.heartbeat-interval must be at most half the lease duration");
+        }
+        this.properties = properties;
+        this.coordinator = coordinator;
+        this.warehouseRepository = warehouseRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.ring = new ConsistentHashRing(List.of(), properties.getVirtualNodes());
+    }
+    
+    @Override
+    public synchronized void start() {
+        running = true;
+        rebalance();
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, properties.getHeartbeatInterval(),
+                properties.getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+        log.info("Node {} joined the cluster owning {} warehouses", properties.getNodeId(), owned.size());
+    }
+    
+    /**
+     * Hands every owned warehouse off and leaves, so the other nodes take over on their next heartbeat
+     * instead of waiting for the leases to expire.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        heartbeatExecutor.shutdown();
+        List.copyOf(owned.keySet()).forEach(this::handOff);
+        coordinator.leave(properties.getNodeId());
+        log.info("Node {} left the cluster", properties.getNodeId());
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // A failed heartbeat must not cancel the ones after it
+    private void heartbeat() {
+        try {
+            rebalance();
+        } catch (RuntimeException e) {
+            log.warn("Heartbeat of node {} failed", properties.getNodeId(), e);
+        }
+    }
+    
+    public synchronized void rebalance() {
+        if (!running) {
+            return;
+        }
+        String self = properties.getNodeId();
+        Duration lease = properties.getLeaseDuration();
+        
+        long sentAt = clock.getAsLong();
+        coordinator.heartbeat(self, properties.getAdvertisedUrl(), lease);
+        Map<String, String> live = coordinator.liveMembers();
+        if (!live.keySet().equals(members.keySet())) {
+            log.info("Cluster membership changed to {}", live.keySet());
+            ring = new ConsistentHashRing(live.keySet(), properties.getVirtualNodes());
+        }
+        members = live;
+        
+        if (!owned.isEmpty()) {
+            Set<Long> held = coordinator.renew(self, lease);
+            for (Long warehouseId : List.copyOf(owned.keySet())) {
+                if (held.contains(warehouseId)) {
+                    owned.put(warehouseId, sentAt + lease.toNanos());
+                } else {
+                    // Expired while this node was stalled; another node may already own it
+                    log.warn("Lost the lease on warehouse {}", warehouseId);
+                    owned.remove(warehouseId);
+                    eventPublisher.publishEvent(new WarehouseOwnershipChangedEvent(warehouseId, false, true));
+                }
+            }
+        }
+        
+        ConsistentHashRing current = ring;
+        for (Long warehouseId : warehouseRepository.findAllIds()) {
+            boolean assigned = self.equals(current.ownerOf(warehouseId));
+            if (assigned && !owned.containsKey(warehouseId)) {
+                long requestedAt = clock.getAsLong();
+                // Fails while the previous owner still holds it; retried on the next heartbeat
+                if (coordinator.acquire(warehouseId, self, lease)) {
+                    owned.put(warehouseId, requestedAt + lease.toNanos());
+                    eventPublisher.publishEvent(new WarehouseOwnershipChangedEvent(warehouseId, true, false));
+                }
+            } else if (!assigned && owned.containsKey(warehouseId)) {
+                handOff(warehouseId);
+            }
+        }
+    }
+    
+    public boolean isOwner(long warehouseId) {
+        Long until = owned.get(warehouseId);
+        return until != null && clock.getAsLong() - until < 0;
+    }
+    
+    /**
+     * @return the node the ring assigns the warehouse to, or {@code null} before the first heartbeat
+     */
+    public String ownerOf(long warehouseId) {
+        return ring.ownerOf(warehouseId);
+    }
+    
+    public String urlOf(String nodeId) {
+        return members.get(nodeId);
+    }
+    
+    /**
+     * @return node id to URL for every live node as of the last heartbeat, this one included
+     */
+    public Map<String, String> members() {
+        return members;
+    }
+    
+    public String nodeId() {
+        return properties.getNodeId();
+    }
+    
+    public Set<Long> ownedWarehouses() {
+        return Set.copyOf(owned.keySet());
+    }
+    
+    private void handOff(long warehouseId) {
+        // Stop acting as owner first, then let listeners write back state, then free the lease
+        owned.remove(warehouseId);
+        eventPublisher.publishEvent(new WarehouseOwnershipChangedEvent(warehouseId, false, false));
+        coordinator.release(warehouseId, properties.getNodeId());
+    }
+}
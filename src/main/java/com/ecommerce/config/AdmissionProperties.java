@@ -0,0 +1,47 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.admission")
+public class AdmissionProperties {
+    
+    private boolean enabled = true;
+    
+    private Limit reads = new Limit(64, 8, 512, Duration.ofMillis(100));
+    
+    private Limit writes = new Limit(32, 4, 256, Duration.ofMillis(250));
+    
+    private Customer customer = new Customer();
+    
+    @Data
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // Requests slower than this shrink the limit
+        private Duration targetLatency;
+        private double backoffRatio = 0.9;
+        private int retryAfterSeconds = 1;
+        
+        public Limit() {
+        }
+        
+        public Limit(int initialLimit, int minLimit, int maxLimit, Duration targetLatency) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.targetLatency = targetLatency;
+        }
+    }
+    
+    @Data
+    public static class Customer {
+        // Burst of orders a single customer may place
+        private int capacity = 5;
+        private double refillPerSecond = 0.5;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.config;
+
+import com.ecommerce.storage.ArchiveStore;
+import com.ecommerce.storage.FileSystemArchiveStore;
+import com.ecommerce.storage.S3ArchiveStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+@Configuration
+public class ArchiveConfig {
+    
+    @Bean
+    public ArchiveStore archiveStore(ArchiveProperties properties) {
+        if (properties.getStore() == ArchiveProperties.StoreType.S3) {
+            ArchiveProperties.S3 s3 = properties.getS3();
+            S3ClientBuilder builder = S3Client.builder()
+                    .region(Region.of(s3.getRegion()))
+                    .forcePathStyle(s3.isPathStyleAccess());
+            if (s3.getEndpoint() != null && !s3.getEndpoint().isBlank()) {
+                builder.endpointOverride(URI.create(s3.getEndpoint()));
+            }
+            return new S3ArchiveStore(builder.build(), s3.getBucket(), s3.getPrefix());
+        }
+        return new FileSystemArchiveStore(Paths.get(properties.getPath()).toAbsolutePath());
+    }
+}
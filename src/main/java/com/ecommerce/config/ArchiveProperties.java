@@ -0,0 +1,41 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.archive")
+public class ArchiveProperties {
+    
+    private boolean enabled = false;
+    
+    // Terminal-state orders untouched for longer than this are moved to the archive
+    private Duration minAge = Duration.ofDays(90);
+    
+    private int batchSize = 1000;
+    
+    private String cron = "0 0 3 * * *";
+    
+    private StoreType store = StoreType.FILESYSTEM;
+    
+    private String path = "./data/archive";
+    
+    private S3 s3 = new S3();
+    
+    public enum StoreType {
+        FILESYSTEM,
+        S3
+    }
+    
+    @Data
+    public static class S3 {
+        private String bucket = "ecommerce-archive";
+        private String prefix = "";
+        private String region = "us-east-1";
+        // Set for S3-compatible stand-ins such as MinIO or LocalStack
+        private String endpoint;
+        private boolean pathStyleAccess = false;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.audit")
+public class AuditProperties {
+    
+    private boolean enabled = true;
+    
+    private String directory = "./data/audit";
+    
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    
+    // Oldest segments beyond this count are deleted on rotation
+    private int maxSegments = 64;
+    
+    // Records buffered between callers and the writer thread; must be a power of two
+    private int ringCapacity = 1 << 16;
+    
+    // How often written records are forced to disk
+    private Duration forceInterval = Duration.ofSeconds(1);
+}
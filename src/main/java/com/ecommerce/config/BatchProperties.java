@@ -0,0 +1,23 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.batch")
+public class BatchProperties {
+    
+    // How long a lookup waits for concurrent lookups to join its query
+    private Duration window = Duration.ofMillis(2);
+    
+    // How long a request waits for its batch to load before failing instead of holding its thread
+    private Duration timeout = Duration.ofSeconds(2);
+    
+    // A pending batch is flushed early once it holds this many keys
+    private int maxKeys = 1000;
+    
+    // Largest id list a single batch request may send
+    private int maxRequestIds = 1000;
+}
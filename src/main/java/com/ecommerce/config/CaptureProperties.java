@@ -0,0 +1,27 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.capture")
+public class CaptureProperties {
+    
+    // Off by default: captured bodies contain customer emails
+    private boolean enabled = false;
+    
+    private String directory = "./data/capture";
+    
+    // Uncompressed bytes written to a file before rotating to a new one
+    private DataSize fileSize = DataSize.ofMegabytes(256);
+    
+    // Oldest files beyond this count are deleted on rotation
+    private int maxFiles = 32;
+    
+    // Requests waiting for the writer thread; further requests are not captured until it catches up
+    private int queueCapacity = 65536;
+    
+    // Larger request bodies are captured truncated to this size and marked, so replays leave them out
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.catalog-index")
+public class CatalogIndexProperties {
+    
+    private boolean enabled = true;
+    
+    private int loadPageSize = 10000;
+    
+    // Largest page a listing request may ask for
+    private int maxPageSize = 200;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cluster.ClusterCoordinator;
+import com.ecommerce.cluster.InMemoryClusterCoordinator;
+import com.ecommerce.cluster.JdbcClusterCoordinator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "ecommerce.cluster", name = "enabled", havingValue = "true")
+public class ClusterConfig {
+    
+    @Bean
+    public ClusterCoordinator clusterCoordinator(ClusterProperties properties, JdbcTemplate jdbcTemplate) {
+        if (properties.getCoordinator() == ClusterProperties.CoordinatorType.MEMORY) {
+            return new InMemoryClusterCoordinator();
+        }
+        return new JdbcClusterCoordinator(jdbcTemplate);
+    }
+}
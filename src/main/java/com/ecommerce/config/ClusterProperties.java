@@ -0,0 +1,38 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.cluster")
+public class ClusterProperties {
+    
+    private boolean enabled = false;
+    
+    // Must be unique per instance
+    private String nodeId;
+    
+    // Base URL other nodes forward a warehouse's mutations to
+    private String advertisedUrl;
+    
+    private CoordinatorType coordinator = CoordinatorType.JDBC;
+    
+    // Points per node on the hash ring; more points spread warehouses more evenly
+    private int virtualNodes = 64;
+    
+    private Duration leaseDuration = Duration.ofSeconds(15);
+    
+    // Milliseconds between heartbeats; must be well under the lease duration
+    private long heartbeatInterval = 5000;
+    
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+    
+    public enum CoordinatorType {
+        // Membership and leases in shared database tables
+        JDBC,
+        // In-process stand-in for a single node or tests
+        MEMORY
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.demand")
+public class DemandProperties {
+    
+    private boolean enabled = true;
+    
+    // Weight of the newest day in the smoothed mean and variance; 0.1 behaves like a ~19 day window
+    private double smoothing = 0.1;
+    
+    private Duration leadTime = Duration.ofDays(7);
+    
+    // Probability of not stocking out during a lead time
+    private double serviceLevel = 0.95;
+    
+    // Days of demand one replenishment order should cover
+    private int coverDays = 14;
+    
+    // Reorder parameters stay at their current values until this many days have been observed
+    private int minObservedDays = 14;
+    
+    private int minReorderQuantity = 1;
+    
+    // Used for new inventory rows before any demand is known
+    private int defaultReorderLevel = 10;
+    
+    private int defaultReorderQuantity = 20;
+    
+    private int flushBatchSize = 1000;
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.reactive-read")
+public class ReactiveReadProperties {
+    
+    private boolean enabled = false;
+    
+    private int port = 8081;
+    
+    // Netty event-loop threads serving the reactive read endpoints
+    private int eventLoopThreads = 2;
+    
+    // Blank derives the URL from spring.datasource.url
+    private String url;
+    
+    private String username;
+    
+    private String password;
+    
+    private int poolInitialSize = 4;
+    
+    private int poolMaxSize = 16;
+    
+    private Duration poolMaxIdleTime = Duration.ofMinutes(30);
+}
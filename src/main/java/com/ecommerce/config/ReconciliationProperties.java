@@ -0,0 +1,24 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.reconciliation")
+public class ReconciliationProperties {
+    
+    private boolean enabled = false;
+    
+    private String cron = "0 30 2 * * *";
+    
+    // Concurrent partitions; keep well below the JDBC pool size
+    private int parallelism = 4;
+    
+    // Width of the product id range reconciled in one snapshot read
+    private long productRangeSize = 50000;
+    
+    // When false the job only reports drift
+    private boolean repair = true;
+    
+    private int repairBatchSize = 500;
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.rollup")
+public class RollupProperties {
+    
+    private int backfillThreads = 4;
+    
+    // Number of order ids aggregated per backfill chunk
+    private int backfillChunkSize = 10000;
+}
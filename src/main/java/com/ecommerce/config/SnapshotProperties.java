@@ -0,0 +1,15 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.snapshot")
+public class SnapshotProperties {
+    
+    private boolean enabled = true;
+    
+    private int initialCapacity = 1 << 16;
+    
+    private int loadPageSize = 5000;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.sql-stats")
+public class SqlStatsProperties {
+    
+    private boolean enabled = true;
+    
+    // A query shape executed this many times in one request is reported as a likely N+1
+    private int repeatThreshold = 5;
+    
+    // X-SQL-* response headers; the whole body is buffered so headers can follow it, so only for dev and tests
+    private boolean responseHeaders = false;
+}
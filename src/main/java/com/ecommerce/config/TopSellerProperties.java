@@ -0,0 +1,29 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.top-sellers")
+public class TopSellerProperties {
+    
+    private boolean enabled = true;
+    
+    // Counters per sketch row, a power of two; estimates overcount by about 2.7 / width of the window's units
+    private int width = 16384;
+    
+    private int depth = 4;
+    
+    // Time slots per window; a window expires one slot at a time
+    private int hourSlots = 12;
+    
+    private int daySlots = 24;
+    
+    // Products tracked per category, warehouse and overall; also the largest limit a query accepts
+    private int candidates = 100;
+    
+    private String snapshotFile = "./data/top-sellers.snapshot";
+    
+    // Milliseconds between snapshots; one is also written on shutdown
+    private long snapshotInterval = 60000;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.WarehouseStockSummary;
+import com.ecommerce.service.InventorySnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    
+    private final InventorySnapshotService inventorySnapshotService;
+    
+    @GetMapping("/inventory/warehouses")
+    public ResponseEntity<List<WarehouseStockSummary>> getWarehouseStockSummaries() {
+        return ResponseEntity.ok(inventorySnapshotService.getWarehouseSummaries());
+    }
+    
+    @PostMapping("/inventory/rebuild")
+    public ResponseEntity<Void> rebuildInventorySnapshot() {
+        inventorySnapshotService.rebuild();
+        return ResponseEntity.ok().build();
+    }
+}
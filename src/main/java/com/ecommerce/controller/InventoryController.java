@@ -1,14 +1,26 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.AvailabilityRequest;
+import com.ecommerce.dto.ReconciliationResult;
+import com.ecommerce.dto.StockLevelRequest;
 import com.ecommerce.model.Inventory;
 import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.service.BatchLookupService;
+import com.ecommerce.service.DeadlockRetry;
+import com.ecommerce.service.DemandModelService;
 import com.ecommerce.service.InventoryService;
+import com.ecommerce.service.ReservationReconciliationService;
+import com.ecommerce.web.EntityVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -17,9 +29,20 @@ public class InventoryController {
     
     private final InventoryService inventoryService;
     private final InventoryRepository inventoryRepository;
+    private final BatchLookupService batchLookupService;
+    private final ReservationReconciliationService reconciliationService;
+    private final DemandModelService demandModelService;
+    private final DeadlockRetry deadlockRetry;
     
     @GetMapping("/{id}")
-    public ResponseEntity<Inventory> getInventoryById(@PathVariable Long id) {
+    public ResponseEntity<Inventory> getInventoryById(@PathVariable Long id, WebRequest request) {
+        List<Object[]> versions = inventoryRepository.findVersionsById(id);
+        if (versions.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (inventoryVersion(versions.get(0)).checkNotModified(request)) {
+            return null;
+        }
         return inventoryRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -28,7 +51,12 @@ public class InventoryController {
     @GetMapping("/{productId}/{warehouseId}")
     public ResponseEntity<Inventory> getInventory(
             @PathVariable Long productId,
-            @PathVariable Long warehouseId) {
+            @PathVariable Long warehouseId,
+            WebRequest request) {
+        List<Object[]> versions = inventoryRepository.findVersionsByProductIdAndWarehouseId(productId, warehouseId);
+        if (!versions.isEmpty() && inventoryVersion(versions.get(0)).checkNotModified(request)) {
+            return null;
+        }
         Inventory inventory = inventoryService.getInventory(productId, warehouseId);
         return ResponseEntity.ok(inventory);
     }
@@ -45,6 +73,25 @@ public class InventoryController {
         return ResponseEntity.ok(total);
     }
     
+    @PostMapping("/availability")
+    public ResponseEntity<Map<Long, Integer>> getAvailability(@RequestBody AvailabilityRequest request) {
+        try {
+            return ResponseEntity.ok(batchLookupService.getAvailability(request.getProductIds(), request.getWarehouseIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/stock-levels")
+    public ResponseEntity<Map<Long, Map<Long, Integer>>> getStockLevels(@RequestBody StockLevelRequest request) {
+        try {
+            return ResponseEntity.ok(batchLookupService.getStockLevels(
+                    request.getPairs() != null ? request.getPairs() : List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<Inventory> createInventory(
             @RequestParam Long productId,
@@ -57,7 +104,11 @@ public class InventoryController {
     @PutMapping("/{inventoryId}/add")
     public ResponseEntity<Void> addStock(
             @PathVariable Long inventoryId,
-            @RequestParam Integer quantity) {
+            @RequestParam Integer quantity,
+            WebRequest request) {
+        if (isStale(inventoryId, request)) {
+            return null;
+        }
         inventoryService.addStock(inventoryId, quantity);
         return ResponseEntity.ok().build();
     }
@@ -65,8 +116,24 @@ public class InventoryController {
     @PutMapping("/{inventoryId}/remove")
     public ResponseEntity<Void> removeStock(
             @PathVariable Long inventoryId,
-            @RequestParam Integer quantity) {
-        inventoryService.removeStock(inventoryId, quantity);
+            @RequestParam Integer quantity,
+            WebRequest request) {
+        if (isStale(inventoryId, request)) {
+            return null;
+        }
+        deadlockRetry.run(() -> inventoryService.removeStock(inventoryId, quantity));
+        return ResponseEntity.ok().build();
+    }
+    
+    @PutMapping("/{inventoryId}/shard")
+    public ResponseEntity<Void> shardInventory(
+            @PathVariable Long inventoryId,
+            @RequestParam Integer buckets,
+            WebRequest request) {
+        if (isStale(inventoryId, request)) {
+            return null;
+        }
+        deadlockRetry.run(() -> inventoryService.shardInventory(inventoryId, buckets));
         return ResponseEntity.ok().build();
     }
     
@@ -75,4 +142,28 @@ public class InventoryController {
         List<Inventory> items = inventoryService.getItemsNeedingReorder();
         return ResponseEntity.ok(items);
     }
+    
+    @PostMapping("/reconcile")
+    public ResponseEntity<ReconciliationResult> reconcileReservations(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(reconciliationService.reconcile(repair));
+    }
+    
+    @PostMapping("/demand/backfill")
+    public ResponseEntity<Integer> backfillDemand() {
+        return ResponseEntity.ok(demandModelService.backfill());
+    }
+    
+    // Only costs a query when the client sent If-Match; a stale tag leaves 412 on the response
+    private boolean isStale(Long inventoryId, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) == null) {
+            return false;
+        }
+        List<Object[]> versions = inventoryRepository.findVersionsById(inventoryId);
+        return !versions.isEmpty() && inventoryVersion(versions.get(0)).checkNotModified(request);
+    }
+    
+    private static EntityVersion inventoryVersion(Object[] row) {
+        return EntityVersion.of("inventory", row[0], (LocalDateTime) row[1], (LocalDateTime) row[2],
+                (LocalDateTime) row[3], (LocalDateTime) row[4]);
+    }
 }
\ No newline at end of file
@@ -2,13 +2,23 @@ package com.ecommerce.controller;
 
 import com.ecommerce.dto.CreateOrderRequest;
 import com.ecommerce.model.Order;
+import com.ecommerce.service.DeadlockRetry;
+import com.ecommerce.service.OrderArchiveService;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.service.OrderViewService;
+import com.ecommerce.web.CustomerRateLimiter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -16,10 +26,21 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderViewService orderViewService;
+    private final DeadlockRetry deadlockRetry;
+    private final CustomerRateLimiter customerRateLimiter;
     
     @PostMapping
     public ResponseEntity<Order> createOrder(@RequestBody CreateOrderRequest request) {
-        Order order = orderService.createOrder(request);
+        long retryAfter = customerRateLimiter.tryAcquire(request.getCustomerEmail());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .build();
+        }
+        
+        Order order = deadlockRetry.call(() -> orderService.createOrder(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
     
@@ -30,14 +51,35 @@ public class OrderController {
     }
     
     @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrder(@PathVariable Long orderId) {
+    public ResponseEntity<?> getOrder(@PathVariable Long orderId, WebRequest request) {
+        // Live orders are versioned and, when their document is current, served in the same query
+        Optional<OrderViewService.LiveOrder> live = orderViewService.find(orderId);
+        if (live.isPresent()) {
+            if (live.get().version().checkNotModified(request)) {
+                return null;
+            }
+            if (acceptsRenderedJson(request)) {
+                if (live.get().body() != null) {
+                    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(live.get().body());
+                }
+                // No document yet, or one from before a product or warehouse edit
+                return ResponseEntity.ok(orderService.renderOrder(orderId));
+            }
+        }
+        
         Order order = orderService.getOrder(orderId);
+        if (live.isEmpty()) {
+            // Archived orders never change, so the version of the restored document is final
+            if (OrderViewService.versionOf(order).checkNotModified(request)) {
+                return null;
+            }
+        }
         return ResponseEntity.ok(order);
     }
     
     @PostMapping("/{orderId}/confirm")
     public ResponseEntity<Order> confirmOrder(@PathVariable Long orderId) {
-        Order order = orderService.confirmOrder(orderId);
+        Order order = deadlockRetry.call(() -> orderService.confirmOrder(orderId));
         return ResponseEntity.ok(order);
     }
     
@@ -55,7 +97,29 @@ public class OrderController {
     
     @PostMapping("/{orderId}/cancel")
     public ResponseEntity<Order> cancelOrder(@PathVariable Long orderId) {
-        Order order = orderService.cancelOrder(orderId);
+        Order order = deadlockRetry.call(() -> orderService.cancelOrder(orderId));
         return ResponseEntity.ok(order);
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Integer>> archiveCompletedOrders() {
+        int archived = orderArchiveService.archiveCompletedOrders();
+        return ResponseEntity.ok(Map.of("archived", archived));
+    }
+    
+    // CBOR and Smile clients, and requests without an order document, take the entity path
+    private static boolean acceptsRenderedJson(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            return types.stream().anyMatch(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON))
+                    && types.stream().noneMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                            || type.getSubtype().contains("smile"));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -1,13 +1,28 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.analytics.CatalogBitmapIndex;
+import com.ecommerce.dto.CatalogProduct;
+import com.ecommerce.dto.CatalogSyncResult;
+import com.ecommerce.dto.ProductListing;
+import com.ecommerce.event.CatalogChangedEvent;
 import com.ecommerce.model.Product;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.BatchLookupService;
+import com.ecommerce.service.CatalogIndexService;
+import com.ecommerce.service.CatalogSyncService;
+import com.ecommerce.web.EntityVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/products")
@@ -15,31 +30,90 @@ import java.util.List;
 public class ProductController {
     
     private final ProductRepository productRepository;
+    private final CatalogSyncService catalogSyncService;
+    private final BatchLookupService batchLookupService;
+    private final CatalogIndexService catalogIndexService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(savedProduct.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
     }
     
+    @PostMapping("/sync")
+    public ResponseEntity<CatalogSyncResult> syncCatalog(@RequestBody List<CatalogProduct> feed,
+                                                         @RequestParam(defaultValue = "true") boolean deactivateMissing) {
+        return ResponseEntity.ok(catalogSyncService.sync(feed, deactivateMissing));
+    }
+    
     @GetMapping
     public ResponseEntity<List<Product>> getAllProducts() {
         return ResponseEntity.ok(productRepository.findAll());
     }
     
+    // Filters are answered from the in-memory bitmap index; only the returned page touches the database
+    @GetMapping("/listing")
+    public ResponseEntity<ProductListing> listProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false, defaultValue = "true") Boolean active,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) String region,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "48") int size) {
+        CatalogBitmapIndex.Filter filter = new CatalogBitmapIndex.Filter(category, brand, active, inStock, warehouseId, region);
+        try {
+            return ResponseEntity.ok(catalogIndexService.list(filter, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Long, Product>> getProducts(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(batchLookupService.getProducts(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, WebRequest request) {
+        Optional<LocalDateTime> updatedAt = productRepository.findUpdatedAtById(id);
+        if (updatedAt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // 304 is decided from the timestamp alone, before the product is loaded
+        if (EntityVersion.of("product", id, updatedAt.get()).checkNotModified(request)) {
+            return null;
+        }
         return productRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product product) {
+    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product product, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            Optional<LocalDateTime> updatedAt = productRepository.findUpdatedAtById(id);
+            if (updatedAt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            // A stale If-Match leaves 412 on the response
+            if (EntityVersion.of("product", id, updatedAt.get()).checkNotModified(request)) {
+                return null;
+            }
+        }
         return productRepository.findById(id)
                 .map(existing -> {
                     product.setId(id);
-                    return ResponseEntity.ok(productRepository.save(product));
+                    Product saved = productRepository.save(product);
+                    eventPublisher.publishEvent(CatalogChangedEvent.of(id));
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -48,6 +122,7 @@ public class ProductController {
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(CatalogChangedEvent.of(id));
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -0,0 +1,75 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cluster.ClusterTopSellers;
+import com.ecommerce.dto.ProductSales;
+import com.ecommerce.dto.SalesBucket;
+import com.ecommerce.dto.TopSeller;
+import com.ecommerce.model.SalesRollup.Granularity;
+import com.ecommerce.service.SalesRollupService;
+import com.ecommerce.service.TopSellerService;
+import com.ecommerce.web.OwnerRoutingFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+    
+    private final SalesRollupService salesRollupService;
+    private final TopSellerService topSellerService;
+    private final Optional<ClusterTopSellers> clusterTopSellers;
+    
+    @GetMapping("/sales")
+    public ResponseEntity<List<SalesBucket>> getSalesSeries(
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId) {
+        return ResponseEntity.ok(salesRollupService.getSeries(granularity, from, to, productId, warehouseId));
+    }
+    
+    @GetMapping("/sales/products")
+    public ResponseEntity<List<ProductSales>> getProductSales(
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long warehouseId) {
+        return ResponseEntity.ok(salesRollupService.getProductTotals(granularity, from, to, warehouseId));
+    }
+    
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<TopSeller>> getTopSellers(
+            @RequestParam(defaultValue = "HOUR") TopSellerService.Window window,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = OwnerRoutingFilter.FORWARDED_HEADER, required = false) String forwardedBy) {
+        // In cluster mode each node ranks only its own sales; a node asked by another answers with those
+        if (clusterTopSellers.isEmpty() || forwardedBy != null) {
+            return ResponseEntity.ok(topSellerService.getTopSellers(window, category, warehouseId, limit));
+        }
+        return clusterTopSellers.get().getTopSellers(window, category, warehouseId, limit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1").build());
+    }
+    
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildSalesRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        long rows = salesRollupService.rebuild(from, to);
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+}
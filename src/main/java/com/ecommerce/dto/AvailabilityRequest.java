@@ -0,0 +1,12 @@
+package com.ecommerce.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AvailabilityRequest {
+    private List<Long> productIds;
+    // Optional; all warehouses when empty
+    private List<Long> warehouseIds;
+}
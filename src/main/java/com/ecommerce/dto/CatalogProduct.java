@@ -0,0 +1,21 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogProduct {
+    private String sku;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String category;
+    private String brand;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSyncResult {
+    private int received;
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private int deactivated;
+    private long durationMs;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryRow {
+    private Long inventoryId;
+    private Long productId;
+    private Long warehouseId;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer reorderLevel;
+    private BigDecimal price;
+}
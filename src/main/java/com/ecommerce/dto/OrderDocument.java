@@ -0,0 +1,119 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Warehouse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat, self-contained representation of an order used for archive records.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDocument {
+    private Long id;
+    private String orderNumber;
+    private String customerEmail;
+    private Order.OrderStatus status;
+    private BigDecimal totalAmount;
+    private Long warehouseId;
+    private String warehouseCode;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<Item> items;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long id;
+        private Long productId;
+        private String sku;
+        private String productName;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+    }
+    
+    public static OrderDocument from(Order order) {
+        List<Item> items = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            Product product = item.getProduct();
+            items.add(Item.builder()
+                    .id(item.getId())
+                    .productId(product.getId())
+                    .sku(product.getSku())
+                    .productName(product.getName())
+                    .quantity(item.getQuantity())
+                    .unitPrice(item.getUnitPrice())
+                    .subtotal(item.getSubtotal())
+                    .build());
+        }
+        
+        Warehouse warehouse = order.getWarehouse();
+        return OrderDocument.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .customerEmail(order.getCustomerEmail())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .warehouseId(warehouse != null ? warehouse.getId() : null)
+                .warehouseCode(warehouse != null ? warehouse.getCode() : null)
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .items(items)
+                .build();
+    }
+    
+    /**
+     * Rebuilds a detached {@link Order} with stub product and warehouse references.
+     */
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber(orderNumber);
+        order.setCustomerEmail(customerEmail);
+        order.setStatus(status);
+        order.setTotalAmount(totalAmount);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(updatedAt);
+        order.setItems(new ArrayList<>());
+        
+        if (warehouseId != null) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.setId(warehouseId);
+            warehouse.setCode(warehouseCode);
+            order.setWarehouse(warehouse);
+        }
+        
+        if (items != null) {
+            for (Item item : items) {
+                Product product = new Product();
+                product.setId(item.getProductId());
+                product.setSku(item.getSku());
+                product.setName(item.getProductName());
+                
+                OrderItem orderItem = new OrderItem();
+                orderItem.setId(item.getId());
+                orderItem.setProduct(product);
+                orderItem.setQuantity(item.getQuantity());
+                orderItem.setUnitPrice(item.getUnitPrice());
+                orderItem.setSubtotal(item.getSubtotal());
+                order.addItem(orderItem);
+            }
+        }
+        return order;
+    }
+}
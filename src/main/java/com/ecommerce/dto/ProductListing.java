@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListing {
+    private long total;
+    private int page;
+    private int size;
+    private List<Product> products;
+}
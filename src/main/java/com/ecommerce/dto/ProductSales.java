@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+    private Long productId;
+    private Long warehouseId;
+    private Long units;
+    private BigDecimal revenue;
+    private Long orderCount;
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ReconciliationResult {
+    private int partitions;
+    private long inventoryRows;
+    private long drifted;
+    private long repaired;
+    // Rows whose reservation changed between the snapshot and the repair; the next run picks them up
+    private long skippedConcurrent;
+    // Sharded rows keep reservations in buckets and are reported, not repaired
+    private long skippedSharded;
+    // (product, warehouse) pairs with pending holds but no inventory row
+    private long missingInventory;
+    private long durationMs;
+    
+    public ReconciliationResult merge(ReconciliationResult other) {
+        partitions += other.partitions;
+        inventoryRows += other.inventoryRows;
+        drifted += other.drifted;
+        repaired += other.repaired;
+        skippedConcurrent += other.skippedConcurrent;
+        skippedSharded += other.skippedSharded;
+        missingInventory += other.missingInventory;
+        return this;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class StockLevelRequest {
+    // [productId, warehouseId] pairs
+    private List<long[]> pairs;
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopSeller {
+    private Long productId;
+    // Estimated from a sketch: never below the true count, and above it by a small share of the window's units
+    private Integer units;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockSummary {
+    private Long warehouseId;
+    private Long inventoryRows;
+    private Long onHand;
+    private Long reserved;
+    private Long lowStockRows;
+    private BigDecimal stockValue;
+    private Double reservedRatio;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when product attributes change. A {@code null} id list means the change was too broad
+ * to enumerate (a catalog sync) and listeners should reload everything.
+ */
+public record CatalogChangedEvent(Collection<Long> productIds) {
+    
+    public static CatalogChangedEvent of(Long productId) {
+        return new CatalogChangedEvent(List.of(productId));
+    }
+    
+    public static CatalogChangedEvent all() {
+        return new CatalogChangedEvent(null);
+    }
+    
+    public boolean isFullReload() {
+        return productIds == null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.event;
+
+/**
+ * Published whenever stock or reservation figures of an inventory row change.
+ */
+public record InventoryChangedEvent(Long inventoryId) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.event;
+
+import java.util.Map;
+
+/**
+ * Published when a confirmed or processing order is cancelled, with the units it gives back.
+ */
+public record OrderCancelledEvent(Long warehouseId, Map<Long, Integer> unitsByProduct) {
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Published when an order is confirmed, with the units it took and the category of each product.
+ */
+public record OrderConfirmedEvent(Long warehouseId, LocalDateTime createdAt, Map<Long, Integer> unitsByProduct,
+                                  Map<Long, String> categoryByProduct) {
+}
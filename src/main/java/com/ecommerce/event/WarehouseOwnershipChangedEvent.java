@@ -0,0 +1,10 @@
+package com.ecommerce.event;
+
+/**
+ * Published synchronously when this node starts or stops owning a warehouse in cluster mode. On a hand-off,
+ * listeners run before the lease is given up, so hot state can be written back for the next owner.
+ * {@code leaseLost} marks a release because the lease expired before it was renewed; another node may
+ * already own the warehouse, so listeners must discard their state instead of writing it back.
+ */
+public record WarehouseOwnershipChangedEvent(long warehouseId, boolean acquired, boolean leaseLost) {
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.jdbc;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL counters for the work done on one thread, normally one HTTP request.
+ * Batched executions count every parameter set as a statement but only one round trip.
+ */
+public class SqlStatistics {
+    
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    
+    private int statements;
+    private int roundTrips;
+    private long dbNanos;
+    private long executionStart;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+    
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+    
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    void executionStarted() {
+        executionStart = System.nanoTime();
+    }
+    
+    void executionFinished(Iterable<String> queries, int statementCount) {
+        dbNanos += System.nanoTime() - executionStart;
+        roundTrips++;
+        statements += statementCount;
+        for (String query : queries) {
+            shapes.merge(shape(query), 1, Integer::sum);
+        }
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+    
+    public long getDbNanos() {
+        return dbNanos;
+    }
+    
+    /**
+     * Query shapes executed at least {@code threshold} times, most repeated first.
+     */
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+    
+    // Placeholder lists of any length collapse so IN (?, ?) and IN (?, ?, ?) are the same shape
+    static String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PLACEHOLDER_LIST.matcher(collapsed).replaceAll("(?...)");
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds every statement executed through the proxied DataSource into the thread's {@link SqlStatistics}.
+ * Threads without statistics (schedulers, startup) pass through untouched.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener {
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.executionStarted();
+        }
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics == null) {
+            return;
+        }
+        int statementCount = execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size();
+        statistics.executionFinished(queryInfoList.stream().map(QueryInfo::getQuery).toList(), statementCount);
+    }
+}
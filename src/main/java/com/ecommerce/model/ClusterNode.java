@@ -0,0 +1,36 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member of the cluster while its lease is unexpired. Written by {@code JdbcClusterCoordinator}.
+ */
+@Entity
+@Table(name = "cluster_nodes", indexes = {
+    @Index(name = "idx_cluster_nodes_lease", columnList = "lease_expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterNode {
+    
+    @Id
+    @Column(name = "node_id", length = 128)
+    private String nodeId;
+    
+    @Column(nullable = false)
+    private String url;
+    
+    @Column(nullable = false)
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime joinedAt;
+}
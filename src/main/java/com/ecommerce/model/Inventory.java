@@ -5,12 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inventory", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"product_id", "warehouse_id"})
+}, indexes = {
+    @Index(name = "idx_inventory_warehouse", columnList = "warehouse_id")
 })
 @Data
 @Builder
@@ -42,6 +45,16 @@ public class Inventory {
     @Column(nullable = false)
     private Integer reorderQuantity = 50;
     
+    // Number of InventoryBucket sub-counters; 0 means the row holds all stock itself
+    @Column(nullable = false)
+    private Integer bucketCount = 0;
+    
+    @Formula("(SELECT COALESCE(SUM(b.quantity), 0) FROM inventory_buckets b WHERE b.inventory_id = id)")
+    private Integer bucketQuantity;
+    
+    @Formula("(SELECT COALESCE(SUM(b.reserved_quantity), 0) FROM inventory_buckets b WHERE b.inventory_id = id)")
+    private Integer bucketReservedQuantity;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -60,7 +73,19 @@ public class Inventory {
     }
     
     public Integer getAvailableQuantity() {
-        return quantity - reservedQuantity;
+        return getTotalQuantity() - getTotalReservedQuantity();
+    }
+    
+    public int getTotalQuantity() {
+        return quantity + (bucketQuantity != null ? bucketQuantity : 0);
+    }
+    
+    public int getTotalReservedQuantity() {
+        return reservedQuantity + (bucketReservedQuantity != null ? bucketReservedQuantity : 0);
+    }
+    
+    public boolean isSharded() {
+        return bucketCount != null && bucketCount > 0;
     }
     
     public boolean needsReorder() {
@@ -0,0 +1,52 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sub-counter holding a slice of a hot SKU's stock so reservations spread over several rows.
+ */
+@Entity
+@Table(name = "inventory_buckets", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"inventory_id", "bucket_index"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBucket {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+    
+    @Column(name = "bucket_index", nullable = false)
+    private Integer bucketIndex;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(nullable = false)
+    private Integer reservedQuantity;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public int getAvailableQuantity() {
+        return quantity - reservedQuantity;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of the demand estimator for one product and warehouse.
+ * Written in batches by {@code DemandModelService}; see {@code DemandEstimator} for the fields' meaning.
+ */
+@Entity
+@Table(name = "inventory_demand", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"product_id", "warehouse_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDemand {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+    
+    @Column(nullable = false)
+    private Double mean;
+    
+    @Column(nullable = false)
+    private Double variance;
+    
+    @Column(nullable = false)
+    private Integer observedDays;
+    
+    @Column(nullable = false)
+    private LocalDate openDay;
+    
+    @Column(nullable = false)
+    private Integer openDayUnits;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
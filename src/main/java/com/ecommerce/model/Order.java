@@ -8,11 +8,18 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_customer_email", columnList = "customer_email, created_at"),
+    @Index(name = "idx_orders_status_created", columnList = "status, created_at"),
+    @Index(name = "idx_orders_status_updated", columnList = "status, updated_at"),
+    @Index(name = "idx_orders_created", columnList = "created_at"),
+    @Index(name = "idx_orders_warehouse", columnList = "warehouse_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -49,15 +56,17 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Stamped at the microseconds DATETIME(6) keeps, so a document rendered from this instance carries
+    // the same ETag as the version read back from the database
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
     
     public enum OrderStatus {
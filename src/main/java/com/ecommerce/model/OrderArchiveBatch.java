@@ -0,0 +1,51 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_archive_batches", indexes = {
+    @Index(name = "idx_order_archive_batches_max_created", columnList = "max_created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderArchiveBatch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true, length = 512)
+    private String objectKey;
+    
+    @Column(nullable = false)
+    private Integer orderCount;
+    
+    @Column(nullable = false)
+    private Long minOrderId;
+    
+    @Column(nullable = false)
+    private Long maxOrderId;
+    
+    // Null for batches archived before this was recorded
+    @Column(name = "max_created_at")
+    private LocalDateTime maxCreatedAt;
+    
+    @Column(nullable = false)
+    private Long sizeBytes;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Compact index row mapping an archived order id to its position inside an archive batch.
+ */
+@Entity
+@Table(name = "order_archive_index")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderArchiveEntry implements Persistable<Long> {
+    
+    @Id
+    private Long orderId;
+    
+    @Column(nullable = false)
+    private Long batchId;
+    
+    @Column(nullable = false)
+    private Integer position;
+    
+    // Ids are assigned from the archived order, so tell Spring Data to persist instead of merge
+    @Transient
+    @Builder.Default
+    private boolean newEntry = true;
+    
+    @Override
+    public Long getId() {
+        return orderId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntry = false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-serialized detail document of one order, rewritten by {@code OrderViewService} on every order write.
+ */
+@Entity
+@Table(name = "order_views")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] body;
+    
+    @Column(nullable = false, length = 64)
+    private String etag;
+    
+    @Column(nullable = false)
+    private Long lastModified;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,10 +8,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_category", columnList = "category"),
+    @Index(name = "idx_products_brand", columnList = "brand"),
+    // Covers the catalog sync state query without touching the row data
+    @Index(name = "idx_products_sku_state", columnList = "sku, content_hash, active")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -41,6 +51,11 @@ public class Product {
     @Column(nullable = false)
     private Boolean active = true;
     
+    // SHA-256 of the catalog content, used by bulk sync to skip unchanged products
+    @JsonIgnore
+    @Column(length = 64)
+    private String contentHash;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -51,10 +66,29 @@ public class Product {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        contentHash = computeContentHash();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        contentHash = computeContentHash();
+    }
+    
+    public String computeContentHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : new String[] {
+                    name, description, price != null ? price.stripTrailingZeros().toPlainString() : null, category, brand}) {
+                if (field != null) {
+                    digest.update(field.getBytes(StandardCharsets.UTF_8));
+                }
+                // Separator keeps ("ab", "c") and ("a", "bc") apart
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
\ No newline at end of file
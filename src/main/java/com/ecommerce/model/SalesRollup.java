@@ -0,0 +1,67 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Pre-aggregated sales per product, warehouse and time bucket.
+ * {@code orderCount} counts the orders that contained the product in that bucket.
+ */
+@Entity
+@Table(name = "sales_rollups", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"granularity", "bucket_start", "product_id", "warehouse_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+    
+    @Column(nullable = false)
+    private Long units;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+    
+    @Column(nullable = false)
+    private Long orderCount;
+    
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+        
+        private final ChronoUnit unit;
+        
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+        
+        public LocalDateTime truncate(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ownership lease of one warehouse in cluster mode. Written by {@code JdbcClusterCoordinator}.
+ */
+@Entity
+@Table(name = "warehouse_leases", indexes = {
+    @Index(name = "idx_warehouse_leases_owner", columnList = "owner_node, lease_expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseLease {
+    
+    @Id
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+    
+    @Column(name = "owner_node", nullable = false, length = 128)
+    private String ownerNode;
+    
+    @Column(nullable = false)
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.model.Inventory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive versions of the read endpoints of {@code InventoryController}, with the same paths and payloads.
+ */
+public class ReactiveInventoryHandler {
+    
+    private final ReactiveInventoryRepository repository;
+    
+    public ReactiveInventoryHandler(ReactiveInventoryRepository repository) {
+        this.repository = repository;
+    }
+    
+    public Mono<ServerResponse> getInventoryById(ServerRequest request) {
+        return repository.findById(pathLong(request, "id"))
+                .flatMap(this::ok)
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+    
+    public Mono<ServerResponse> getInventory(ServerRequest request) {
+        return repository.findByProductIdAndWarehouseId(pathLong(request, "productId"), pathLong(request, "warehouseId"))
+                .flatMap(this::ok)
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+    
+    public Mono<ServerResponse> getProductInventory(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(repository.findByProductId(pathLong(request, "productId")), Inventory.class);
+    }
+    
+    public Mono<ServerResponse> getTotalAvailableStock(ServerRequest request) {
+        return repository.findByProductId(pathLong(request, "productId"))
+                .map(Inventory::getAvailableQuantity)
+                .reduce(0, Integer::sum)
+                .flatMap(total -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(total));
+    }
+    
+    private Mono<ServerResponse> ok(Inventory inventory) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(inventory);
+    }
+    
+    private static Long pathLong(ServerRequest request, String name) {
+        return Long.valueOf(request.pathVariable(name));
+    }
+}
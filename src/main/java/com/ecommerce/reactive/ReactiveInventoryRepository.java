@@ -0,0 +1,104 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Warehouse;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of the inventory lookups in {@code InventoryRepository}. Rows are mapped into
+ * the same entity classes, unmanaged, so responses serialize exactly like the blocking endpoints.
+ */
+public class ReactiveInventoryRepository {
+    
+    // Product and warehouse are joined in, and bucket totals computed as in the Inventory @Formula columns
+    private static final String SELECT_INVENTORY =
+            "SELECT i.id, i.quantity, i.reserved_quantity, i.reorder_level, i.reorder_quantity, i.bucket_count, " +
+            "i.created_at, i.updated_at, " +
+            "(SELECT CAST(COALESCE(SUM(b.quantity), 0) AS SIGNED) FROM inventory_buckets b WHERE b.inventory_id = i.id) AS bucket_quantity, " +
+            "(SELECT CAST(COALESCE(SUM(b.reserved_quantity), 0) AS SIGNED) FROM inventory_buckets b WHERE b.inventory_id = i.id) AS bucket_reserved_quantity, " +
+            "p.id AS p_id, p.sku AS p_sku, p.name AS p_name, p.description AS p_description, p.price AS p_price, " +
+            "p.category AS p_category, p.brand AS p_brand, p.active AS p_active, " +
+            "p.created_at AS p_created_at, p.updated_at AS p_updated_at, " +
+            "w.id AS w_id, w.code AS w_code, w.name AS w_name, w.address AS w_address, w.city AS w_city, " +
+            "w.state AS w_state, w.zip_code AS w_zip_code, w.active AS w_active, " +
+            "w.created_at AS w_created_at, w.updated_at AS w_updated_at " +
+            "FROM inventory i JOIN products p ON p.id = i.product_id JOIN warehouses w ON w.id = i.warehouse_id ";
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveInventoryRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    public Mono<Inventory> findById(Long id) {
+        return databaseClient.sql(SELECT_INVENTORY + "WHERE i.id = :id")
+                .bind("id", id)
+                .map(ReactiveInventoryRepository::toInventory)
+                .one();
+    }
+    
+    public Mono<Inventory> findByProductIdAndWarehouseId(Long productId, Long warehouseId) {
+        return databaseClient.sql(SELECT_INVENTORY + "WHERE i.product_id = :productId AND i.warehouse_id = :warehouseId")
+                .bind("productId", productId)
+                .bind("warehouseId", warehouseId)
+                .map(ReactiveInventoryRepository::toInventory)
+                .one();
+    }
+    
+    public Flux<Inventory> findByProductId(Long productId) {
+        return databaseClient.sql(SELECT_INVENTORY + "WHERE i.product_id = :productId")
+                .bind("productId", productId)
+                .map(ReactiveInventoryRepository::toInventory)
+                .all();
+    }
+    
+    private static Inventory toInventory(Readable row) {
+        Product product = Product.builder()
+                .id(row.get("p_id", Long.class))
+                .sku(row.get("p_sku", String.class))
+                .name(row.get("p_name", String.class))
+                .description(row.get("p_description", String.class))
+                .price(row.get("p_price", BigDecimal.class))
+                .category(row.get("p_category", String.class))
+                .brand(row.get("p_brand", String.class))
+                .active(row.get("p_active", Boolean.class))
+                .createdAt(row.get("p_created_at", LocalDateTime.class))
+                .updatedAt(row.get("p_updated_at", LocalDateTime.class))
+                .build();
+        
+        Warehouse warehouse = Warehouse.builder()
+                .id(row.get("w_id", Long.class))
+                .code(row.get("w_code", String.class))
+                .name(row.get("w_name", String.class))
+                .address(row.get("w_address", String.class))
+                .city(row.get("w_city", String.class))
+                .state(row.get("w_state", String.class))
+                .zipCode(row.get("w_zip_code", String.class))
+                .active(row.get("w_active", Boolean.class))
+                .createdAt(row.get("w_created_at", LocalDateTime.class))
+                .updatedAt(row.get("w_updated_at", LocalDateTime.class))
+                .build();
+        
+        return Inventory.builder()
+                .id(row.get("id", Long.class))
+                .product(product)
+                .warehouse(warehouse)
+                .quantity(row.get("quantity", Integer.class))
+                .reservedQuantity(row.get("reserved_quantity", Integer.class))
+                .reorderLevel(row.get("reorder_level", Integer.class))
+                .reorderQuantity(row.get("reorder_quantity", Integer.class))
+                .bucketCount(row.get("bucket_count", Integer.class))
+                .bucketQuantity(row.get("bucket_quantity", Long.class).intValue())
+                .bucketReservedQuantity(row.get("bucket_reserved_quantity", Long.class).intValue())
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
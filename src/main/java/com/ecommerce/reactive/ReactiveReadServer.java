@@ -0,0 +1,128 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.config.ReactiveReadProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the inventory lookups on a separate port from a Reactor Netty server with its own small
+ * event-loop group and an R2DBC connection pool, so these reads never occupy a servlet thread or a
+ * JDBC connection. The servlet application, its filters and the writes are unaffected.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.reactive-read", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+    
+    private final ReactiveReadProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    
+    private LoopResources loops;
+    private ConnectionPool connectionPool;
+    private DisposableServer server;
+    
+    public ReactiveReadServer(ReactiveReadProperties properties, DataSourceProperties dataSourceProperties,
+                              ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public synchronized void start() {
+        String url = StringUtils.hasText(properties.getUrl())
+                ? properties.getUrl() : r2dbcUrl(dataSourceProperties.getUrl());
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("inventory-read")
+                .initialSize(properties.getPoolInitialSize())
+                .maxSize(properties.getPoolMaxSize())
+                .maxIdleTime(properties.getPoolMaxIdleTime())
+                .build());
+        
+        ReactiveInventoryHandler handler = new ReactiveInventoryHandler(
+                new ReactiveInventoryRepository(DatabaseClient.create(connectionPool)));
+        // Literal paths are listed before the {productId}/{warehouseId} pattern they would otherwise match
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/api/inventory/product/{productId}/available", handler::getTotalAvailableStock)
+                .GET("/api/inventory/product/{productId}", handler::getProductInventory)
+                .GET("/api/inventory/{productId}/{warehouseId}", handler::getInventory)
+                .GET("/api/inventory/{id}", handler::getInventoryById)
+                .build();
+        
+        // Share the servlet mapper so the @JsonComponent serializers produce identical payloads
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+        
+        loops = LoopResources.create("inventory-read", properties.getEventLoopThreads(), true);
+        server = HttpServer.create()
+                .port(properties.getPort())
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        
+        log.info("Reactive inventory reads listening on port {} with {} event-loop threads",
+                server.port(), properties.getEventLoopThreads());
+    }
+    
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        if (connectionPool != null) {
+            connectionPool.dispose();
+            connectionPool = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block();
+            loops = null;
+        }
+    }
+    
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+    
+    // Bound port, which differs from the configured one when that is 0
+    public synchronized int getPort() {
+        return server != null ? server.port() : -1;
+    }
+    
+    // jdbc:mysql://host:port/db?options -> r2dbc:mysql://host:port/db; the JDBC driver options mean nothing to R2DBC
+    static String r2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl + ", set ecommerce.reactive-read.url");
+        }
+        int options = jdbcUrl.indexOf('?');
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), options < 0 ? jdbcUrl.length() : options);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.InventoryBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryBucketRepository extends JpaRepository<InventoryBucket, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM InventoryBucket b WHERE b.inventoryId = :inventoryId ORDER BY b.bucketIndex")
+    List<InventoryBucket> findForUpdate(@Param("inventoryId") Long inventoryId);
+    
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.reservedQuantity = b.reservedQuantity + :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.inventoryId = :inventoryId AND b.bucketIndex = :bucketIndex AND (b.quantity - b.reservedQuantity) >= :quantity")
+    int reserveStock(@Param("inventoryId") Long inventoryId, @Param("bucketIndex") Integer bucketIndex,
+                     @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.reservedQuantity = b.reservedQuantity - :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.inventoryId = :inventoryId AND b.bucketIndex = :bucketIndex AND b.reservedQuantity >= :quantity")
+    int releaseReservedStock(@Param("inventoryId") Long inventoryId, @Param("bucketIndex") Integer bucketIndex,
+                             @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.quantity = b.quantity - :quantity, " +
+           "b.reservedQuantity = b.reservedQuantity - :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.inventoryId = :inventoryId AND b.bucketIndex = :bucketIndex AND b.reservedQuantity >= :quantity")
+    int confirmReservedStock(@Param("inventoryId") Long inventoryId, @Param("bucketIndex") Integer bucketIndex,
+                             @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.quantity = b.quantity - :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.inventoryId = :inventoryId AND b.bucketIndex = :bucketIndex AND (b.quantity - b.reservedQuantity) >= :quantity")
+    int removeStock(@Param("inventoryId") Long inventoryId, @Param("bucketIndex") Integer bucketIndex,
+                    @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.quantity = b.quantity + :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.inventoryId = :inventoryId AND b.bucketIndex = :bucketIndex")
+    int addStock(@Param("inventoryId") Long inventoryId, @Param("bucketIndex") Integer bucketIndex,
+                 @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("DELETE FROM InventoryBucket b WHERE b.inventoryId = :inventoryId")
+    void deleteByInventoryId(@Param("inventoryId") Long inventoryId);
+}
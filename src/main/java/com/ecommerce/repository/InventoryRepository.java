@@ -1,12 +1,18 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.InventoryRow;
+import com.ecommerce.dto.StockLevel;
 import com.ecommerce.model.Inventory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,22 +25,67 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
     List<Inventory> findByWarehouseId(Long warehouseId);
     
-    @Query("SELECT i FROM Inventory i WHERE i.quantity - i.reservedQuantity <= i.reorderLevel")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id = :id")
+    Optional<Inventory> findForUpdate(@Param("id") Long id);
+    
+    @Query("SELECT i FROM Inventory i WHERE i.quantity + i.bucketQuantity - i.reservedQuantity - i.bucketReservedQuantity <= i.reorderLevel")
     List<Inventory> findItemsNeedingReorder();
     
     @Modifying
-    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :quantity WHERE i.id = :id")
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id")
     void addStock(@Param("id") Long id, @Param("quantity") Integer quantity);
     
     @Modifying
-    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity WHERE i.id = :id AND i.quantity >= :quantity")
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id AND i.quantity >= :quantity")
     int removeStock(@Param("id") Long id, @Param("quantity") Integer quantity);
     
+    // Leaves units held by reservations in place; used on parent rows of sharded inventory
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id AND (i.quantity - i.reservedQuantity) >= :quantity")
+    int removeFreeStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+    
     @Modifying
-    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity WHERE i.id = :id AND (i.quantity - i.reservedQuantity) >= :quantity")
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id AND (i.quantity - i.reservedQuantity) >= :quantity")
     int reserveStock(@Param("id") Long id, @Param("quantity") Integer quantity);
     
     @Modifying
-    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity WHERE i.id = :id")
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id")
     void releaseReservedStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.reservedQuantity = i.reservedQuantity - :quantity, " +
+           "i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id AND i.reservedQuantity >= :quantity AND i.quantity >= :quantity")
+    int confirmReservedStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id AND i.reservedQuantity >= :quantity")
+    int releaseReservedStockIfHeld(@Param("id") Long id, @Param("quantity") Integer quantity);
+    
+    @Query("SELECT new com.ecommerce.dto.StockLevel(i.product.id, i.warehouse.id, " +
+           "i.quantity + i.bucketQuantity - i.reservedQuantity - i.bucketReservedQuantity) " +
+           "FROM Inventory i WHERE i.product.id IN :productIds")
+    List<StockLevel> findStockLevels(@Param("productIds") Collection<Long> productIds);
+    
+    // id, then the updatedAt of the row, its product, its warehouse and its newest bucket
+    @Query("SELECT i.id, i.updatedAt, p.updatedAt, w.updatedAt, " +
+           "(SELECT MAX(b.updatedAt) FROM InventoryBucket b WHERE b.inventoryId = i.id) " +
+           "FROM Inventory i JOIN i.product p JOIN i.warehouse w WHERE i.id = :id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+    
+    @Query("SELECT i.id, i.updatedAt, p.updatedAt, w.updatedAt, " +
+           "(SELECT MAX(b.updatedAt) FROM InventoryBucket b WHERE b.inventoryId = i.id) " +
+           "FROM Inventory i JOIN i.product p JOIN i.warehouse w WHERE p.id = :productId AND w.id = :warehouseId")
+    List<Object[]> findVersionsByProductIdAndWarehouseId(@Param("productId") Long productId,
+                                                        @Param("warehouseId") Long warehouseId);
+    
+    @Query("SELECT new com.ecommerce.dto.InventoryRow(i.id, i.product.id, i.warehouse.id, " +
+           "i.quantity + i.bucketQuantity, i.reservedQuantity + i.bucketReservedQuantity, i.reorderLevel, i.product.price) " +
+           "FROM Inventory i WHERE i.id > :afterId ORDER BY i.id")
+    List<InventoryRow> findRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.ecommerce.dto.InventoryRow(i.id, i.product.id, i.warehouse.id, " +
+           "i.quantity + i.bucketQuantity, i.reservedQuantity + i.bucketReservedQuantity, i.reorderLevel, i.product.price) " +
+           "FROM Inventory i WHERE i.id IN :ids")
+    List<InventoryRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
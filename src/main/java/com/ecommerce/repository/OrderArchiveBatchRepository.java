@@ -0,0 +1,18 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OrderArchiveBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderArchiveBatchRepository extends JpaRepository<OrderArchiveBatch, Long> {
+    
+    List<OrderArchiveBatch> findByMaxCreatedAtIsNull();
+    
+    @Query("SELECT MAX(b.maxCreatedAt) FROM OrderArchiveBatch b")
+    LocalDateTime findNewestCreatedAt();
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OrderArchiveEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderArchiveEntryRepository extends JpaRepository<OrderArchiveEntry, Long> {
+}
@@ -2,10 +2,16 @@ package com.ecommerce.repository;
 
 import com.ecommerce.model.Order;
 import com.ecommerce.model.Order.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +27,25 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     
     List<Order> findByWarehouseId(Long warehouseId);
-}
\ No newline at end of file
+    
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff ORDER BY o.id")
+    List<Long> findArchivableOrderIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"items", "items.product", "warehouse"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = {"items", "items.product", "warehouse"})
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :ids")
+    int deleteItemsByOrderIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,14 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +23,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByActiveTrue();
     
+    @Query("SELECT p.updatedAt FROM Product p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
+    @Query("SELECT p.sku, p.id, p.contentHash, p.active FROM Product p")
+    List<Object[]> findCatalogState();
+    
+    // id, category, brand, active for the listing index
+    @Query("SELECT p.id, p.category, p.brand, p.active FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findListingAttributesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT p.id, p.category, p.brand, p.active FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findListingAttributesByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Product> searchProducts(String searchTerm);
 }
\ No newline at end of file
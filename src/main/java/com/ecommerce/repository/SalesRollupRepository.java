@@ -0,0 +1,62 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.ProductSales;
+import com.ecommerce.dto.SalesBucket;
+import com.ecommerce.model.SalesRollup;
+import com.ecommerce.model.SalesRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+    
+    @Query("SELECT new com.ecommerce.dto.SalesBucket(r.bucketStart, SUM(r.units), SUM(r.revenue), SUM(r.orderCount)) " +
+           "FROM SalesRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "AND (:productId IS NULL OR r.productId = :productId) " +
+           "AND (:warehouseId IS NULL OR r.warehouseId = :warehouseId) " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<SalesBucket> findSeries(@Param("granularity") Granularity granularity,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("productId") Long productId,
+                                 @Param("warehouseId") Long warehouseId);
+    
+    @Query("SELECT new com.ecommerce.dto.ProductSales(r.productId, r.warehouseId, SUM(r.units), SUM(r.revenue), SUM(r.orderCount)) " +
+           "FROM SalesRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "AND (:warehouseId IS NULL OR r.warehouseId = :warehouseId) " +
+           "GROUP BY r.productId, r.warehouseId ORDER BY SUM(r.revenue) DESC")
+    List<ProductSales> findProductTotals(@Param("granularity") Granularity granularity,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("warehouseId") Long warehouseId);
+    
+    @Modifying
+    @Query("DELETE FROM SalesRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRollupsBetween(@Param("granularity") Granularity granularity,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+    
+    @Query(value = "SELECT MIN(id), MAX(id) FROM orders WHERE created_at >= :from AND created_at < :to", nativeQuery = true)
+    List<Object[]> findOrderIdRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Hour-level aggregate of one order id range; DAY buckets are derived from these rows
+    @Query(value = "SELECT DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00') AS bucket_start, " +
+                   "oi.product_id, o.warehouse_id, SUM(oi.quantity), SUM(oi.subtotal), COUNT(DISTINCT o.id) " +
+                   "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+                   "WHERE o.id BETWEEN :fromId AND :toId AND o.created_at >= :from AND o.created_at < :to " +
+                   "AND o.warehouse_id IS NOT NULL " +
+                   "AND o.status IN ('CONFIRMED', 'PROCESSING', 'SHIPPED', 'DELIVERED') " +
+                   "GROUP BY bucket_start, oi.product_id, o.warehouse_id",
+           nativeQuery = true)
+    List<Object[]> aggregateOrderRange(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
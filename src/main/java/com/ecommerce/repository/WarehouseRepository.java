@@ -2,12 +2,17 @@ package com.ecommerce.repository;
 
 import com.ecommerce.model.Warehouse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     
     Optional<Warehouse> findByCode(String code);
+    
+    @Query("SELECT w.id FROM Warehouse w ORDER BY w.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
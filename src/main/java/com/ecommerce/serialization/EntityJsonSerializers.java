@@ -0,0 +1,218 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Warehouse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+import static com.ecommerce.serialization.JsonFields.*;
+
+/**
+ * Reflection-free serializers for the entities returned by the hot read endpoints. They emit the
+ * same fields, in the same order, as the default bean serialization of the Lombok getters, and
+ * read lazy associations through their getters so Hibernate proxies serialize like loaded entities.
+ */
+@JsonComponent
+public class EntityJsonSerializers {
+    
+    private static final SerializableString ID = name("id");
+    private static final SerializableString CREATED_AT = name("createdAt");
+    private static final SerializableString UPDATED_AT = name("updatedAt");
+    private static final SerializableString ACTIVE = name("active");
+    private static final SerializableString NAME = name("name");
+    private static final SerializableString QUANTITY = name("quantity");
+    private static final SerializableString PRODUCT = name("product");
+    private static final SerializableString WAREHOUSE = name("warehouse");
+    
+    /**
+     * Module for use outside the Spring context, e.g. benchmarks.
+     */
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("EntityJsonSerializers");
+        module.addSerializer(Product.class, new ProductSerializer());
+        module.addSerializer(Warehouse.class, new WarehouseSerializer());
+        module.addSerializer(Inventory.class, new InventorySerializer());
+        module.addSerializer(OrderItem.class, new OrderItemSerializer());
+        module.addSerializer(Order.class, new OrderSerializer());
+        return module;
+    }
+    
+    public static class ProductSerializer extends StdSerializer<Product> {
+        
+        private static final SerializableString SKU = name("sku");
+        private static final SerializableString DESCRIPTION = name("description");
+        private static final SerializableString PRICE = name("price");
+        private static final SerializableString CATEGORY = name("category");
+        private static final SerializableString BRAND = name("brand");
+        
+        public ProductSerializer() {
+            super(Product.class);
+        }
+        
+        @Override
+        public void serialize(Product product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, ID, product.getId());
+            writeString(gen, SKU, product.getSku());
+            writeString(gen, NAME, product.getName());
+            writeString(gen, DESCRIPTION, product.getDescription());
+            writeDecimal(gen, PRICE, product.getPrice());
+            writeString(gen, CATEGORY, product.getCategory());
+            writeString(gen, BRAND, product.getBrand());
+            writeBoolean(gen, ACTIVE, product.getActive());
+            writeDateTime(gen, CREATED_AT, product.getCreatedAt());
+            writeDateTime(gen, UPDATED_AT, product.getUpdatedAt());
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class WarehouseSerializer extends StdSerializer<Warehouse> {
+        
+        private static final SerializableString CODE = name("code");
+        private static final SerializableString ADDRESS = name("address");
+        private static final SerializableString CITY = name("city");
+        private static final SerializableString STATE = name("state");
+        private static final SerializableString ZIP_CODE = name("zipCode");
+        
+        public WarehouseSerializer() {
+            super(Warehouse.class);
+        }
+        
+        @Override
+        public void serialize(Warehouse warehouse, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, ID, warehouse.getId());
+            writeString(gen, CODE, warehouse.getCode());
+            writeString(gen, NAME, warehouse.getName());
+            writeString(gen, ADDRESS, warehouse.getAddress());
+            writeString(gen, CITY, warehouse.getCity());
+            writeString(gen, STATE, warehouse.getState());
+            writeString(gen, ZIP_CODE, warehouse.getZipCode());
+            writeBoolean(gen, ACTIVE, warehouse.getActive());
+            writeDateTime(gen, CREATED_AT, warehouse.getCreatedAt());
+            writeDateTime(gen, UPDATED_AT, warehouse.getUpdatedAt());
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class InventorySerializer extends StdSerializer<Inventory> {
+        
+        private static final SerializableString RESERVED_QUANTITY = name("reservedQuantity");
+        private static final SerializableString REORDER_LEVEL = name("reorderLevel");
+        private static final SerializableString REORDER_QUANTITY = name("reorderQuantity");
+        private static final SerializableString BUCKET_COUNT = name("bucketCount");
+        private static final SerializableString BUCKET_QUANTITY = name("bucketQuantity");
+        private static final SerializableString BUCKET_RESERVED_QUANTITY = name("bucketReservedQuantity");
+        private static final SerializableString AVAILABLE_QUANTITY = name("availableQuantity");
+        private static final SerializableString TOTAL_QUANTITY = name("totalQuantity");
+        private static final SerializableString TOTAL_RESERVED_QUANTITY = name("totalReservedQuantity");
+        private static final SerializableString SHARDED = name("sharded");
+        
+        public InventorySerializer() {
+            super(Inventory.class);
+        }
+        
+        @Override
+        public void serialize(Inventory inventory, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, ID, inventory.getId());
+            writeReference(gen, PRODUCT, inventory.getProduct(), provider);
+            writeReference(gen, WAREHOUSE, inventory.getWarehouse(), provider);
+            writeInt(gen, QUANTITY, inventory.getQuantity());
+            writeInt(gen, RESERVED_QUANTITY, inventory.getReservedQuantity());
+            writeInt(gen, REORDER_LEVEL, inventory.getReorderLevel());
+            writeInt(gen, REORDER_QUANTITY, inventory.getReorderQuantity());
+            writeInt(gen, BUCKET_COUNT, inventory.getBucketCount());
+            writeInt(gen, BUCKET_QUANTITY, inventory.getBucketQuantity());
+            writeInt(gen, BUCKET_RESERVED_QUANTITY, inventory.getBucketReservedQuantity());
+            writeDateTime(gen, CREATED_AT, inventory.getCreatedAt());
+            writeDateTime(gen, UPDATED_AT, inventory.getUpdatedAt());
+            if (inventory.getQuantity() != null && inventory.getReservedQuantity() != null) {
+                writeInt(gen, AVAILABLE_QUANTITY, inventory.getAvailableQuantity());
+                writeInt(gen, TOTAL_QUANTITY, inventory.getTotalQuantity());
+                writeInt(gen, TOTAL_RESERVED_QUANTITY, inventory.getTotalReservedQuantity());
+            }
+            writeBoolean(gen, SHARDED, inventory.isSharded());
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class OrderItemSerializer extends StdSerializer<OrderItem> {
+        
+        private static final SerializableString UNIT_PRICE = name("unitPrice");
+        private static final SerializableString SUBTOTAL = name("subtotal");
+        
+        public OrderItemSerializer() {
+            super(OrderItem.class);
+        }
+        
+        @Override
+        public void serialize(OrderItem item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, ID, item.getId());
+            writeReference(gen, PRODUCT, item.getProduct(), provider);
+            writeInt(gen, QUANTITY, item.getQuantity());
+            writeDecimal(gen, UNIT_PRICE, item.getUnitPrice());
+            writeDecimal(gen, SUBTOTAL, item.getSubtotal());
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class OrderSerializer extends StdSerializer<Order> {
+        
+        private static final SerializableString ORDER_NUMBER = name("orderNumber");
+        private static final SerializableString CUSTOMER_EMAIL = name("customerEmail");
+        private static final SerializableString STATUS = name("status");
+        private static final SerializableString ITEMS = name("items");
+        private static final SerializableString TOTAL_AMOUNT = name("totalAmount");
+        
+        private final OrderItemSerializer itemSerializer = new OrderItemSerializer();
+        
+        public OrderSerializer() {
+            super(Order.class);
+        }
+        
+        @Override
+        public void serialize(Order order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeLong(gen, ID, order.getId());
+            writeString(gen, ORDER_NUMBER, order.getOrderNumber());
+            writeString(gen, CUSTOMER_EMAIL, order.getCustomerEmail());
+            writeString(gen, STATUS, order.getStatus() != null ? order.getStatus().name() : null);
+            gen.writeFieldName(ITEMS);
+            if (order.getItems() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                for (OrderItem item : order.getItems()) {
+                    itemSerializer.serialize(item, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            writeDecimal(gen, TOTAL_AMOUNT, order.getTotalAmount());
+            writeReference(gen, WAREHOUSE, order.getWarehouse(), provider);
+            writeDateTime(gen, CREATED_AT, order.getCreatedAt());
+            writeDateTime(gen, UPDATED_AT, order.getUpdatedAt());
+            gen.writeEndObject();
+        }
+    }
+    
+    private static void writeReference(JsonGenerator gen, SerializableString name, Object value,
+                                       SerializerProvider provider) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+}
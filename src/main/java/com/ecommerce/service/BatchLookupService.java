@@ -0,0 +1,150 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.BatchProperties;
+import com.ecommerce.dto.StockLevel;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Multi-get lookups for storefront pages. Concurrent requests landing within the batch window
+ * share one IN-list query instead of each issuing their own.
+ */
+@Service
+public class BatchLookupService {
+    
+    private final BatchProperties properties;
+    private final CoalescingLoader<Long, List<StockLevel>> stockLoader;
+    private final CoalescingLoader<Long, Product> productLoader;
+    
+    public BatchLookupService(BatchProperties properties,
+                              InventoryRepository inventoryRepository,
+                              ProductRepository productRepository) {
+        this.properties = properties;
+        this.stockLoader = new CoalescingLoader<>("stock-levels", productIds -> {
+            Map<Long, List<StockLevel>> byProduct = new HashMap<>();
+            for (StockLevel level : inventoryRepository.findStockLevels(productIds)) {
+                byProduct.computeIfAbsent(level.getProductId(), id -> new ArrayList<>()).add(level);
+            }
+            return byProduct;
+        }, properties.getWindow(), properties.getMaxKeys());
+        this.productLoader = new CoalescingLoader<>("products", ids -> {
+            Map<Long, Product> byId = new HashMap<>();
+            productRepository.findAllById(ids).forEach(product -> byId.put(product.getId(), product));
+            return byId;
+        }, properties.getWindow(), properties.getMaxKeys());
+    }
+    
+    /**
+     * Total available units per product, summed over the given warehouses or over all of them when none are given.
+     * Products without inventory report zero.
+     */
+    public Map<Long, Integer> getAvailability(Collection<Long> productIds, Collection<Long> warehouseIds) {
+        Set<Long> ids = checkSize(productIds);
+        Set<Long> warehouses = warehouseIds == null ? Set.of() : new LinkedHashSet<>(warehouseIds);
+        Map<Long, List<StockLevel>> levels = join(stockLoader.load(ids));
+        
+        Map<Long, Integer> availability = new LinkedHashMap<>();
+        for (Long productId : ids) {
+            int total = 0;
+            for (StockLevel level : levels.getOrDefault(productId, List.of())) {
+                if (warehouses.isEmpty() || warehouses.contains(level.getWarehouseId())) {
+                    total += level.getAvailable();
+                }
+            }
+            availability.put(productId, total);
+        }
+        return availability;
+    }
+    
+    /**
+     * Available units for each requested (productId, warehouseId) pair, grouped by product.
+     * Pairs with no inventory row are left out.
+     */
+    public Map<Long, Map<Long, Integer>> getStockLevels(List<long[]> pairs) {
+        if (pairs.size() > properties.getMaxRequestIds()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxRequestIds() + " pairs per request");
+        }
+        Map<Long, Set<Long>> wanted = new LinkedHashMap<>();
+        for (long[] pair : pairs) {
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Each pair must be [productId, warehouseId]");
+            }
+            wanted.computeIfAbsent(pair[0], id -> new LinkedHashSet<>()).add(pair[1]);
+        }
+        Map<Long, List<StockLevel>> levels = join(stockLoader.load(wanted.keySet()));
+        
+        Map<Long, Map<Long, Integer>> result = new LinkedHashMap<>();
+        wanted.forEach((productId, warehouses) -> {
+            for (StockLevel level : levels.getOrDefault(productId, List.of())) {
+                if (warehouses.contains(level.getWarehouseId())) {
+                    result.computeIfAbsent(productId, id -> new LinkedHashMap<>())
+                            .put(level.getWarehouseId(), level.getAvailable());
+                }
+            }
+        });
+        return result;
+    }
+    
+    // Unknown ids are left out of the result
+    public Map<Long, Product> getProducts(Collection<Long> ids) {
+        Set<Long> unique = checkSize(ids);
+        Map<Long, Product> loaded = join(productLoader.load(unique));
+        
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (Long id : unique) {
+            Product product = loaded.get(id);
+            if (product != null) {
+                products.put(id, product);
+            }
+        }
+        return products;
+    }
+    
+    @PreDestroy
+    public void close() {
+        stockLoader.close();
+        productLoader.close();
+    }
+    
+    private Set<Long> checkSize(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Set.of();
+        }
+        if (ids.size() > properties.getMaxRequestIds()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxRequestIds() + " ids per request");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+    
+    // Request threads wait on the shared batch rather than going async, so servlet filters see a finished response.
+    // The wait is bounded: a stuck batch query must not pin every request thread that joined it.
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.orTimeout(properties.getTimeout().toNanos(), TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new RuntimeException("Batch lookup did not complete within " + properties.getTimeout(), e.getCause());
+            }
+            throw e;
+        }
+    }
+}
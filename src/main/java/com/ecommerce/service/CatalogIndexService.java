@@ -0,0 +1,227 @@
+package com.ecommerce.service;
+
+import com.ecommerce.analytics.CatalogBitmapIndex;
+import com.ecommerce.config.CatalogIndexProperties;
+import com.ecommerce.dto.InventoryRow;
+import com.ecommerce.dto.ProductListing;
+import com.ecommerce.event.CatalogChangedEvent;
+import com.ecommerce.event.InventoryChangedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Warehouse;
+import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the {@link CatalogBitmapIndex} behind product listings. Stock and catalog changes are
+ * collected after commit and applied in small batches; a periodic full rebuild corrects any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogIndexService {
+    
+    private static final int RELOAD_BATCH = 500;
+    
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final CatalogIndexProperties properties;
+    
+    private final Set<Long> dirtyInventoryIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyProductIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean catalogReloadPending;
+    private volatile CatalogBitmapIndex index;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (properties.isEnabled()) {
+            dirtyInventoryIds.add(event.inventoryId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (event.isFullReload()) {
+            catalogReloadPending = true;
+        } else {
+            dirtyProductIds.addAll(event.productIds());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.catalog-index.refresh-interval:200}")
+    public synchronized void applyChanges() {
+        CatalogBitmapIndex current = index;
+        if (current == null) {
+            return;
+        }
+        
+        if (catalogReloadPending) {
+            catalogReloadPending = false;
+            dirtyProductIds.clear();
+            loadAllAttributes(current);
+        } else if (!dirtyProductIds.isEmpty()) {
+            drain(dirtyProductIds, batch -> reloadProducts(current, batch));
+        }
+        if (!dirtyInventoryIds.isEmpty()) {
+            drain(dirtyInventoryIds, batch -> reloadStock(current, batch));
+        }
+    }
+    
+    @Scheduled(cron = "${ecommerce.catalog-index.rebuild-cron:0 */15 * * * *}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        CatalogBitmapIndex fresh = new CatalogBitmapIndex();
+        registerWarehouses(fresh);
+        loadAllAttributes(fresh);
+        
+        long afterId = 0;
+        while (true) {
+            List<InventoryRow> page = inventoryRepository.findRowsAfter(afterId,
+                    PageRequest.of(0, properties.getLoadPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(row -> applyStock(fresh, row));
+            afterId = page.get(page.size() - 1).getInventoryId();
+        }
+        fresh.optimize();
+        index = fresh;
+        
+        log.info("Rebuilt catalog index with {} products ({} KB) in {} ms", fresh.productCount(),
+                fresh.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Lists products matching the filter in id order. Only the requested page is loaded from the database.
+     */
+    public ProductListing list(CatalogBitmapIndex.Filter filter, int page, int size) {
+        CatalogBitmapIndex current = index;
+        if (current == null) {
+            throw new RuntimeException("Catalog index is not available");
+        }
+        if (page < 0 || size <= 0 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + properties.getMaxPageSize());
+        }
+        
+        RoaringBitmap matches = current.select(filter);
+        long total = matches.getLongCardinality();
+        long offset = (long) page * size;
+        if (offset >= total) {
+            return new ProductListing(total, page, size, List.of());
+        }
+        
+        List<Long> ids = new ArrayList<>(size);
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded(matches.select((int) offset));
+        while (iterator.hasNext() && ids.size() < size) {
+            ids.add((long) iterator.next());
+        }
+        
+        Map<Long, Product> loaded = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> loaded.put(product.getId(), product));
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = loaded.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return new ProductListing(total, page, size, products);
+    }
+    
+    private void loadAllAttributes(CatalogBitmapIndex target) {
+        long afterId = 0;
+        while (true) {
+            List<Object[]> page = productRepository.findListingAttributesAfter(afterId,
+                    PageRequest.of(0, properties.getLoadPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(row -> applyAttributes(target, row));
+            afterId = (Long) page.get(page.size() - 1)[0];
+        }
+    }
+    
+    private void reloadProducts(CatalogBitmapIndex target, List<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (Object[] row : productRepository.findListingAttributesByIdIn(ids)) {
+            applyAttributes(target, row);
+            missing.remove((Long) row[0]);
+        }
+        // Deleted products drop out of every bitmap
+        missing.forEach(target::removeProduct);
+    }
+    
+    private void reloadStock(CatalogBitmapIndex target, List<Long> ids) {
+        List<InventoryRow> rows = inventoryRepository.findRowsByIdIn(ids);
+        if (rows.stream().anyMatch(row -> !target.hasWarehouse(row.getWarehouseId()))) {
+            registerWarehouses(target);
+        }
+        rows.forEach(row -> applyStock(target, row));
+    }
+    
+    private void registerWarehouses(CatalogBitmapIndex target) {
+        // Warehouses are grouped into regions by state
+        for (Warehouse warehouse : warehouseRepository.findAll()) {
+            target.registerWarehouse(warehouse.getId(), warehouse.getState());
+        }
+    }
+    
+    private static void applyAttributes(CatalogBitmapIndex target, Object[] row) {
+        target.setAttributes((Long) row[0], (String) row[1], (String) row[2], Boolean.TRUE.equals(row[3]));
+    }
+    
+    private static void applyStock(CatalogBitmapIndex target, InventoryRow row) {
+        target.setStock(row.getProductId(), row.getWarehouseId(), row.getQuantity() - row.getReservedQuantity() > 0);
+    }
+    
+    private static void drain(Set<Long> dirty, Consumer<List<Long>> reload) {
+        List<Long> batch = new ArrayList<>(RELOAD_BATCH);
+        for (Long id : dirty) {
+            // Remove before reloading so a change racing with this refresh is picked up next time
+            dirty.remove(id);
+            batch.add(id);
+            if (batch.size() == RELOAD_BATCH) {
+                reload.accept(batch);
+                batch = new ArrayList<>(RELOAD_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            reload.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CatalogProduct;
+import com.ecommerce.dto.CatalogSyncResult;
+import com.ecommerce.event.CatalogChangedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSyncService {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO products (sku, name, description, price, category, brand, active, content_hash, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, ?, ?)";
+    
+    private static final String UPDATE_SQL =
+            "UPDATE products SET name = ?, description = ?, price = ?, category = ?, brand = ?, active = TRUE, " +
+            "content_hash = ?, updated_at = ? WHERE id = ?";
+    
+    private static final String DEACTIVATE_SQL =
+            "UPDATE products SET active = FALSE, updated_at = ? WHERE id = ?";
+    
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private record CatalogState(Long id, String contentHash, boolean active) {}
+    
+    private record PendingWrite(Long id, Product product) {}
+    
+    /**
+     * Upserts a full catalog feed keyed by SKU. Products whose content hash is unchanged are skipped,
+     * so a feed that mostly repeats the current catalog costs one read and a handful of writes.
+     */
+    @Transactional
+    public CatalogSyncResult sync(List<CatalogProduct> feed, boolean deactivateMissing) {
+        long start = System.currentTimeMillis();
+        
+        // Later entries win when the feed repeats a SKU
+        Map<String, Product> incoming = new LinkedHashMap<>();
+        for (CatalogProduct entry : feed) {
+            Product product = toProduct(entry);
+            incoming.put(product.getSku(), product);
+        }
+        
+        Map<String, CatalogState> existing = new HashMap<>();
+        for (Object[] row : productRepository.findCatalogState()) {
+            existing.put((String) row[0], new CatalogState((Long) row[1], (String) row[2], (Boolean) row[3]));
+        }
+        
+        List<Product> inserts = new ArrayList<>();
+        List<PendingWrite> updates = new ArrayList<>();
+        int unchanged = 0;
+        for (Product product : incoming.values()) {
+            CatalogState state = existing.remove(product.getSku());
+            if (state == null) {
+                inserts.add(product);
+            } else if (!state.active() || !product.getContentHash().equals(state.contentHash())) {
+                updates.add(new PendingWrite(state.id(), product));
+            } else {
+                unchanged++;
+            }
+        }
+        
+        // Whatever is left in the map was not in the feed
+        List<Long> deactivations = new ArrayList<>();
+        if (deactivateMissing) {
+            existing.values().stream()
+                    .filter(CatalogState::active)
+                    .forEach(state -> deactivations.add(state.id()));
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, BATCH_SIZE, (ps, product) -> {
+            ps.setString(1, product.getSku());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getDescription());
+            ps.setBigDecimal(4, product.getPrice());
+            ps.setString(5, product.getCategory());
+            ps.setString(6, product.getBrand());
+            ps.setString(7, product.getContentHash());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, BATCH_SIZE, (ps, write) -> {
+            Product product = write.product();
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setBigDecimal(3, product.getPrice());
+            ps.setString(4, product.getCategory());
+            ps.setString(5, product.getBrand());
+            ps.setString(6, product.getContentHash());
+            ps.setTimestamp(7, now);
+            ps.setLong(8, write.id());
+        });
+        
+        jdbcTemplate.batchUpdate(DEACTIVATE_SQL, deactivations, BATCH_SIZE, (ps, id) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, id);
+        });
+        
+        if (!inserts.isEmpty() || !updates.isEmpty() || !deactivations.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.all());
+        }
+        
+        CatalogSyncResult result = new CatalogSyncResult(feed.size(), inserts.size(), updates.size(),
+                unchanged, deactivations.size(), System.currentTimeMillis() - start);
+        log.info("Catalog sync: {} received, {} inserted, {} updated, {} unchanged, {} deactivated in {} ms",
+                result.getReceived(), result.getInserted(), result.getUpdated(), result.getUnchanged(),
+                result.getDeactivated(), result.getDurationMs());
+        return result;
+    }
+    
+    private Product toProduct(CatalogProduct entry) {
+        if (entry.getSku() == null || entry.getSku().isBlank()) {
+            throw new RuntimeException("Catalog entry is missing a SKU");
+        }
+        if (entry.getName() == null || entry.getPrice() == null || entry.getCategory() == null) {
+            throw new RuntimeException("Catalog entry " + entry.getSku() + " is missing name, price or category");
+        }
+        Product product = new Product();
+        product.setSku(entry.getSku());
+        product.setName(entry.getName());
+        product.setDescription(entry.getDescription());
+        // Match the column scale so a re-sent price hashes the same as the stored one
+        product.setPrice(entry.getPrice().setScale(2, RoundingMode.HALF_UP));
+        product.setCategory(entry.getCategory());
+        product.setBrand(entry.getBrand());
+        product.setContentHash(product.computeContentHash());
+        return product;
+    }
+}
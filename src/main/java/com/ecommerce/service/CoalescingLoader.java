@@ -0,0 +1,111 @@
+package com.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Merges key lookups that arrive within a short window into a single batch load.
+ * Each caller gets a future holding only the keys it asked for; keys the batch did not return are absent.
+ */
+@Slf4j
+public class CoalescingLoader<K, V> implements AutoCloseable {
+    
+    private record PendingLoad<K, V>(Collection<K> keys, CompletableFuture<Map<K, V>> future) {}
+    
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+    private final long windowNanos;
+    private final int maxKeys;
+    private final ScheduledExecutorService scheduler;
+    
+    private final Object lock = new Object();
+    private List<PendingLoad<K, V>> pending = new ArrayList<>();
+    private Set<K> pendingKeys = new HashSet<>();
+    
+    public CoalescingLoader(String name, Function<Set<K>, Map<K, V>> batchLoader, Duration window, int maxKeys) {
+        this.batchLoader = batchLoader;
+        this.windowNanos = window.toNanos();
+        this.maxKeys = maxKeys;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public CompletableFuture<Map<K, V>> load(Collection<K> keys) {
+        CompletableFuture<Map<K, V>> future = new CompletableFuture<>();
+        if (keys.isEmpty()) {
+            future.complete(Map.of());
+            return future;
+        }
+        
+        boolean first;
+        boolean full;
+        synchronized (lock) {
+            first = pending.isEmpty();
+            pending.add(new PendingLoad<>(keys, future));
+            pendingKeys.addAll(keys);
+            full = pendingKeys.size() >= maxKeys;
+        }
+        if (full) {
+            scheduler.execute(this::flush);
+        } else if (first) {
+            scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+    
+    private void flush() {
+        List<PendingLoad<K, V>> loads;
+        Set<K> keys;
+        synchronized (lock) {
+            // An early flush may already have taken this batch
+            if (pending.isEmpty()) {
+                return;
+            }
+            loads = pending;
+            keys = pendingKeys;
+            pending = new ArrayList<>();
+            pendingKeys = new HashSet<>();
+        }
+        
+        Map<K, V> loaded;
+        try {
+            loaded = batchLoader.apply(keys);
+        } catch (RuntimeException e) {
+            log.warn("Batch load of {} keys failed", keys.size(), e);
+            loads.forEach(load -> load.future().completeExceptionally(e));
+            return;
+        }
+        
+        log.debug("Loaded {} keys for {} coalesced callers", keys.size(), loads.size());
+        for (PendingLoad<K, V> load : loads) {
+            Map<K, V> result = new HashMap<>();
+            for (K key : load.keys()) {
+                V value = loaded.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            load.future().complete(result);
+        }
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+}
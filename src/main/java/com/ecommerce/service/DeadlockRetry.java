@@ -0,0 +1,41 @@
+package com.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a transactional service call again when MySQL picks it as a deadlock victim or its lock wait times out.
+ * InnoDB rolls back the whole transaction in that case, so only calls made outside a transaction are retried;
+ * inside one the failure propagates to the outermost caller. Audit records and change events are only
+ * emitted on commit, so a rolled-back attempt leaves nothing behind.
+ */
+@Component
+@Slf4j
+public class DeadlockRetry {
+    
+    static final int MAX_ATTEMPTS = 3;
+    
+    public <T> T call(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt == MAX_ATTEMPTS || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+                log.debug("Lock conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+            }
+        }
+    }
+    
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
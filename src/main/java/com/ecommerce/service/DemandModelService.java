@@ -0,0 +1,284 @@
+package com.ecommerce.service;
+
+import com.ecommerce.analytics.DemandEstimator;
+import com.ecommerce.config.ClusterProperties;
+import com.ecommerce.config.DemandProperties;
+import com.ecommerce.event.OrderCancelledEvent;
+import com.ecommerce.event.OrderConfirmedEvent;
+import com.ecommerce.event.WarehouseOwnershipChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives reorder level and quantity from smoothed daily demand per (product, warehouse).
+ * <p>
+ * Confirmed orders update an in-memory {@link DemandEstimator} in O(1) after commit, and cancelling a
+ * confirmed order takes its units back out of the open day. Changed estimators
+ * are flushed in batches to {@code inventory_demand}, together with the recomputed reorder parameters
+ * on {@code inventory}, so the order path never pays for it. {@link #backfill()} rebuilds every estimator
+ * from the daily sales rollups in a single streaming pass.
+ * <p>
+ * In cluster mode a node only holds the estimators of the warehouses it owns, loading them when it takes
+ * a warehouse over and writing them back before handing it off, so exactly one node updates each pair.
+ * Estimates of a warehouse whose lease was lost are dropped unwritten, since the new owner may already
+ * have loaded and updated them.
+ */
+@Service
+@Slf4j
+public class DemandModelService {
+    
+    private static final String LOAD_SQL =
+            "SELECT product_id, warehouse_id, mean, variance, observed_days, open_day, open_day_units FROM inventory_demand";
+    
+    private static final String LOAD_WAREHOUSE_SQL = LOAD_SQL + " WHERE warehouse_id = ?";
+    
+    // DAY rollups hold confirmed units net of cancellations, and outlive archived orders
+    private static final String HISTORY_SQL =
+            "SELECT product_id, warehouse_id, DATE(bucket_start), units FROM sales_rollups " +
+            "WHERE granularity = 'DAY' ORDER BY bucket_start";
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO inventory_demand (product_id, warehouse_id, mean, variance, observed_days, open_day, open_day_units, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE mean = VALUES(mean), variance = VALUES(variance), observed_days = VALUES(observed_days), " +
+            "open_day = VALUES(open_day), open_day_units = VALUES(open_day_units), updated_at = VALUES(updated_at)";
+    
+    private static final String REORDER_SQL =
+            "UPDATE inventory SET reorder_level = ?, reorder_quantity = ?, updated_at = ? " +
+            "WHERE product_id = ? AND warehouse_id = ? AND (reorder_level <> ? OR reorder_quantity <> ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DemandProperties properties;
+    private final boolean clustered;
+    private final double z;
+    
+    private final Map<DemandKey, DemandEstimator> estimators = new ConcurrentHashMap<>();
+    private final Set<DemandKey> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> ownedWarehouses = ConcurrentHashMap.newKeySet();
+    
+    public record DemandKey(long productId, long warehouseId) {}
+    
+    private record Snapshot(DemandKey key, double mean, double variance, int observedDays, long openDay,
+                            int openDayUnits, int reorderLevel, int reorderQuantity, boolean warm) {}
+    
+    public DemandModelService(JdbcTemplate jdbcTemplate, DemandProperties properties, ClusterProperties clusterProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clustered = clusterProperties.isEnabled();
+        this.z = DemandEstimator.zScore(properties.getServiceLevel());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        // Clustered nodes load per warehouse as they acquire ownership
+        if (!properties.isEnabled() || clustered) {
+            return;
+        }
+        jdbcTemplate.query(LOAD_SQL, this::load);
+        log.info("Loaded demand estimates for {} product/warehouse pairs", estimators.size());
+    }
+    
+    @EventListener
+    public void onOwnershipChanged(WarehouseOwnershipChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (event.acquired()) {
+            ownedWarehouses.add(event.warehouseId());
+            jdbcTemplate.query(LOAD_WAREHOUSE_SQL, this::load, event.warehouseId());
+        } else {
+            ownedWarehouses.remove(event.warehouseId());
+            if (event.leaseLost()) {
+                dirty.removeIf(key -> key.warehouseId() == event.warehouseId());
+            } else {
+                flush();
+            }
+            estimators.keySet().removeIf(key -> key.warehouseId() == event.warehouseId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderConfirmed(OrderConfirmedEvent event) {
+        if (!properties.isEnabled() || event.warehouseId() == null) {
+            return;
+        }
+        // Confirmed on a node that has just handed the warehouse off; the new owner's estimate stays authoritative
+        if (clustered && !ownedWarehouses.contains(event.warehouseId())) {
+            return;
+        }
+        long day = event.createdAt().toLocalDate().toEpochDay();
+        long today = LocalDate.now().toEpochDay();
+        event.unitsByProduct().forEach((productId, units) -> record(new DemandKey(productId, event.warehouseId()),
+                Math.min(day, today), today, units));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        if (!properties.isEnabled() || event.warehouseId() == null) {
+            return;
+        }
+        if (clustered && !ownedWarehouses.contains(event.warehouseId())) {
+            return;
+        }
+        long today = LocalDate.now().toEpochDay();
+        event.unitsByProduct().forEach((productId, units) -> {
+            DemandKey key = new DemandKey(productId, event.warehouseId());
+            DemandEstimator estimator = estimators.get(key);
+            if (estimator == null) {
+                return;
+            }
+            synchronized (estimator) {
+                estimator.cancel(today, units);
+            }
+            dirty.add(key);
+        });
+    }
+    
+    private void record(DemandKey key, long day, long openDayIfNew, int units) {
+        DemandEstimator estimator = estimators.computeIfAbsent(key,
+                k -> new DemandEstimator(properties.getSmoothing(), openDayIfNew));
+        synchronized (estimator) {
+            estimator.record(day, units);
+        }
+        dirty.add(key);
+    }
+    
+    /**
+     * Closes yesterday for every estimator, so products without sales decay towards zero demand.
+     */
+    @Scheduled(cron = "${ecommerce.demand.rollover-cron:0 5 0 * * *}")
+    public void rollover() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long today = LocalDate.now().toEpochDay();
+        estimators.forEach((key, estimator) -> {
+            synchronized (estimator) {
+                estimator.advanceTo(today);
+            }
+            dirty.add(key);
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.demand.flush-interval:60000}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        
+        List<Snapshot> batch = new ArrayList<>(properties.getFlushBatchSize());
+        for (DemandKey key : dirty) {
+            // Remove before reading so an update racing with this flush is written next time
+            dirty.remove(key);
+            DemandEstimator estimator = estimators.get(key);
+            if (estimator == null) {
+                continue;
+            }
+            batch.add(snapshot(key, estimator));
+            if (batch.size() == properties.getFlushBatchSize()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+    
+    /**
+     * Replaces every estimate with one replayed from the daily sales rollups, then writes them all.
+     * The rollups are read in day order as a stream, so memory is bounded by the number of pairs.
+     * In cluster mode only the warehouses this node owns are rebuilt.
+     */
+    public synchronized int backfill() {
+        long start = System.currentTimeMillis();
+        Map<DemandKey, DemandEstimator> rebuilt = new ConcurrentHashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(HISTORY_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams row by row only with this fetch size
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, rs -> {
+            DemandKey key = new DemandKey(rs.getLong(1), rs.getLong(2));
+            if (clustered && !ownedWarehouses.contains(key.warehouseId())) {
+                return;
+            }
+            long day = rs.getDate(3).toLocalDate().toEpochDay();
+            rebuilt.computeIfAbsent(key, k -> new DemandEstimator(properties.getSmoothing(), day))
+                    .record(day, rs.getInt(4));
+        });
+        
+        long today = LocalDate.now().toEpochDay();
+        rebuilt.values().forEach(estimator -> estimator.advanceTo(today));
+        
+        estimators.clear();
+        estimators.putAll(rebuilt);
+        dirty.addAll(rebuilt.keySet());
+        flush();
+        
+        log.info("Backfilled demand for {} product/warehouse pairs in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - start);
+        return rebuilt.size();
+    }
+    
+    private void load(ResultSet rs) throws SQLException {
+        DemandKey key = new DemandKey(rs.getLong(1), rs.getLong(2));
+        estimators.put(key, new DemandEstimator(properties.getSmoothing(), rs.getDouble(3), rs.getDouble(4),
+                rs.getInt(5), rs.getDate(6).toLocalDate().toEpochDay(), rs.getInt(7)));
+    }
+    
+    private Snapshot snapshot(DemandKey key, DemandEstimator estimator) {
+        double leadTimeDays = properties.getLeadTime().toHours() / 24.0;
+        synchronized (estimator) {
+            return new Snapshot(key, estimator.mean(), estimator.variance(), estimator.observedDays(),
+                    estimator.openDay(), estimator.openDayUnits(),
+                    estimator.reorderLevel(leadTimeDays, z),
+                    estimator.reorderQuantity(properties.getCoverDays(), properties.getMinReorderQuantity()),
+                    estimator.observedDays() >= properties.getMinObservedDays());
+        }
+    }
+    
+    private void write(List<Snapshot> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, snapshot) -> {
+            ps.setLong(1, snapshot.key().productId());
+            ps.setLong(2, snapshot.key().warehouseId());
+            ps.setDouble(3, snapshot.mean());
+            ps.setDouble(4, snapshot.variance());
+            ps.setInt(5, snapshot.observedDays());
+            ps.setDate(6, Date.valueOf(LocalDate.ofEpochDay(snapshot.openDay())));
+            ps.setInt(7, snapshot.openDayUnits());
+            ps.setTimestamp(8, now);
+        });
+        
+        List<Snapshot> warm = batch.stream().filter(Snapshot::warm).toList();
+        jdbcTemplate.batchUpdate(REORDER_SQL, warm, Math.max(1, warm.size()), (ps, snapshot) -> {
+            ps.setInt(1, snapshot.reorderLevel());
+            ps.setInt(2, snapshot.reorderQuantity());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, snapshot.key().productId());
+            ps.setLong(5, snapshot.key().warehouseId());
+            ps.setInt(6, snapshot.reorderLevel());
+            ps.setInt(7, snapshot.reorderQuantity());
+        });
+    }
+}
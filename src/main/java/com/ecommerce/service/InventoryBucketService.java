@@ -0,0 +1,247 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.InventoryBucket;
+import com.ecommerce.repository.InventoryBucketRepository;
+import com.ecommerce.repository.InventoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock operations for hot SKUs whose free stock is split across {@link InventoryBucket} rows.
+ * The parent inventory row keeps existing holds and absorbs stock added later; reservations
+ * and removals land on a random bucket first and fall back to the other buckets, the parent
+ * row and finally a locked rebalance that spreads all free stock evenly again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryBucketService {
+    
+    private final InventoryRepository inventoryRepository;
+    private final InventoryBucketRepository bucketRepository;
+    private final EntityManager entityManager;
+    
+    @Transactional
+    public void shard(Long inventoryId, int bucketCount) {
+        if (bucketCount < 0) {
+            throw new IllegalArgumentException("Bucket count must not be negative");
+        }
+        
+        List<InventoryBucket> existing = lockBuckets(inventoryId);
+        Inventory inventory = lockInventory(inventoryId);
+        
+        // Fold any existing buckets back into the parent row before re-splitting
+        for (InventoryBucket bucket : existing) {
+            inventory.setQuantity(inventory.getQuantity() + bucket.getQuantity());
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + bucket.getReservedQuantity());
+        }
+        bucketRepository.deleteByInventoryId(inventoryId);
+        
+        int free = inventory.getQuantity() - inventory.getReservedQuantity();
+        List<InventoryBucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(InventoryBucket.builder()
+                    .inventoryId(inventoryId)
+                    .bucketIndex(i)
+                    .quantity(share(free, bucketCount, i))
+                    .reservedQuantity(0)
+                    .build());
+        }
+        bucketRepository.saveAll(buckets);
+        
+        if (bucketCount > 0) {
+            inventory.setQuantity(inventory.getReservedQuantity());
+        }
+        inventory.setBucketCount(bucketCount);
+        inventoryRepository.save(inventory);
+        
+        log.info("Split inventory {} into {} buckets", inventoryId, bucketCount);
+    }
+    
+    @Transactional
+    public boolean reserveStock(Inventory inventory, int quantity) {
+        Long inventoryId = inventory.getId();
+        int buckets = inventory.getBucketCount();
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        
+        for (int i = 0; i < buckets; i++) {
+            if (bucketRepository.reserveStock(inventoryId, (start + i) % buckets, quantity) > 0) {
+                return true;
+            }
+        }
+        if (inventoryRepository.reserveStock(inventoryId, quantity) > 0) {
+            return true;
+        }
+        
+        return rebalance(inventoryId, quantity, true);
+    }
+    
+    @Transactional
+    public boolean removeStock(Inventory inventory, int quantity) {
+        Long inventoryId = inventory.getId();
+        int buckets = inventory.getBucketCount();
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        
+        for (int i = 0; i < buckets; i++) {
+            if (bucketRepository.removeStock(inventoryId, (start + i) % buckets, quantity) > 0) {
+                return true;
+            }
+        }
+        if (inventoryRepository.removeFreeStock(inventoryId, quantity) > 0) {
+            return true;
+        }
+        
+        return rebalance(inventoryId, quantity, false);
+    }
+    
+    @Transactional
+    public void releaseReservedStock(Inventory inventory, int quantity) {
+        Long inventoryId = inventory.getId();
+        int buckets = inventory.getBucketCount();
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        
+        for (int i = 0; i < buckets; i++) {
+            if (bucketRepository.releaseReservedStock(inventoryId, (start + i) % buckets, quantity) > 0) {
+                return;
+            }
+        }
+        if (inventoryRepository.releaseReservedStockIfHeld(inventoryId, quantity) > 0) {
+            return;
+        }
+        
+        applyAcrossRows(inventoryId, quantity, false);
+    }
+    
+    @Transactional
+    public void confirmReservation(Inventory inventory, int quantity) {
+        Long inventoryId = inventory.getId();
+        int buckets = inventory.getBucketCount();
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        
+        for (int i = 0; i < buckets; i++) {
+            if (bucketRepository.confirmReservedStock(inventoryId, (start + i) % buckets, quantity) > 0) {
+                return;
+            }
+        }
+        if (inventoryRepository.confirmReservedStock(inventoryId, quantity) > 0) {
+            return;
+        }
+        
+        applyAcrossRows(inventoryId, quantity, true);
+    }
+    
+    // Returned units go back into a bucket so they are picked up by the fast reservation path again
+    @Transactional
+    public void returnStock(Inventory inventory, int quantity) {
+        Long inventoryId = inventory.getId();
+        int bucket = ThreadLocalRandom.current().nextInt(inventory.getBucketCount());
+        
+        if (bucketRepository.addStock(inventoryId, bucket, quantity) == 0) {
+            inventoryRepository.addStock(inventoryId, quantity);
+        }
+    }
+    
+    // No single row can hold the request: reserve or remove across rows, then spread the remaining free stock evenly
+    private boolean rebalance(Long inventoryId, int quantity, boolean reserve) {
+        List<InventoryBucket> buckets = lockBuckets(inventoryId);
+        Inventory inventory = lockInventory(inventoryId);
+        
+        int free = inventory.getQuantity() - inventory.getReservedQuantity();
+        for (InventoryBucket bucket : buckets) {
+            free += bucket.getAvailableQuantity();
+        }
+        if (free < quantity || buckets.isEmpty()) {
+            return false;
+        }
+        
+        // Pool all free stock on the parent row, place the hold there or take the units out, and hand the rest back out
+        int pooled = inventory.getQuantity();
+        for (InventoryBucket bucket : buckets) {
+            pooled += bucket.getAvailableQuantity();
+            bucket.setQuantity(bucket.getReservedQuantity());
+        }
+        if (reserve) {
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
+        } else {
+            pooled -= quantity;
+        }
+        
+        int remainingFree = free - quantity;
+        for (int i = 0; i < buckets.size(); i++) {
+            InventoryBucket bucket = buckets.get(i);
+            int share = share(remainingFree, buckets.size(), i);
+            bucket.setQuantity(bucket.getQuantity() + share);
+            pooled -= share;
+        }
+        inventory.setQuantity(pooled);
+        
+        bucketRepository.saveAll(buckets);
+        inventoryRepository.save(inventory);
+        
+        log.debug("Rebalanced {} free units across {} buckets of inventory {}", remainingFree, buckets.size(), inventoryId);
+        return true;
+    }
+    
+    // Slow path for holds that ended up spread over several rows
+    private void applyAcrossRows(Long inventoryId, int quantity, boolean deductStock) {
+        List<InventoryBucket> buckets = lockBuckets(inventoryId);
+        Inventory inventory = lockInventory(inventoryId);
+        
+        int remaining = quantity;
+        int fromParent = Math.min(remaining, inventory.getReservedQuantity());
+        inventory.setReservedQuantity(inventory.getReservedQuantity() - fromParent);
+        if (deductStock) {
+            inventory.setQuantity(inventory.getQuantity() - fromParent);
+        }
+        remaining -= fromParent;
+        
+        for (InventoryBucket bucket : buckets) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(remaining, bucket.getReservedQuantity());
+            bucket.setReservedQuantity(bucket.getReservedQuantity() - taken);
+            if (deductStock) {
+                bucket.setQuantity(bucket.getQuantity() - taken);
+            }
+            remaining -= taken;
+        }
+        
+        if (remaining > 0) {
+            throw new RuntimeException("Reserved stock for inventory " + inventoryId + " is lower than " + quantity);
+        }
+        bucketRepository.saveAll(buckets);
+        inventoryRepository.save(inventory);
+    }
+    
+    // The locked paths take buckets by index, then the parent row, the same direction as the fast paths.
+    // Fast paths still visit buckets from a random start and keep the locks of failed conditional updates
+    // under REPEATABLE READ, so deadlocks stay possible; callers retry them through DeadlockRetry.
+    // Rows may already sit in the persistence context with values from before the bulk updates above,
+    // so they are re-read under lock.
+    private Inventory lockInventory(Long inventoryId) {
+        Inventory inventory = inventoryRepository.findForUpdate(inventoryId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found"));
+        entityManager.refresh(inventory, LockModeType.PESSIMISTIC_WRITE);
+        return inventory;
+    }
+    
+    private List<InventoryBucket> lockBuckets(Long inventoryId) {
+        List<InventoryBucket> buckets = bucketRepository.findForUpdate(inventoryId);
+        buckets.forEach(bucket -> entityManager.refresh(bucket, LockModeType.PESSIMISTIC_WRITE));
+        return buckets;
+    }
+    
+    private static int share(int total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+}
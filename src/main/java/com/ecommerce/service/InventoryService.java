@@ -1,5 +1,9 @@
 package com.ecommerce.service;
 
+import com.ecommerce.audit.AuditEventType;
+import com.ecommerce.audit.AuditJournal;
+import com.ecommerce.config.DemandProperties;
+import com.ecommerce.event.InventoryChangedEvent;
 import com.ecommerce.model.Inventory;
 import com.ecommerce.model.Product;
 import com.ecommerce.model.Warehouse;
@@ -8,6 +12,7 @@ import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +27,10 @@ public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
+    private final InventoryBucketService inventoryBucketService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditJournal auditJournal;
+    private final DemandProperties demandProperties;
     
     @Transactional(readOnly = true)
     public Inventory getInventory(Long productId, Long warehouseId) {
@@ -55,13 +64,16 @@ public class InventoryService {
         inventory.setWarehouse(warehouse);
         inventory.setQuantity(initialQuantity);
         inventory.setReservedQuantity(0);
-        inventory.setReorderLevel(10);  // Default reorder level
-        inventory.setReorderQuantity(20); // Default reorder quantity
+        // Starting values until DemandModelService has observed enough sales to derive them
+        inventory.setReorderLevel(demandProperties.getDefaultReorderLevel());
+        inventory.setReorderQuantity(demandProperties.getDefaultReorderQuantity());
         inventory.setCreatedAt(LocalDateTime.now());
         inventory.setUpdatedAt(LocalDateTime.now());
         
         Inventory saved = inventoryRepository.save(inventory);
-        log.info("Created inventory for product {} in warehouse {} with quantity {}", 
+        eventPublisher.publishEvent(new InventoryChangedEvent(saved.getId()));
+        auditJournal.inventory(AuditEventType.INVENTORY_CREATED, saved.getId(), productId, warehouseId, initialQuantity);
+        log.debug("Created inventory for product {} in warehouse {} with quantity {}", 
                 productId, warehouseId, initialQuantity);
         
         return saved;
@@ -73,8 +85,12 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity must be positive");
         }
         
+        Inventory inventory = findInventory(inventoryId);
         inventoryRepository.addStock(inventoryId, quantity);
-        log.info("Added {} units to inventory {}", quantity, inventoryId);
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventoryId));
+        auditJournal.inventory(AuditEventType.STOCK_ADDED, inventoryId,
+                inventory.getProduct().getId(), inventory.getWarehouse().getId(), quantity);
+        log.debug("Added {} units to inventory {}", quantity, inventoryId);
     }
     
     @Transactional
@@ -83,12 +99,18 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity must be positive");
         }
         
-        int updated = inventoryRepository.removeStock(inventoryId, quantity);
-        if (updated == 0) {
+        Inventory inventory = findInventory(inventoryId);
+        boolean removed = inventory.isSharded()
+                ? inventoryBucketService.removeStock(inventory, quantity)
+                : inventoryRepository.removeStock(inventoryId, quantity) > 0;
+        if (!removed) {
             throw new RuntimeException("Insufficient stock or inventory not found");
         }
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventoryId));
+        auditJournal.inventory(AuditEventType.STOCK_REMOVED, inventoryId,
+                inventory.getProduct().getId(), inventory.getWarehouse().getId(), quantity);
         
-        log.info("Removed {} units from inventory {}", quantity, inventoryId);
+        log.debug("Removed {} units from inventory {}", quantity, inventoryId);
     }
     
     @Transactional
@@ -100,9 +122,13 @@ public class InventoryService {
             return false;
         }
         
-        int updated = inventoryRepository.reserveStock(inventory.getId(), quantity);
-        if (updated > 0) {
-            log.info("Reserved {} units for product {} in warehouse {}", quantity, productId, warehouseId);
+        boolean reserved = inventory.isSharded()
+                ? inventoryBucketService.reserveStock(inventory, quantity)
+                : inventoryRepository.reserveStock(inventory.getId(), quantity) > 0;
+        if (reserved) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(inventory.getId()));
+            auditJournal.inventory(AuditEventType.STOCK_RESERVED, inventory.getId(), productId, warehouseId, quantity);
+            log.debug("Reserved {} units for product {} in warehouse {}", quantity, productId, warehouseId);
             return true;
         }
         
@@ -112,24 +138,63 @@ public class InventoryService {
     @Transactional
     public void releaseReservedStock(Long productId, Long warehouseId, Integer quantity) {
         Inventory inventory = getInventory(productId, warehouseId);
-        inventoryRepository.releaseReservedStock(inventory.getId(), quantity);
-        log.info("Released {} reserved units for product {} in warehouse {}", quantity, productId, warehouseId);
+        if (inventory.isSharded()) {
+            inventoryBucketService.releaseReservedStock(inventory, quantity);
+        } else {
+            inventoryRepository.releaseReservedStock(inventory.getId(), quantity);
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventory.getId()));
+        auditJournal.inventory(AuditEventType.RESERVATION_RELEASED, inventory.getId(), productId, warehouseId, quantity);
+        log.debug("Released {} reserved units for product {} in warehouse {}", quantity, productId, warehouseId);
     }
     
     @Transactional
     public void confirmReservation(Long productId, Long warehouseId, Integer quantity) {
         Inventory inventory = getInventory(productId, warehouseId);
         
-        // Remove from both total quantity and reserved quantity
-        inventoryRepository.removeStock(inventory.getId(), quantity);
-        inventoryRepository.releaseReservedStock(inventory.getId(), quantity);
+        // Remove from both total quantity and reserved quantity in a single update
+        if (inventory.isSharded()) {
+            inventoryBucketService.confirmReservation(inventory, quantity);
+        } else if (inventoryRepository.confirmReservedStock(inventory.getId(), quantity) == 0) {
+            throw new RuntimeException("Insufficient reserved stock for product " + productId + " in warehouse " + warehouseId);
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventory.getId()));
+        auditJournal.inventory(AuditEventType.RESERVATION_CONFIRMED, inventory.getId(), productId, warehouseId, quantity);
         
-        log.info("Confirmed reservation and removed {} units for product {} in warehouse {}", 
+        log.debug("Confirmed reservation and removed {} units for product {} in warehouse {}", 
                 quantity, productId, warehouseId);
     }
     
+    @Transactional
+    public void returnStock(Long productId, Long warehouseId, Integer quantity) {
+        Inventory inventory = getInventory(productId, warehouseId);
+        if (inventory.isSharded()) {
+            inventoryBucketService.returnStock(inventory, quantity);
+        } else {
+            inventoryRepository.addStock(inventory.getId(), quantity);
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventory.getId()));
+        auditJournal.inventory(AuditEventType.STOCK_RETURNED, inventory.getId(), productId, warehouseId, quantity);
+        log.debug("Returned {} units for product {} to warehouse {}", quantity, productId, warehouseId);
+    }
+    
+    @Transactional
+    public void shardInventory(Long inventoryId, Integer bucketCount) {
+        Inventory inventory = findInventory(inventoryId);
+        inventoryBucketService.shard(inventoryId, bucketCount);
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventoryId));
+        auditJournal.inventory(AuditEventType.INVENTORY_SHARDED, inventoryId,
+                inventory.getProduct().getId(), inventory.getWarehouse().getId(), bucketCount);
+    }
+    
     @Transactional(readOnly = true)
     public List<Inventory> getItemsNeedingReorder() {
         return inventoryRepository.findItemsNeedingReorder();
     }
+    
+    // Product and warehouse ids for the audit journal; reading them off the lazy associations needs no extra query
+    private Inventory findInventory(Long inventoryId) {
+        return inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.ecommerce.service;
+
+import com.ecommerce.analytics.InventoryColumns;
+import com.ecommerce.config.SnapshotProperties;
+import com.ecommerce.dto.InventoryRow;
+import com.ecommerce.dto.WarehouseStockSummary;
+import com.ecommerce.event.InventoryChangedEvent;
+import com.ecommerce.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps an in-process columnar copy of the inventory table for dashboard aggregates.
+ * Changed rows are collected after commit and reloaded in batches; a periodic full
+ * rebuild picks up price changes and anything missed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventorySnapshotService {
+    
+    private static final int RELOAD_BATCH = 500;
+    
+    private final InventoryRepository inventoryRepository;
+    private final SnapshotProperties properties;
+    
+    private final Set<Long> dirtyInventoryIds = ConcurrentHashMap.newKeySet();
+    private volatile InventoryColumns columns;
+    // The copy replaced by the last rebuild; refilled by the next one instead of allocating new direct buffers
+    private InventoryColumns spare;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (properties.isEnabled()) {
+            dirtyInventoryIds.add(event.inventoryId());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.snapshot.refresh-interval:500}")
+    public synchronized void applyChanges() {
+        InventoryColumns current = columns;
+        if (current == null || dirtyInventoryIds.isEmpty()) {
+            return;
+        }
+        
+        List<Long> batch = new ArrayList<>(RELOAD_BATCH);
+        for (Long id : dirtyInventoryIds) {
+            // Remove before reloading so a change racing with this refresh is picked up next time
+            dirtyInventoryIds.remove(id);
+            batch.add(id);
+            if (batch.size() == RELOAD_BATCH) {
+                reload(current, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            reload(current, batch);
+        }
+    }
+    
+    @Scheduled(cron = "${ecommerce.snapshot.rebuild-cron:0 */15 * * * *}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        InventoryColumns fresh = spare;
+        if (fresh == null) {
+            fresh = new InventoryColumns(properties.getInitialCapacity());
+        } else {
+            // Scans of the previous copy take milliseconds, and it was retired a full rebuild interval ago
+            fresh.clear();
+        }
+        long afterId = 0;
+        while (true) {
+            List<InventoryRow> page = inventoryRepository.findRowsAfter(afterId,
+                    PageRequest.of(0, properties.getLoadPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(fresh::upsert);
+            afterId = page.get(page.size() - 1).getInventoryId();
+        }
+        spare = columns;
+        columns = fresh;
+        
+        log.info("Rebuilt inventory snapshot with {} rows in {} ms",
+                fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    public List<WarehouseStockSummary> getWarehouseSummaries() {
+        InventoryColumns current = columns;
+        if (current == null) {
+            throw new RuntimeException("Inventory snapshot is not available");
+        }
+        
+        InventoryColumns.WarehouseAggregate aggregate = current.aggregateByWarehouse();
+        List<WarehouseStockSummary> summaries = new ArrayList<>(aggregate.warehouses());
+        for (int w = 0; w < aggregate.warehouses(); w++) {
+            long onHand = aggregate.onHand()[w];
+            long reserved = aggregate.reserved()[w];
+            summaries.add(new WarehouseStockSummary(
+                    current.warehouseId(w),
+                    aggregate.rows()[w],
+                    onHand,
+                    reserved,
+                    aggregate.lowStock()[w],
+                    BigDecimal.valueOf(aggregate.valueCents()[w], 2),
+                    onHand == 0 ? 0.0 : (double) reserved / onHand));
+        }
+        return summaries;
+    }
+    
+    private void reload(InventoryColumns target, List<Long> ids) {
+        inventoryRepository.findRowsByIdIn(ids).forEach(target::upsert);
+    }
+}
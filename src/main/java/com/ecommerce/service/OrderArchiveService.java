@@ -0,0 +1,259 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.ArchiveProperties;
+import com.ecommerce.dto.OrderDocument;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderArchiveBatch;
+import com.ecommerce.model.OrderArchiveEntry;
+import com.ecommerce.repository.OrderArchiveBatchRepository;
+import com.ecommerce.repository.OrderArchiveEntryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.storage.ArchiveStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Slf4j
+public class OrderArchiveService {
+    
+    static final Set<Order.OrderStatus> TERMINAL_STATUSES = EnumSet.of(
+            Order.OrderStatus.SHIPPED,
+            Order.OrderStatus.DELIVERED,
+            Order.OrderStatus.CANCELLED);
+    
+    private static final byte NEWLINE = '\n';
+    
+    private final OrderRepository orderRepository;
+    private final OrderArchiveBatchRepository batchRepository;
+    private final OrderArchiveEntryRepository entryRepository;
+    private final OrderViewService orderViewService;
+    private final ArchiveStore archiveStore;
+    private final ArchiveProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    
+    public OrderArchiveService(OrderRepository orderRepository,
+                               OrderArchiveBatchRepository batchRepository,
+                               OrderArchiveEntryRepository entryRepository,
+                               OrderViewService orderViewService,
+                               ArchiveStore archiveStore,
+                               ArchiveProperties properties,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.batchRepository = batchRepository;
+        this.entryRepository = entryRepository;
+        this.orderViewService = orderViewService;
+        this.archiveStore = archiveStore;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(cron = "${ecommerce.archive.cron:0 0 3 * * *}")
+    public void scheduledArchive() {
+        if (properties.isEnabled()) {
+            archiveCompletedOrders();
+        }
+    }
+    
+    /**
+     * Moves terminal-state orders older than the configured age into archive batches.
+     *
+     * @return number of orders archived
+     */
+    public int archiveCompletedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getMinAge());
+        int archived = 0;
+        
+        while (true) {
+            List<Long> ids = orderRepository.findArchivableOrderIds(
+                    TERMINAL_STATUSES, cutoff, PageRequest.of(0, properties.getBatchSize()));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int count = archiveBatch(ids);
+            if (count == 0) {
+                // The whole page was archived or deleted concurrently; leave the rest to the next run
+                break;
+            }
+            archived += count;
+        }
+        
+        log.info("Archived {} orders older than {}", archived, cutoff);
+        return archived;
+    }
+    
+    private int archiveBatch(List<Long> ids) {
+        List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<OrderDocument> documents = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            documents.add(OrderDocument.from(order));
+        }
+        
+        byte[] payload = encode(documents);
+        long minId = documents.get(0).getId();
+        long maxId = documents.get(documents.size() - 1).getId();
+        LocalDateTime maxCreatedAt = newestCreatedAt(documents);
+        String key = String.format("orders/%s/batch-%d-%d.ndjson.gz", LocalDate.now(), minId, maxId);
+        
+        // Upload before touching the database; an orphaned object is harmless, a lost order is not
+        try {
+            archiveStore.put(key, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to upload archive batch " + key, e);
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            OrderArchiveBatch batch = batchRepository.save(OrderArchiveBatch.builder()
+                    .objectKey(key)
+                    .orderCount(documents.size())
+                    .minOrderId(minId)
+                    .maxOrderId(maxId)
+                    .maxCreatedAt(maxCreatedAt)
+                    .sizeBytes((long) payload.length)
+                    .build());
+            
+            List<OrderArchiveEntry> entries = new ArrayList<>(documents.size());
+            List<Long> archivedIds = new ArrayList<>(documents.size());
+            for (int i = 0; i < documents.size(); i++) {
+                Long orderId = documents.get(i).getId();
+                entries.add(OrderArchiveEntry.builder()
+                        .orderId(orderId)
+                        .batchId(batch.getId())
+                        .position(i)
+                        .build());
+                archivedIds.add(orderId);
+            }
+            entryRepository.saveAll(entries);
+            
+            orderRepository.deleteItemsByOrderIdIn(archivedIds);
+            orderRepository.deleteByIdIn(archivedIds);
+            // Archived orders are served from the archive document instead
+            orderViewService.delete(archivedIds);
+        });
+        
+        log.debug("Archived {} orders ({}..{}) to {}", documents.size(), minId, maxId, key);
+        return documents.size();
+    }
+    
+    public Optional<Order> findArchivedOrder(Long orderId) {
+        return entryRepository.findById(orderId)
+                .flatMap(entry -> batchRepository.findById(entry.getBatchId())
+                        .map(batch -> readDocument(batch.getObjectKey(), entry.getPosition())))
+                .map(OrderDocument::toOrder);
+    }
+    
+    /**
+     * Start of the earliest day from which every order is still in the live tables and will stay there
+     * for at least another day: after the newest archived order and, while archiving runs, newer than
+     * the archive's minimum age. Empty when nothing is archived or archivable. Batches archived before
+     * their newest order was recorded are read back once to fill it in.
+     */
+    public Optional<LocalDateTime> liveHistoryStart() {
+        for (OrderArchiveBatch batch : batchRepository.findByMaxCreatedAtIsNull()) {
+            batch.setMaxCreatedAt(newestCreatedAt(readDocuments(batch.getObjectKey())));
+            batchRepository.save(batch);
+        }
+        
+        LocalDateTime start = null;
+        LocalDateTime newestArchived = batchRepository.findNewestCreatedAt();
+        if (newestArchived != null) {
+            start = newestArchived.toLocalDate().plusDays(1).atStartOfDay();
+        }
+        if (properties.isEnabled()) {
+            LocalDateTime archivable = LocalDateTime.now().minus(properties.getMinAge()).toLocalDate().plusDays(1).atStartOfDay();
+            if (start == null || archivable.isAfter(start)) {
+                start = archivable;
+            }
+        }
+        return Optional.ofNullable(start);
+    }
+    
+    private static LocalDateTime newestCreatedAt(List<OrderDocument> documents) {
+        return documents.stream()
+                .map(OrderDocument::getCreatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(LocalDateTime.now());
+    }
+    
+    private List<OrderDocument> readDocuments(String key) {
+        try (BufferedReader reader = open(key)) {
+            List<OrderDocument> documents = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                documents.add(objectMapper.readValue(line, OrderDocument.class));
+            }
+            return documents;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive batch " + key, e);
+        }
+    }
+    
+    private OrderDocument readDocument(String key, int position) {
+        try (BufferedReader reader = open(key)) {
+            String line = null;
+            for (int i = 0; i <= position; i++) {
+                line = reader.readLine();
+                if (line == null) {
+                    throw new RuntimeException("Archive batch " + key + " has no record at position " + position);
+                }
+            }
+            return objectMapper.readValue(line, OrderDocument.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive batch " + key, e);
+        }
+    }
+    
+    private BufferedReader open(String key) throws IOException {
+        InputStream in = archiveStore.get(key);
+        try {
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(in), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+    
+    private byte[] encode(List<OrderDocument> documents) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            for (OrderDocument document : documents) {
+                out.write(objectMapper.writeValueAsBytes(document));
+                out.write(NEWLINE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode archive batch", e);
+        }
+        return buffer.toByteArray();
+    }
+}
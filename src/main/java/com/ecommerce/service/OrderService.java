@@ -1,16 +1,23 @@
 package com.ecommerce.service;
 
+import com.ecommerce.audit.AuditEventType;
+import com.ecommerce.audit.AuditJournal;
 import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.event.OrderCancelledEvent;
+import com.ecommerce.event.OrderConfirmedEvent;
 import com.ecommerce.model.*;
 import com.ecommerce.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -20,12 +27,17 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
-    private final InventoryRepository inventoryRepository;
     private final WarehouseRepository warehouseRepository;
+    private final InventoryService inventoryService;
+    private final OrderArchiveService orderArchiveService;
+    private final SalesRollupService salesRollupService;
+    private final OrderViewService orderViewService;
+    private final AuditJournal auditJournal;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public Order createOrder(CreateOrderRequest request) {
-        log.info("Creating order for customer: {}", request.getCustomerEmail());
+        log.debug("Creating order for customer: {}", request.getCustomerEmail());
         
         // Validate warehouse exists
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
@@ -46,19 +58,11 @@ public class OrderService {
             Product product = productRepository.findById(itemRequest.getProductId())
                     .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
             
-            // Check and reserve inventory
-            Inventory inventory = inventoryRepository
-                    .findByProductIdAndWarehouseId(itemRequest.getProductId(), request.getWarehouseId())
-                    .orElseThrow(() -> new RuntimeException("No inventory found for product in warehouse"));
-            
-            if (inventory.getAvailableQuantity() < itemRequest.getQuantity()) {
+            // Check and reserve inventory with an atomic update (spread over buckets for hot SKUs)
+            if (!inventoryService.reserveStock(itemRequest.getProductId(), request.getWarehouseId(), itemRequest.getQuantity())) {
                 throw new RuntimeException("Insufficient inventory for product: " + product.getName());
             }
             
-            // Reserve inventory
-            inventory.setReservedQuantity(inventory.getReservedQuantity() + itemRequest.getQuantity());
-            inventoryRepository.save(inventory);
-            
             // Create order item
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -73,13 +77,31 @@ public class OrderService {
         
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderRepository.save(order);
+        orderViewService.render(savedOrder);
+        auditJournal.order(AuditEventType.ORDER_CREATED, savedOrder);
         
-        log.info("Created order {} with total amount: {}", savedOrder.getOrderNumber(), totalAmount);
+        log.debug("Created order {} with total amount: {}", savedOrder.getOrderNumber(), totalAmount);
         return savedOrder;
     }
     
     public Order getOrder(Long id) {
-        return orderRepository.findById(id)
+        // Items, their products and the warehouse are all serialized, so fetch them in one query
+        return orderRepository.findWithItemsById(id)
+                .or(() -> orderArchiveService.findArchivedOrder(id))
+                .orElseThrow(() -> new RuntimeException("Order not found: " + id));
+    }
+    
+    // For reads that found the document missing or rendered before a product or warehouse edit
+    @Transactional
+    public Order renderOrder(Long id) {
+        Order order = loadOrder(id);
+        orderViewService.render(order);
+        return order;
+    }
+    
+    // Mutations only ever operate on live orders; archived orders are terminal and read-only
+    private Order loadOrder(Long id) {
+        return orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + id));
     }
     
@@ -89,90 +111,110 @@ public class OrderService {
     
     @Transactional
     public Order confirmOrder(Long orderId) {
-        Order order = getOrder(orderId);
+        Order order = loadOrder(orderId);
         
         if (order.getStatus() != Order.OrderStatus.PENDING) {
             throw new RuntimeException("Order is not in PENDING status");
         }
         
-        // Confirm all reserved inventory
+        // Deduct all reserved inventory from actual quantity and reserved quantity
+        Map<Long, Integer> unitsByProduct = new HashMap<>();
+        Map<Long, String> categoryByProduct = new HashMap<>();
         for (OrderItem item : order.getItems()) {
-            Inventory inventory = inventoryRepository
-                    .findByProductIdAndWarehouseId(item.getProduct().getId(), order.getWarehouse().getId())
-                    .orElseThrow(() -> new RuntimeException("Inventory not found"));
-            
-            // Deduct from actual quantity and reserved quantity
-            inventory.setQuantity(inventory.getQuantity() - item.getQuantity());
-            inventory.setReservedQuantity(inventory.getReservedQuantity() - item.getQuantity());
-            inventoryRepository.save(inventory);
+            inventoryService.confirmReservation(item.getProduct().getId(), order.getWarehouse().getId(), item.getQuantity());
+            unitsByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            categoryByProduct.put(item.getProduct().getId(), item.getProduct().getCategory());
         }
         
         order.setStatus(Order.OrderStatus.CONFIRMED);
-        Order saved = orderRepository.save(order);
-        
-        log.info("Confirmed order: {}", order.getOrderNumber());
+        // Flush so @PreUpdate has stamped updatedAt before the document and its ETag are rendered
+        Order saved = orderRepository.saveAndFlush(order);
+        orderViewService.render(saved);
+        salesRollupService.recordOrder(saved, 1);
+        auditJournal.order(AuditEventType.ORDER_CONFIRMED, saved);
+        eventPublisher.publishEvent(new OrderConfirmedEvent(order.getWarehouse().getId(), order.getCreatedAt(),
+                unitsByProduct, categoryByProduct));
+        
+        log.debug("Confirmed order: {}", order.getOrderNumber());
         return saved;
     }
     
     @Transactional
     public Order processOrder(Long orderId) {
-        Order order = getOrder(orderId);
+        Order order = loadOrder(orderId);
         
         if (order.getStatus() != Order.OrderStatus.CONFIRMED) {
             throw new RuntimeException("Order must be CONFIRMED before processing");
         }
         
         order.setStatus(Order.OrderStatus.PROCESSING);
-        Order saved = orderRepository.save(order);
+        Order saved = orderRepository.saveAndFlush(order);
+        orderViewService.render(saved);
+        auditJournal.order(AuditEventType.ORDER_PROCESSING, saved);
         
-        log.info("Processing order: {}", order.getOrderNumber());
+        log.debug("Processing order: {}", order.getOrderNumber());
         return saved;
     }
     
     @Transactional
     public Order shipOrder(Long orderId) {
-        Order order = getOrder(orderId);
+        Order order = loadOrder(orderId);
         
         if (order.getStatus() != Order.OrderStatus.PROCESSING) {
             throw new RuntimeException("Order must be PROCESSING before shipping");
         }
         
         order.setStatus(Order.OrderStatus.SHIPPED);
-        Order saved = orderRepository.save(order);
+        Order saved = orderRepository.saveAndFlush(order);
+        orderViewService.render(saved);
+        auditJournal.order(AuditEventType.ORDER_SHIPPED, saved);
         
-        log.info("Shipped order: {}", order.getOrderNumber());
+        log.debug("Shipped order: {}", order.getOrderNumber());
         return saved;
     }
     
     @Transactional
     public Order cancelOrder(Long orderId) {
-        Order order = getOrder(orderId);
+        Order order = loadOrder(orderId);
         
         if (order.getStatus() == Order.OrderStatus.SHIPPED) {
             throw new RuntimeException("Cannot cancel shipped order");
         }
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            throw new RuntimeException("Order is already cancelled");
+        }
         
-        // Release all reserved inventory
         for (OrderItem item : order.getItems()) {
-            Inventory inventory = inventoryRepository
-                    .findByProductIdAndWarehouseId(item.getProduct().getId(), order.getWarehouse().getId())
-                    .orElseThrow(() -> new RuntimeException("Inventory not found"));
-            
-            inventory.setReservedQuantity(inventory.getReservedQuantity() - item.getQuantity());
+            Long productId = item.getProduct().getId();
+            Long warehouseId = order.getWarehouse().getId();
             
-            // If order was confirmed, add back to quantity
+            // Confirmed orders already consumed their reservation, so add the units back to quantity;
+            // pending orders only release their hold
             if (order.getStatus() == Order.OrderStatus.CONFIRMED || 
                 order.getStatus() == Order.OrderStatus.PROCESSING) {
-                inventory.setQuantity(inventory.getQuantity() + item.getQuantity());
+                inventoryService.returnStock(productId, warehouseId, item.getQuantity());
+            } else {
+                inventoryService.releaseReservedStock(productId, warehouseId, item.getQuantity());
             }
-            
-            inventoryRepository.save(inventory);
+        }
+        
+        // Confirmed sales were counted in the rollups and the demand estimates; take them back out
+        if (order.getStatus() == Order.OrderStatus.CONFIRMED ||
+            order.getStatus() == Order.OrderStatus.PROCESSING) {
+            salesRollupService.recordOrder(order, -1);
+            Map<Long, Integer> unitsByProduct = new HashMap<>();
+            for (OrderItem item : order.getItems()) {
+                unitsByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+            eventPublisher.publishEvent(new OrderCancelledEvent(order.getWarehouse().getId(), unitsByProduct));
         }
         
         order.setStatus(Order.OrderStatus.CANCELLED);
-        Order saved = orderRepository.save(order);
+        Order saved = orderRepository.saveAndFlush(order);
+        orderViewService.render(saved);
+        auditJournal.order(AuditEventType.ORDER_CANCELLED, saved);
         
-        log.info("Cancelled order: {}", order.getOrderNumber());
+        log.debug("Cancelled order: {}", order.getOrderNumber());
         return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.web.EntityVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the JSON detail document of every live order in {@code order_views}. Documents are rendered
+ * inside the writing transaction, so the order row and its document always commit together, and
+ * reads become a single query with no entity loading or serialization.
+ * <p>
+ * Documents embed product and warehouse details. The read compares the stored tag with the version of
+ * the order, its warehouse and its products as they are now, so a document rendered before a later
+ * catalog edit is never served; the caller renders it again instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderViewService {
+    
+    // Same inputs as versionOf: the order, its warehouse and its newest product, read next to the document
+    private static final String FIND_SQL =
+            "SELECT v.body, v.etag, o.updated_at, w.updated_at, " +
+            "(SELECT MAX(p.updated_at) FROM order_items oi JOIN products p ON p.id = oi.product_id WHERE oi.order_id = o.id) " +
+            "FROM orders o LEFT JOIN warehouses w ON w.id = o.warehouse_id " +
+            "LEFT JOIN order_views v ON v.order_id = o.id WHERE o.id = ?";
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO order_views (order_id, body, etag, last_modified, updated_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE body = VALUES(body), etag = VALUES(etag), " +
+            "last_modified = VALUES(last_modified), updated_at = VALUES(updated_at)";
+    
+    private static final String DELETE_SQL = "DELETE FROM order_views WHERE order_id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Current version of a live order and its document; {@code body} is null when the order has no
+     * document or it was rendered from an older version.
+     */
+    public record LiveOrder(EntityVersion version, byte[] body) {}
+    
+    /**
+     * Serializes the order with the application's JSON mapper, so the stored bytes are exactly what the
+     * endpoint would have produced. The order must have its items, products and warehouse loaded and
+     * its {@code updatedAt} flushed.
+     */
+    public void render(Order order) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to render order " + order.getId(), e);
+        }
+        EntityVersion version = versionOf(order);
+        jdbcTemplate.update(UPSERT_SQL, order.getId(), body, version.etag(), version.lastModified(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+    
+    // Empty for archived and unknown orders
+    public Optional<LiveOrder> find(Long orderId) {
+        List<LiveOrder> rows = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> {
+            EntityVersion version = EntityVersion.of("order", orderId, rs.getObject(3, LocalDateTime.class),
+                    rs.getObject(4, LocalDateTime.class), rs.getObject(5, LocalDateTime.class));
+            byte[] body = version.etag().equals(rs.getString(2)) ? rs.getBytes(1) : null;
+            return new LiveOrder(version, body);
+        }, orderId);
+        return rows.stream().findFirst();
+    }
+    
+    public void delete(List<Long> orderIds) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, orderIds, orderIds.size(), (ps, orderId) -> ps.setLong(1, orderId));
+    }
+    
+    // Same inputs as the version lookup on the live path: the order, its warehouse and its newest product
+    public static EntityVersion versionOf(Order order) {
+        List<LocalDateTime> timestamps = new ArrayList<>();
+        timestamps.add(order.getUpdatedAt());
+        if (order.getWarehouse() != null) {
+            timestamps.add(order.getWarehouse().getUpdatedAt());
+        }
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() != null) {
+                timestamps.add(item.getProduct().getUpdatedAt());
+            }
+        }
+        return EntityVersion.of("order", order.getId(), timestamps.toArray(LocalDateTime[]::new));
+    }
+}
@@ -0,0 +1,217 @@
+package com.ecommerce.service;
+
+import com.ecommerce.audit.AuditEventType;
+import com.ecommerce.audit.AuditJournal;
+import com.ecommerce.config.ReconciliationProperties;
+import com.ecommerce.dto.ReconciliationResult;
+import com.ecommerce.event.InventoryChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Recomputes reserved quantities from open order holds and repairs drifted inventory rows.
+ * <p>
+ * Only PENDING orders hold stock: confirming an order takes its units out of both quantity and
+ * reservedQuantity. Work is split by warehouse and product id range and run on a fork-join pool; each
+ * partition reads holds and inventory in one consistent snapshot without locking, and repairs are
+ * compare-and-set updates against the reserved quantity seen in that snapshot, so a row touched by a
+ * live order in the meantime is left for the next run.
+ */
+@Service
+@Slf4j
+public class ReservationReconciliationService {
+    
+    private static final String HOLDS_SQL =
+            "SELECT oi.product_id, SUM(oi.quantity) FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "WHERE o.status = 'PENDING' AND o.warehouse_id = ? AND oi.product_id BETWEEN ? AND ? " +
+            "GROUP BY oi.product_id";
+    
+    private static final String INVENTORY_SQL =
+            "SELECT i.id, i.product_id, i.reserved_quantity, i.bucket_count, " +
+            "(SELECT COALESCE(SUM(b.reserved_quantity), 0) FROM inventory_buckets b WHERE b.inventory_id = i.id) " +
+            "FROM inventory i WHERE i.warehouse_id = ? AND i.product_id BETWEEN ? AND ?";
+    
+    private static final String REPAIR_SQL =
+            "UPDATE inventory SET reserved_quantity = ?, updated_at = ? " +
+            "WHERE id = ? AND reserved_quantity = ? AND bucket_count = 0";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ReconciliationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditJournal auditJournal;
+    private final TransactionTemplate snapshotTemplate;
+    
+    private record Repair(long inventoryId, long productId, long warehouseId, int observed, int expected) {}
+    
+    public ReservationReconciliationService(JdbcTemplate jdbcTemplate,
+                                            ReconciliationProperties properties,
+                                            ApplicationEventPublisher eventPublisher,
+                                            AuditJournal auditJournal,
+                                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.auditJournal = auditJournal;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+    
+    @Scheduled(cron = "${ecommerce.reconciliation.cron:0 30 2 * * *}")
+    public void scheduledReconcile() {
+        if (properties.isEnabled()) {
+            reconcile(properties.isRepair());
+        }
+    }
+    
+    public synchronized ReconciliationResult reconcile(boolean repair) {
+        long start = System.currentTimeMillis();
+        List<Long> warehouseIds = jdbcTemplate.queryForList("SELECT id FROM warehouses ORDER BY id", Long.class);
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM products");
+        
+        ReconciliationResult result = new ReconciliationResult();
+        if (bounds.get("min_id") != null) {
+            long minProductId = ((Number) bounds.get("min_id")).longValue();
+            long maxProductId = ((Number) bounds.get("max_id")).longValue();
+            
+            ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+            try {
+                List<PartitionTask> tasks = new ArrayList<>();
+                for (Long warehouseId : warehouseIds) {
+                    tasks.add(new PartitionTask(warehouseId, minProductId, maxProductId, repair));
+                }
+                for (PartitionTask task : tasks) {
+                    pool.execute(task);
+                }
+                for (PartitionTask task : tasks) {
+                    result.merge(task.join());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        result.setDurationMs(System.currentTimeMillis() - start);
+        
+        log.info("Reservation reconciliation: {} partitions, {} rows, {} drifted, {} repaired, " +
+                        "{} skipped (concurrent), {} skipped (sharded), {} missing inventory in {} ms",
+                result.getPartitions(), result.getInventoryRows(), result.getDrifted(), result.getRepaired(),
+                result.getSkippedConcurrent(), result.getSkippedSharded(), result.getMissingInventory(),
+                result.getDurationMs());
+        return result;
+    }
+    
+    /**
+     * Halves its product range until it is narrow enough to reconcile in one snapshot.
+     */
+    private class PartitionTask extends RecursiveTask<ReconciliationResult> {
+        
+        private final long warehouseId;
+        private final long fromProductId;
+        private final long toProductId;
+        private final boolean repair;
+        
+        PartitionTask(long warehouseId, long fromProductId, long toProductId, boolean repair) {
+            this.warehouseId = warehouseId;
+            this.fromProductId = fromProductId;
+            this.toProductId = toProductId;
+            this.repair = repair;
+        }
+        
+        @Override
+        protected ReconciliationResult compute() {
+            if (toProductId - fromProductId < properties.getProductRangeSize()) {
+                return reconcilePartition(warehouseId, fromProductId, toProductId, repair);
+            }
+            long middle = fromProductId + (toProductId - fromProductId) / 2;
+            PartitionTask upper = new PartitionTask(warehouseId, middle + 1, toProductId, repair);
+            upper.fork();
+            ReconciliationResult lower = new PartitionTask(warehouseId, fromProductId, middle, repair).compute();
+            return lower.merge(upper.join());
+        }
+    }
+    
+    private ReconciliationResult reconcilePartition(long warehouseId, long fromProductId, long toProductId, boolean repair) {
+        ReconciliationResult result = new ReconciliationResult();
+        result.setPartitions(1);
+        List<Repair> repairs = new ArrayList<>();
+        
+        snapshotTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> holds = new HashMap<>();
+            jdbcTemplate.query(HOLDS_SQL, rs -> {
+                holds.put(rs.getLong(1), rs.getInt(2));
+            }, warehouseId, fromProductId, toProductId);
+            
+            jdbcTemplate.query(INVENTORY_SQL, rs -> {
+                long inventoryId = rs.getLong(1);
+                long productId = rs.getLong(2);
+                int rowReserved = rs.getInt(3);
+                boolean sharded = rs.getInt(4) > 0;
+                int totalReserved = rowReserved + rs.getInt(5);
+                Integer held = holds.remove(productId);
+                int expected = held != null ? held : 0;
+                
+                result.setInventoryRows(result.getInventoryRows() + 1);
+                if (totalReserved == expected) {
+                    return;
+                }
+                result.setDrifted(result.getDrifted() + 1);
+                log.warn("Reserved quantity drift for product {} in warehouse {}: recorded {}, held by pending orders {}",
+                        productId, warehouseId, totalReserved, expected);
+                if (sharded) {
+                    result.setSkippedSharded(result.getSkippedSharded() + 1);
+                } else {
+                    repairs.add(new Repair(inventoryId, productId, warehouseId, rowReserved, expected));
+                }
+            }, warehouseId, fromProductId, toProductId);
+            
+            // Whatever is left has holds but nothing to hold against
+            result.setMissingInventory(holds.size());
+        });
+        
+        if (repair && !repairs.isEmpty()) {
+            applyRepairs(repairs, result);
+        }
+        return result;
+    }
+    
+    // Outside the snapshot: each batch is one short autocommit round trip holding row locks only briefly
+    private void applyRepairs(List<Repair> repairs, ReconciliationResult result) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(REPAIR_SQL, repairs, properties.getRepairBatchSize(), (ps, repair) -> {
+            ps.setInt(1, repair.expected());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, repair.inventoryId());
+            ps.setInt(4, repair.observed());
+        });
+        
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Repair repair = repairs.get(index++);
+                if (count > 0) {
+                    result.setRepaired(result.getRepaired() + 1);
+                    eventPublisher.publishEvent(new InventoryChangedEvent(repair.inventoryId()));
+                    auditJournal.inventory(AuditEventType.RESERVATION_REPAIRED, repair.inventoryId(),
+                            repair.productId(), repair.warehouseId(), repair.expected() - repair.observed());
+                } else {
+                    result.setSkippedConcurrent(result.getSkippedConcurrent() + 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.RollupProperties;
+import com.ecommerce.dto.ProductSales;
+import com.ecommerce.dto.SalesBucket;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.SalesRollup.Granularity;
+import com.ecommerce.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@Slf4j
+public class SalesRollupService {
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO sales_rollups (granularity, bucket_start, product_id, warehouse_id, units, revenue, order_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE units = units + VALUES(units), revenue = revenue + VALUES(revenue), " +
+            "order_count = order_count + VALUES(order_count)";
+    
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    // Before any order; the lower bound of a rebuild when nothing has been archived
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final SalesRollupRepository rollupRepository;
+    private final OrderArchiveService archiveService;
+    private final JdbcTemplate jdbcTemplate;
+    private final RollupProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    
+    // Order transitions record under the read lock; a rebuild holds the write lock so none interleave with it
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    
+    public SalesRollupService(SalesRollupRepository rollupRepository,
+                              OrderArchiveService archiveService,
+                              JdbcTemplate jdbcTemplate,
+                              RollupProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.archiveService = archiveService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) an order's lines from its buckets.
+     * Runs inside the caller's transaction so rollups commit together with the status change.
+     */
+    @Transactional
+    public void recordOrder(Order order, int sign) {
+        if (order.getWarehouse() == null) {
+            return;
+        }
+        
+        Map<Long, Delta> byProduct = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            byProduct.computeIfAbsent(item.getProduct().getId(), id -> new Delta())
+                    .add(item.getQuantity(), item.getSubtotal(), 0);
+        }
+        
+        List<Object[]> rows = new ArrayList<>(byProduct.size() * 2);
+        for (Map.Entry<Long, Delta> entry : byProduct.entrySet()) {
+            Delta delta = entry.getValue();
+            delta.orderCount = 1;
+            for (Granularity granularity : Granularity.values()) {
+                rows.add(toRow(new BucketKey(granularity, granularity.truncate(order.getCreatedAt()),
+                        entry.getKey(), order.getWarehouse().getId()), delta, sign));
+            }
+        }
+        rebuildLock.readLock().lock();
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SalesBucket> getSeries(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                       Long productId, Long warehouseId) {
+        return rollupRepository.findSeries(granularity, granularity.truncate(from), to, productId, warehouseId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductSales> getProductTotals(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                               Long warehouseId) {
+        return rollupRepository.findProductTotals(granularity, granularity.truncate(from), to, warehouseId);
+    }
+    
+    /**
+     * Rebuilds the rollups of whole days from {@code from} up to {@code to} from the live order tables,
+     * aggregating order id ranges in parallel. Both bounds are widened to day boundaries; {@code from}
+     * defaults to the first day not touched by archiving and {@code to} to the end of today.
+     * <p>
+     * Days that hold archived orders, or orders that may be archived while the rebuild runs, are refused:
+     * their rollups are the only remaining record of those orders. Order transitions recorded on this node
+     * wait until the rebuild completes, so none are counted twice or lost.
+     */
+    public long rebuild(LocalDateTime from, LocalDateTime to) {
+        Optional<LocalDateTime> liveStart = archiveService.liveHistoryStart();
+        LocalDateTime start = from != null ? Granularity.DAY.truncate(from) : liveStart.orElse(EARLIEST);
+        LocalDateTime end = to != null ? ceilingDay(to) : Granularity.DAY.truncate(LocalDateTime.now()).plusDays(1);
+        if (liveStart.isPresent() && start.isBefore(liveStart.get())) {
+            throw new IllegalArgumentException("Sales rollups before " + liveStart.get() +
+                    " include archived orders and cannot be rebuilt");
+        }
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("Rebuild range is empty: " + start + " to " + end);
+        }
+        
+        rebuildLock.writeLock().lock();
+        try {
+            return rebuildRange(start, end);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+    
+    private long rebuildRange(LocalDateTime start, LocalDateTime end) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Granularity granularity : Granularity.values()) {
+                rollupRepository.deleteRollupsBetween(granularity, start, end);
+            }
+        });
+        
+        List<Object[]> range = rollupRepository.findOrderIdRange(start, end);
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return 0;
+        }
+        long minId = ((Number) range.get(0)[0]).longValue();
+        long maxId = ((Number) range.get(0)[1]).longValue();
+        int chunkSize = properties.getBackfillChunkSize();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getBackfillThreads());
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (long chunkStart = minId; chunkStart <= maxId; chunkStart += chunkSize) {
+                long fromId = chunkStart;
+                long toId = Math.min(maxId, chunkStart + chunkSize - 1);
+                futures.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> backfillChunk(fromId, toId, start, end))));
+            }
+            
+            long rows = 0;
+            for (Future<Integer> future : futures) {
+                rows += future.get();
+            }
+            log.info("Rebuilt sales rollups from {} to {} for orders {}..{} in {} chunks",
+                    start, end, minId, maxId, futures.size());
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Sales rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Sales rollup rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private int backfillChunk(long fromId, long toId, LocalDateTime start, LocalDateTime end) {
+        Map<BucketKey, Delta> deltas = new HashMap<>();
+        for (Object[] row : rollupRepository.aggregateOrderRange(fromId, toId, start, end)) {
+            LocalDateTime hour = LocalDateTime.parse(row[0].toString(), BUCKET_FORMAT);
+            long productId = ((Number) row[1]).longValue();
+            long warehouseId = ((Number) row[2]).longValue();
+            long units = ((Number) row[3]).longValue();
+            BigDecimal revenue = (BigDecimal) row[4];
+            long orderCount = ((Number) row[5]).longValue();
+            
+            for (Granularity granularity : Granularity.values()) {
+                deltas.computeIfAbsent(new BucketKey(granularity, granularity.truncate(hour), productId, warehouseId),
+                        key -> new Delta()).add(units, revenue, orderCount);
+            }
+        }
+        
+        // Sorted keys keep lock order consistent across parallel chunks touching the same buckets
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(BucketKey.ORDER))
+                .forEach(entry -> rows.add(toRow(entry.getKey(), entry.getValue(), 1)));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        return rows.size();
+    }
+    
+    private static LocalDateTime ceilingDay(LocalDateTime time) {
+        LocalDateTime day = Granularity.DAY.truncate(time);
+        return day.equals(time) ? day : day.plusDays(1);
+    }
+    
+    private Object[] toRow(BucketKey key, Delta delta, int sign) {
+        return new Object[] {
+                key.granularity().name(),
+                Timestamp.valueOf(key.bucketStart()),
+                key.productId(),
+                key.warehouseId(),
+                sign * delta.units,
+                sign < 0 ? delta.revenue.negate() : delta.revenue,
+                sign * delta.orderCount
+        };
+    }
+    
+    private record BucketKey(Granularity granularity, LocalDateTime bucketStart, long productId, long warehouseId) {
+        static final Comparator<BucketKey> ORDER = Comparator.comparing(BucketKey::granularity)
+                .thenComparing(BucketKey::bucketStart)
+                .thenComparingLong(BucketKey::productId)
+                .thenComparingLong(BucketKey::warehouseId);
+    }
+    
+    private static class Delta {
+        long units;
+        BigDecimal revenue = BigDecimal.ZERO;
+        long orderCount;
+        
+        void add(long units, BigDecimal revenue, long orderCount) {
+            this.units += units;
+            this.revenue = this.revenue.add(revenue);
+            this.orderCount += orderCount;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ecommerce.service;
+
+import com.ecommerce.analytics.CountMinSketch;
+import com.ecommerce.analytics.SlidingTopK;
+import com.ecommerce.config.TopSellerProperties;
+import com.ecommerce.dto.TopSeller;
+import com.ecommerce.event.OrderConfirmedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live best sellers over the last hour and day, overall, per category and per warehouse.
+ * <p>
+ * Confirmed orders are counted after commit into one {@link SlidingTopK} per window, which keeps memory
+ * fixed and answers a query from its tracked candidates only. Counts are by confirmation time and are
+ * not reduced by later cancellations. The windows are written to a snapshot file periodically and on
+ * shutdown, and read back on startup; slots that expired while the node was down are dropped.
+ * <p>
+ * All scopes share one sketch per slot, and each unit is recorded overall, in its category and in its
+ * warehouse, so an estimate exceeds the true units by at most about {@code e / width} of the units of all
+ * scopes together, roughly three times the window's sales.
+ * <p>
+ * In cluster mode each node counts only the orders it confirms, which are those of the warehouses it owns,
+ * and {@code ClusterTopSellers} sums the rankings of all nodes.
+ */
+@Service
+@Slf4j
+public class TopSellerService {
+    
+    public enum Window {
+        HOUR, DAY
+    }
+    
+    private static final int SNAPSHOT_MAGIC = 0x54534b31;
+    
+    private static final long GLOBAL_SCOPE = 0;
+    private static final long WAREHOUSE_SALT = 0x5741524548534531L;
+    
+    private final TopSellerProperties properties;
+    private final Map<Window, SlidingTopK> windows = new EnumMap<>(Window.class);
+    
+    public TopSellerService(TopSellerProperties properties) {
+        this.properties = properties;
+        reset();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path file = Paths.get(properties.getSnapshotFile());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a top seller snapshot");
+            }
+            for (Window window : Window.values()) {
+                windows.get(window).read(in);
+            }
+            log.info("Loaded top seller windows from {}", file);
+        } catch (NoSuchFileException e) {
+            log.info("No top seller snapshot at {}, starting empty", file);
+        } catch (IOException e) {
+            // A snapshot from another sketch configuration or a torn write only costs the current windows
+            log.warn("Discarding top seller snapshot {}", file, e);
+            reset();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderConfirmed(OrderConfirmedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        event.unitsByProduct().forEach((productId, units) -> {
+            String category = event.categoryByProduct().get(productId);
+            for (SlidingTopK window : windows.values()) {
+                window.record(GLOBAL_SCOPE, productId, units, now);
+                if (category != null) {
+                    window.record(categoryScope(category), productId, units, now);
+                }
+                if (event.warehouseId() != null) {
+                    window.record(warehouseScope(event.warehouseId()), productId, units, now);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Best sellers in the window, overall or within one category or one warehouse, by estimated units.
+     */
+    public List<TopSeller> getTopSellers(Window window, String category, Long warehouseId, int limit) {
+        if (!properties.isEnabled()) {
+            throw new RuntimeException("Top seller tracking is disabled");
+        }
+        if (limit <= 0 || limit > properties.getCandidates()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getCandidates());
+        }
+        if (category != null && warehouseId != null) {
+            throw new IllegalArgumentException("Filter by category or by warehouse, not both");
+        }
+        
+        long scope = category != null ? categoryScope(category)
+                : warehouseId != null ? warehouseScope(warehouseId) : GLOBAL_SCOPE;
+        return windows.get(window).top(scope, limit, System.currentTimeMillis()).stream()
+                .map(ranked -> new TopSeller(ranked.productId(), ranked.units()))
+                .toList();
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.top-sellers.snapshot-interval:60000}")
+    public synchronized void snapshot() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path target = Paths.get(properties.getSnapshotFile()).toAbsolutePath();
+        try {
+            Files.createDirectories(target.getParent());
+            // Write to a temp file first so a crash mid-write leaves the previous snapshot intact
+            Path temp = Files.createTempFile(target.getParent(), ".top-sellers-", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    for (Window window : Window.values()) {
+                        windows.get(window).write(out);
+                    }
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write top seller snapshot {}", target, e);
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+    
+    private void reset() {
+        windows.put(Window.HOUR, new SlidingTopK(Duration.ofHours(1), properties.getHourSlots(),
+                properties.getWidth(), properties.getDepth(), properties.getCandidates()));
+        windows.put(Window.DAY, new SlidingTopK(Duration.ofDays(1), properties.getDaySlots(),
+                properties.getWidth(), properties.getDepth(), properties.getCandidates()));
+    }
+    
+    // Scopes share one sketch per slot, so each needs its own well-spread key space
+    private static long categoryScope(String category) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < category.length(); i++) {
+            hash = (hash ^ category.charAt(i)) * 0x100000001b3L;
+        }
+        return CountMinSketch.mix(hash);
+    }
+    
+    private static long warehouseScope(long warehouseId) {
+        return CountMinSketch.mix(warehouseId ^ WAREHOUSE_SALT);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Minimal object store abstraction used for cold-tier archive batches.
+ */
+public interface ArchiveStore {
+    
+    void put(String key, byte[] data) throws IOException;
+    
+    InputStream get(String key) throws IOException;
+}
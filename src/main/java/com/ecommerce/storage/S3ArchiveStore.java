@@ -0,0 +1,40 @@
+package com.ecommerce.storage;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.InputStream;
+
+public class S3ArchiveStore implements ArchiveStore {
+    
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String prefix;
+    
+    public S3ArchiveStore(S3Client s3Client, String bucket, String prefix) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.prefix = prefix == null ? "" : prefix;
+    }
+    
+    @Override
+    public void put(String key, byte[] data) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(prefix + key)
+                        .contentType("application/x-ndjson")
+                        .contentEncoding("gzip")
+                        .build(),
+                RequestBody.fromBytes(data));
+    }
+    
+    @Override
+    public InputStream get(String key) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(prefix + key)
+                .build());
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts with AIMD: each fast completion while the limit is in use grows
+ * it by {@code 1/limit}, and a slow or failed completion multiplies it by the backoff ratio.
+ * <p>
+ * Requests that started before the last decrease ran under the old limit, so their slowness is
+ * already answered; only a request started after it can decrease the limit again. A burst of slow
+ * completions therefore cuts the limit once per round trip, not once per request.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long targetLatencyNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void release(long startNanos, long endNanos, boolean failed) {
+        int concurrent = inFlight.getAndDecrement();
+        
+        synchronized (this) {
+            double current = limit;
+            if (failed || endNanos - startNanos > targetLatencyNanos) {
+                if (!decreased || startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, current * backoffRatio);
+                    decreased = true;
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (concurrent * 2 >= current) {
+                // Only grow while the limit is actually being exercised
+                limit = Math.min(maxLimit, current + 1.0 / current);
+            }
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
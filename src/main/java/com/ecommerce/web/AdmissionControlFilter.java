@@ -0,0 +1,94 @@
+package com.ecommerce.web;
+
+import com.ecommerce.config.AdmissionProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds load on the order and inventory endpoints before requests queue for a database connection.
+ * Reads and writes of each resource get their own adaptive limit so a write storm cannot starve reads.
+ */
+@Component
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    enum EndpointGroup {
+        ORDER_READ,
+        ORDER_WRITE,
+        INVENTORY_READ,
+        INVENTORY_WRITE
+    }
+    
+    private final AdmissionProperties properties;
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    
+    public AdmissionControlFilter(AdmissionProperties properties) {
+        this.properties = properties;
+        limiters.put(EndpointGroup.ORDER_READ, create(properties.getReads()));
+        limiters.put(EndpointGroup.INVENTORY_READ, create(properties.getReads()));
+        limiters.put(EndpointGroup.ORDER_WRITE, create(properties.getWrites()));
+        limiters.put(EndpointGroup.INVENTORY_WRITE, create(properties.getWrites()));
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || classify(request) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointGroup group = classify(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+        
+        if (!limiter.tryAcquire()) {
+            AdmissionProperties.Limit limit = isWrite(group) ? properties.getWrites() : properties.getReads();
+            log.debug("Shedding {} {} ({} limit {})", request.getMethod(), request.getRequestURI(), group, limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limit.getRetryAfterSeconds()));
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(start, System.nanoTime(), failed);
+        }
+    }
+    
+    EndpointGroup classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        boolean read = HttpMethod.GET.matches(request.getMethod());
+        if (path.startsWith("/api/orders")) {
+            return read ? EndpointGroup.ORDER_READ : EndpointGroup.ORDER_WRITE;
+        }
+        if (path.startsWith("/api/inventory")) {
+            return read ? EndpointGroup.INVENTORY_READ : EndpointGroup.INVENTORY_WRITE;
+        }
+        return null;
+    }
+    
+    private static boolean isWrite(EndpointGroup group) {
+        return group == EndpointGroup.ORDER_WRITE || group == EndpointGroup.INVENTORY_WRITE;
+    }
+    
+    private static AdaptiveConcurrencyLimiter create(AdmissionProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimiter(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                limit.getTargetLatency().toNanos(), limit.getBackoffRatio());
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.web;
+
+import com.ecommerce.config.AdmissionProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-customer token buckets keyed by normalized customer email.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerRateLimiter {
+    
+    private final AdmissionProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    
+    /**
+     * @return 0 when the request is admitted, otherwise the number of seconds to wait
+     */
+    public long tryAcquire(String customerEmail) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        
+        String key = customerEmail == null ? "" : customerEmail.trim().toLowerCase(Locale.ROOT);
+        AdmissionProperties.Customer customer = properties.getCustomer();
+        long now = System.nanoTime();
+        long waitNanos = buckets
+                .computeIfAbsent(key, k -> new TokenBucket(customer.getCapacity(), customer.getRefillPerSecond(), now))
+                .tryAcquire(now);
+        return waitNanos == 0 ? 0 : Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+    }
+    
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
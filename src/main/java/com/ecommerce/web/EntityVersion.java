@@ -0,0 +1,91 @@
+package com.ecommerce.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validator for an entity representation, derived from the latest {@code updatedAt} of the entity
+ * and everything embedded in its payload.
+ */
+public record EntityVersion(String etag, long lastModified) {
+    
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    
+    public static EntityVersion of(String kind, Object id, LocalDateTime... timestamps) {
+        LocalDateTime latest = Arrays.stream(timestamps)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(EPOCH);
+        // Microseconds match the DATETIME(6) columns, so two writes a millisecond apart still differ
+        long micros = ChronoUnit.MICROS.between(EPOCH, latest);
+        long millis = latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new EntityVersion("\"" + kind + "-" + id + "-" + micros + "\"", millis);
+    }
+    
+    /**
+     * Evaluates If-None-Match/If-Modified-Since on reads and If-Match/If-Unmodified-Since on writes.
+     * When true the 304 or 412 status and validator headers are already on the response.
+     * <p>
+     * JSON, CBOR and Smile bodies of one version are different bytes, so the tag compared and sent
+     * is the one of the format the request negotiates, and responses carry {@code Vary: Accept}.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return request.checkNotModified(etagFor(request.getHeader(HttpHeaders.ACCEPT)), lastModified);
+    }
+    
+    /**
+     * Tag of the representation selected by {@code accept}; JSON keeps the plain tag.
+     */
+    public String etagFor(String accept) {
+        MediaType format = negotiatedFormat(accept);
+        if (format == null) {
+            return etag;
+        }
+        String suffix = format.equals(SMILE) ? "smile" : "cbor";
+        return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+    
+    // Highest-quality type the binary converters or JSON can serve; null stands for JSON
+    private static MediaType negotiatedFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        return types.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(type -> type.getQualityValue() > 0)
+                .map(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) ? MediaType.APPLICATION_CBOR
+                        : type.equalsTypeAndSubtype(SMILE) ? SMILE
+                        : type.isCompatibleWith(MediaType.APPLICATION_JSON) ? MediaType.APPLICATION_JSON
+                        : null)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .filter(type -> !type.equals(MediaType.APPLICATION_JSON))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecommerce.web;
+
+import com.ecommerce.cluster.WarehouseOwnershipService;
+import com.ecommerce.config.ClusterProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In cluster mode, runs order and inventory mutations only on the node that owns the warehouse they touch
+ * and forwards them there from any other node. Reads and cluster-wide maintenance calls stay local.
+ * Calls that arrive while a warehouse is changing owner are answered with 503 and {@code Retry-After}.
+ * <p>
+ * Ownership is checked once, before the handler runs, not again before its transaction commits. With
+ * heartbeats on time a checked owner keeps its lease for at least the lease duration minus one heartbeat
+ * interval (10 s by default), so only a call that runs longer than that, e.g. across a long GC pause, can
+ * commit after another node has taken the warehouse over. Such calls are logged when they finish.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.cluster", name = "enabled", havingValue = "true")
+@Slf4j
+public class OwnerRoutingFilter extends OncePerRequestFilter {
+    
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded-By";
+    
+    private static final Pattern ORDER_TRANSITION = Pattern.compile("/api/orders/(\\d+)/(confirm|process|ship|cancel)");
+    private static final Pattern INVENTORY_UPDATE = Pattern.compile("/api/inventory/(\\d+)/(add|remove|shard)");
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.RETRY_AFTER);
+    
+    private final WarehouseOwnershipService ownership;
+    private final ClusterProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    
+    public OwnerRoutingFilter(WarehouseOwnershipService ownership, ClusterProperties properties,
+                              JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.ownership = ownership;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getForwardTimeout())
+                .build();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || !(request.getRequestURI().startsWith("/api/orders")
+                || request.getRequestURI().startsWith("/api/inventory"));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletRequest routed = request;
+        Long warehouseId;
+        String uri = request.getRequestURI();
+        if (HttpMethod.POST.matches(request.getMethod()) && uri.equals("/api/orders")) {
+            // The warehouse is in the body, so buffer it for both the lookup and the handler
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            routed = cached;
+            warehouseId = warehouseOfOrderRequest(cached.body);
+        } else {
+            warehouseId = warehouseOf(request);
+        }
+        
+        if (warehouseId == null) {
+            chain.doFilter(routed, response);
+            return;
+        }
+        if (ownership.isOwner(warehouseId)) {
+            chain.doFilter(routed, response);
+            if (!ownership.isOwner(warehouseId)) {
+                log.warn("{} {} on warehouse {} finished after this node's ownership lapsed", request.getMethod(),
+                        uri, warehouseId);
+            }
+            return;
+        }
+        
+        String owner = ownership.ownerOf(warehouseId);
+        String url = owner != null ? ownership.urlOf(owner) : null;
+        // A forwarded call is never forwarded again; the ring may not have settled yet
+        if (request.getHeader(FORWARDED_HEADER) != null || url == null || owner.equals(ownership.nodeId())) {
+            unavailable(response);
+            return;
+        }
+        forward(routed, response, url);
+    }
+    
+    private Long warehouseOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (HttpMethod.POST.matches(request.getMethod()) && uri.equals("/api/inventory")) {
+            String warehouseId = request.getParameter("warehouseId");
+            return warehouseId != null && warehouseId.matches("\\d+") ? Long.valueOf(warehouseId) : null;
+        }
+        Matcher matcher = ORDER_TRANSITION.matcher(uri);
+        if (matcher.matches()) {
+            return single("SELECT warehouse_id FROM orders WHERE id = ?", Long.parseLong(matcher.group(1)));
+        }
+        matcher = INVENTORY_UPDATE.matcher(uri);
+        if (matcher.matches()) {
+            return single("SELECT warehouse_id FROM inventory WHERE id = ?", Long.parseLong(matcher.group(1)));
+        }
+        return null;
+    }
+    
+    // Unknown ids are handled locally, which answers them as usual
+    private Long single(String sql, long id) {
+        List<Long> rows = jdbcTemplate.queryForList(sql, Long.class, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+    
+    private Long warehouseOfOrderRequest(byte[] body) {
+        try {
+            JsonNode warehouseId = objectMapper.readTree(body).path("warehouseId");
+            return warehouseId.canConvertToLong() ? warehouseId.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private void forward(HttpServletRequest request, HttpServletResponse response, String url) throws IOException {
+        String query = request.getQueryString();
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + request.getRequestURI()
+                        + (query != null ? "?" + query : "")))
+                .timeout(properties.getForwardTimeout())
+                .header(FORWARDED_HEADER, ownership.nodeId())
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String header : List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.IF_MATCH,
+                HttpHeaders.IF_UNMODIFIED_SINCE)) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+        
+        HttpResponse<byte[]> forwarded;
+        try {
+            forwarded = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            // Owner unreachable; its leases lapse and another node takes over
+            log.warn("Forwarding {} {} to {} failed: {}", request.getMethod(), request.getRequestURI(), url, e.toString());
+            unavailable(response);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unavailable(response);
+            return;
+        }
+        
+        response.setStatus(forwarded.statusCode());
+        for (String header : FORWARDED_RESPONSE_HEADERS) {
+            forwarded.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+        }
+        response.getOutputStream().write(forwarded.body());
+    }
+    
+    private static void unavailable(HttpServletResponse response) {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    }
+    
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8));
+        }
+    }
+}
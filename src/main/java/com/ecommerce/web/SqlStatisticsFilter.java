@@ -0,0 +1,84 @@
+package com.ecommerce.web;
+
+import com.ecommerce.config.SqlStatsProperties;
+import com.ecommerce.jdbc.SqlStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts statements, round trips and database time for each API request and flags query shapes
+ * repeated often enough to be an N+1. Results go to {@code http.server.sql.*} metrics tagged with
+ * the matched URI pattern and, when {@code response-headers} is on, to X-SQL-* response headers.
+ * The headers include statements run while the body is serialized, so the body is buffered until
+ * the counts are final; that is why they are off outside the dev profile and tests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+    
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROUND_TRIPS_HEADER = "X-SQL-Round-Trips";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String REPEATED_HEADER = "X-SQL-Repeated-Shapes";
+    
+    private final SqlStatsProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = properties.isResponseHeaders()
+                ? new ContentCachingResponseWrapper(response) : null;
+        SqlStatistics statistics = SqlStatistics.begin();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            SqlStatistics.end();
+            Map<String, Integer> repeated = statistics.repeatedShapes(properties.getRepeatThreshold());
+            record(request, statistics, repeated);
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+                buffered.setHeader(ROUND_TRIPS_HEADER, String.valueOf(statistics.getRoundTrips()));
+                buffered.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getDbNanos() / 1_000_000.0));
+                buffered.setHeader(REPEATED_HEADER, String.valueOf(repeated.size()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+    
+    private void record(HttpServletRequest request, SqlStatistics statistics, Map<String, Integer> repeated) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+        
+        meterRegistry.summary("http.server.sql.statements", tags).record(statistics.getStatements());
+        meterRegistry.summary("http.server.sql.round.trips", tags).record(statistics.getRoundTrips());
+        meterRegistry.timer("http.server.sql.time", tags).record(statistics.getDbNanos(), TimeUnit.NANOSECONDS);
+        
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("http.server.sql.repeated", tags).increment();
+            repeated.forEach((shape, count) ->
+                    log.warn("Possible N+1 in {} {}: {} executions of {}", request.getMethod(), pattern, count, shape));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.web;
+
+public class TokenBucket {
+    
+    // Credit is counted in nanoseconds of refill time, so whole-token arithmetic stays exact
+    private final long nanosPerToken;
+    private final long maxCredit;
+    
+    private long credit;
+    private long lastRefillNanos;
+    
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        this.maxCredit = capacity * nanosPerToken;
+        this.credit = maxCredit;
+        this.lastRefillNanos = nowNanos;
+    }
+    
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (credit >= nanosPerToken) {
+            credit -= nanosPerToken;
+            return 0;
+        }
+        return nanosPerToken - credit;
+    }
+    
+    // A full bucket behaves exactly like a freshly created one, so it can be dropped
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return credit >= maxCredit;
+    }
+    
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            credit = elapsed >= maxCredit - credit ? maxCredit : credit + elapsed;
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
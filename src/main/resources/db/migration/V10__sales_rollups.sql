@@ -0,0 +1,13 @@
+-- Hourly and daily sales per product and warehouse, maintained incrementally by SalesRollupService.
+CREATE TABLE sales_rollups (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    granularity ENUM('HOUR','DAY') NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(19,2) NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_sales_rollups_bucket UNIQUE (granularity, bucket_start, product_id, warehouse_id)
+) ENGINE=InnoDB;
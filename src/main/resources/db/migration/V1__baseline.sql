@@ -0,0 +1,74 @@
+-- Baseline schema matching the original entities as generated by ddl-auto: update.
+-- Existing databases are baselined at version 1 and only receive later migrations.
+
+CREATE TABLE products (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sku VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    price DECIMAL(10,2) NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    brand VARCHAR(255),
+    active BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku)
+) ENGINE=InnoDB;
+
+CREATE TABLE warehouses (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    code VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    state VARCHAR(255) NOT NULL,
+    zip_code VARCHAR(255) NOT NULL,
+    active BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_warehouses_code UNIQUE (code)
+) ENGINE=InnoDB;
+
+CREATE TABLE inventory (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    reserved_quantity INT NOT NULL,
+    reorder_level INT NOT NULL,
+    reorder_quantity INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_inventory_product_warehouse UNIQUE (product_id, warehouse_id),
+    CONSTRAINT fk_inventory_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_inventory_warehouse FOREIGN KEY (warehouse_id) REFERENCES warehouses (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    order_number VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    status ENUM('PENDING','CONFIRMED','PROCESSING','SHIPPED','DELIVERED','CANCELLED') NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    warehouse_id BIGINT,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_orders_order_number UNIQUE (order_number),
+    CONSTRAINT fk_orders_warehouse FOREIGN KEY (warehouse_id) REFERENCES warehouses (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE order_items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    subtotal DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,3 @@
+-- Content hash used by the bulk catalog sync to skip unchanged products.
+-- Existing rows start NULL and are filled on their first sync or update.
+ALTER TABLE products ADD COLUMN content_hash VARCHAR(64) NULL AFTER active;
@@ -0,0 +1,20 @@
+-- Secondary indexes backing the derived repository queries.
+-- The foreign key columns get explicitly named indexes; MySQL then drops the index it created implicitly for the
+-- foreign key, whatever it was called, so databases created by Hibernate end up with the same indexes.
+ALTER TABLE products
+    ADD INDEX idx_products_category (category),
+    ADD INDEX idx_products_brand (brand),
+    ADD INDEX idx_products_sku_state (sku, content_hash, active);
+
+ALTER TABLE orders
+    ADD INDEX idx_orders_customer_email (customer_email, created_at),
+    ADD INDEX idx_orders_status_created (status, created_at),
+    ADD INDEX idx_orders_status_updated (status, updated_at),
+    ADD INDEX idx_orders_created (created_at),
+    ADD INDEX idx_orders_warehouse (warehouse_id);
+
+ALTER TABLE inventory
+    ADD INDEX idx_inventory_warehouse (warehouse_id);
+
+ALTER TABLE order_items
+    ADD INDEX idx_order_items_order (order_id);
@@ -0,0 +1,15 @@
+-- Smoothed daily demand per product and warehouse, maintained incrementally by DemandModelService.
+-- open_day is the day still accumulating units in open_day_units; it is folded into mean/variance once a later day starts.
+CREATE TABLE inventory_demand (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    mean DOUBLE NOT NULL,
+    variance DOUBLE NOT NULL,
+    observed_days INT NOT NULL,
+    open_day DATE NOT NULL,
+    open_day_units INT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_inventory_demand_product_warehouse UNIQUE (product_id, warehouse_id)
+) ENGINE=InnoDB;
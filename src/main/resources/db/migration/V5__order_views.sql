@@ -0,0 +1,10 @@
+-- Order detail documents rendered at write time by OrderViewService and served as-is by GET /api/orders/{id}.
+-- body holds the JSON response; etag and last_modified (epoch millis) are the validators computed when it was rendered.
+CREATE TABLE order_views (
+    order_id BIGINT NOT NULL,
+    body MEDIUMBLOB NOT NULL,
+    etag VARCHAR(64) NOT NULL,
+    last_modified BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (order_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,18 @@
+-- Cluster membership and warehouse ownership leases used by JdbcClusterCoordinator.
+-- Expiry is always compared with the database clock, so nodes do not need synchronized clocks.
+CREATE TABLE cluster_nodes (
+    node_id VARCHAR(128) NOT NULL,
+    url VARCHAR(255) NOT NULL,
+    lease_expires_at DATETIME(6) NOT NULL,
+    joined_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (node_id),
+    INDEX idx_cluster_nodes_lease (lease_expires_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE warehouse_leases (
+    warehouse_id BIGINT NOT NULL,
+    owner_node VARCHAR(128) NOT NULL,
+    lease_expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (warehouse_id),
+    INDEX idx_warehouse_leases_owner (owner_node, lease_expires_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,23 @@
+-- Archive batches written by OrderArchiveService and the index from each archived order to its batch and position.
+-- max_created_at is the creation time of the newest order in a batch; sales rollups of days up to it cannot be
+-- rebuilt from the live tables. Batches written before it was recorded start NULL and are filled by reading them back.
+CREATE TABLE order_archive_batches (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    object_key VARCHAR(512) NOT NULL,
+    order_count INT NOT NULL,
+    min_order_id BIGINT NOT NULL,
+    max_order_id BIGINT NOT NULL,
+    max_created_at DATETIME(6) NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_order_archive_batches_key UNIQUE (object_key),
+    INDEX idx_order_archive_batches_max_created (max_created_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE order_archive_index (
+    order_id BIGINT NOT NULL,
+    batch_id BIGINT NOT NULL,
+    position INT NOT NULL,
+    PRIMARY KEY (order_id)
+) ENGINE=InnoDB;
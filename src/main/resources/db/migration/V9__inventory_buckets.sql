@@ -0,0 +1,14 @@
+-- Sub-counters of hot inventory rows split by InventoryBucketService.
+-- bucket_count is 0 for rows that hold all of their stock themselves, which is every existing row.
+ALTER TABLE inventory ADD COLUMN bucket_count INT NOT NULL DEFAULT 0 AFTER reorder_quantity;
+
+CREATE TABLE inventory_buckets (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    inventory_id BIGINT NOT NULL,
+    bucket_index INT NOT NULL,
+    quantity INT NOT NULL,
+    reserved_quantity INT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_inventory_buckets_index UNIQUE (inventory_id, bucket_index)
+) ENGINE=InnoDB;
@@ -0,0 +1,36 @@
+package com.ecommerce;
+
+import com.ecommerce.repository.SqlCapture;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Boots the application against a throwaway MySQL with the Flyway schema applied.
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlContainerTest {
+    
+    @Container
+    protected static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36")
+            .withDatabaseName("ecommerce")
+            .withUrlParam("rewriteBatchedStatements", "true")
+            .withUrlParam("queryInterceptors", SqlCapture.class.getName());
+    
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("ecommerce.snapshot.enabled", () -> "false");
+        registry.add("ecommerce.catalog-index.enabled", () -> "false");
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogBitmapIndexTest {
+    
+    private CatalogBitmapIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new CatalogBitmapIndex();
+        index.registerWarehouse(1L, "IL");
+        index.registerWarehouse(2L, "IL");
+        index.registerWarehouse(3L, "CA");
+        
+        index.setAttributes(10L, "shoes", "acme", true);
+        index.setAttributes(11L, "shoes", "zenith", true);
+        index.setAttributes(12L, "shirts", "acme", true);
+        index.setAttributes(13L, "shoes", "acme", false);
+    }
+    
+    @Test
+    void intersectsAttributesWithStock() {
+        index.setStock(10L, 1L, true);
+        index.setStock(11L, 3L, true);
+        index.setStock(13L, 1L, true);
+        
+        assertArrayEquals(new int[] {10, 11}, select("shoes", null, true, true, null, null));
+        assertArrayEquals(new int[] {10}, select("shoes", "acme", true, true, null, null));
+        assertArrayEquals(new int[] {13}, select("shoes", null, false, true, null, null));
+        assertArrayEquals(new int[] {10}, select(null, null, true, true, null, "IL"));
+        assertArrayEquals(new int[] {11}, select(null, null, true, true, 3L, null));
+        assertArrayEquals(new int[] {10, 11, 12}, select(null, null, true, false, null, null));
+    }
+    
+    @Test
+    void regionKeepsProductWhileAnyWarehouseInItHasStock() {
+        index.setStock(10L, 1L, true);
+        index.setStock(10L, 2L, true);
+        index.setStock(10L, 3L, true);
+        
+        index.setStock(10L, 1L, false);
+        assertArrayEquals(new int[] {10}, select(null, null, null, true, null, "IL"));
+        
+        index.setStock(10L, 2L, false);
+        assertArrayEquals(new int[] {}, select(null, null, null, true, null, "IL"));
+        assertArrayEquals(new int[] {10}, select(null, null, null, true, null, null));
+        
+        index.setStock(10L, 3L, false);
+        assertArrayEquals(new int[] {}, select(null, null, null, true, null, null));
+    }
+    
+    @Test
+    void attributeChangesAndRemovalsMoveProductsBetweenBitmaps() {
+        index.setStock(12L, 2L, true);
+        index.setAttributes(12L, "shoes", "zenith", true);
+        
+        assertArrayEquals(new int[] {}, select("shirts", null, null, false, null, null));
+        assertArrayEquals(new int[] {11, 12}, select("shoes", "zenith", null, false, null, null));
+        
+        index.removeProduct(12L);
+        assertArrayEquals(new int[] {11}, select(null, "zenith", null, false, null, null));
+        assertArrayEquals(new int[] {}, select(null, null, null, true, null, null));
+    }
+    
+    private int[] select(String category, String brand, Boolean active, boolean inStock, Long warehouseId, String region) {
+        return index.select(new CatalogBitmapIndex.Filter(category, brand, active, inStock, warehouseId, region)).toArray();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DemandEstimatorTest {
+    
+    private static final double ALPHA = 0.1;
+    
+    @Test
+    void steadyDemandConvergesWithNoVariance() {
+        DemandEstimator estimator = new DemandEstimator(ALPHA, 0);
+        for (int day = 0; day < 60; day++) {
+            estimator.record(day, 4);
+            estimator.record(day, 6);
+        }
+        estimator.advanceTo(60);
+        
+        assertEquals(60, estimator.observedDays());
+        assertEquals(10.0, estimator.mean(), 1e-9);
+        assertEquals(0.0, estimator.variance(), 1e-9);
+        // 7 days of lead time at 10/day, no safety stock needed
+        assertEquals(70, estimator.reorderLevel(7, DemandEstimator.zScore(0.95)));
+        assertEquals(140, estimator.reorderQuantity(14, 1));
+    }
+    
+    @Test
+    void volatileDemandAddsSafetyStock() {
+        DemandEstimator estimator = new DemandEstimator(ALPHA, 0);
+        for (int day = 0; day < 200; day++) {
+            estimator.record(day, day % 2 == 0 ? 0 : 20);
+        }
+        estimator.advanceTo(200);
+        
+        assertEquals(10.0, estimator.mean(), 1.5);
+        assertEquals(100.0, estimator.variance(), 15.0);
+        assertTrue(estimator.reorderLevel(7, DemandEstimator.zScore(0.95)) > 70 + 30);
+    }
+    
+    @Test
+    void daysWithoutSalesDecayTheEstimate() {
+        DemandEstimator estimator = new DemandEstimator(ALPHA, 0);
+        for (int day = 0; day < 30; day++) {
+            estimator.record(day, 10);
+        }
+        estimator.advanceTo(30);
+        double before = estimator.mean();
+        
+        estimator.advanceTo(37);
+        assertEquals(before * Math.pow(1 - ALPHA, 7), estimator.mean(), 1e-9);
+        assertEquals(37, estimator.observedDays());
+        
+        estimator.advanceTo(10_000);
+        assertEquals(0.0, estimator.mean());
+        assertEquals(1, estimator.reorderQuantity(14, 1));
+    }
+    
+    @Test
+    void lateUnitsCountTowardsTheOpenDay() {
+        DemandEstimator estimator = new DemandEstimator(ALPHA, 5);
+        estimator.record(3, 7);
+        
+        assertEquals(5, estimator.openDay());
+        assertEquals(7, estimator.openDayUnits());
+        assertEquals(0, estimator.observedDays());
+    }
+    
+    @Test
+    void cancelledUnitsComeOffTheOpenDay() {
+        DemandEstimator estimator = new DemandEstimator(ALPHA, 5);
+        estimator.record(5, 7);
+        estimator.cancel(5, 3);
+        assertEquals(4, estimator.openDayUnits());
+        
+        // A sale from a closed day is taken back from the new open day, never below zero
+        estimator.cancel(6, 2);
+        assertEquals(1, estimator.observedDays());
+        assertEquals(4.0, estimator.mean(), 1e-9);
+        assertEquals(6, estimator.openDay());
+        assertEquals(0, estimator.openDayUnits());
+    }
+    
+    @Test
+    void zScoreMatchesNormalQuantiles() {
+        assertEquals(0.0, DemandEstimator.zScore(0.5), 1e-9);
+        assertEquals(1.644854, DemandEstimator.zScore(0.95), 1e-6);
+        assertEquals(2.326348, DemandEstimator.zScore(0.99), 1e-6);
+        assertEquals(-1.281552, DemandEstimator.zScore(0.10), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> DemandEstimator.zScore(1.0));
+    }
+}
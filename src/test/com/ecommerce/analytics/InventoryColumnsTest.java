@@ -0,0 +1,93 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.dto.InventoryRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryColumnsTest {
+    
+    @Test
+    void aggregatesPerWarehouseAndAppliesUpdates() {
+        InventoryColumns columns = new InventoryColumns(16);
+        columns.upsert(row(1L, 10L, 100L, 20, 5, 10, "2.50"));
+        columns.upsert(row(2L, 11L, 100L, 8, 0, 10, "1.00"));
+        columns.upsert(row(3L, 10L, 200L, 30, 10, 5, "2.50"));
+        // Same inventory row again: replaces quantities, does not add a row
+        columns.upsert(row(2L, 11L, 100L, 50, 0, 10, "1.00"));
+        
+        InventoryColumns.WarehouseAggregate aggregate = columns.aggregateByWarehouse();
+        
+        assertEquals(3, columns.size());
+        assertEquals(2, aggregate.warehouses());
+        int first = ordinalOf(columns, aggregate, 100L);
+        int second = ordinalOf(columns, aggregate, 200L);
+        assertEquals(2, aggregate.rows()[first]);
+        assertEquals(70, aggregate.onHand()[first]);
+        assertEquals(5, aggregate.reserved()[first]);
+        assertEquals(0, aggregate.lowStock()[first]);
+        assertEquals(20 * 250 + 50 * 100, aggregate.valueCents()[first]);
+        assertEquals(1, aggregate.rows()[second]);
+        assertEquals(30 * 250, aggregate.valueCents()[second]);
+    }
+    
+    @Test
+    void countsLowStockAgainstAvailableUnits() {
+        InventoryColumns columns = new InventoryColumns(16);
+        columns.upsert(row(1L, 10L, 100L, 20, 15, 5, "1.00"));
+        columns.upsert(row(2L, 11L, 100L, 20, 14, 5, "1.00"));
+        
+        assertEquals(1, columns.aggregateByWarehouse().lowStock()[0]);
+    }
+    
+    @Test
+    void growsAcrossChunksWithoutLosingRows() {
+        InventoryColumns columns = new InventoryColumns(1);
+        int rows = 200_000;
+        for (int i = 0; i < rows; i++) {
+            columns.upsert(row(i + 1L, i + 1L, 1L + i % 3, 2, 1, 0, "0.10"));
+        }
+        
+        InventoryColumns.WarehouseAggregate aggregate = columns.aggregateByWarehouse();
+        
+        assertEquals(rows, columns.size());
+        assertEquals(rows, aggregate.rows()[0] + aggregate.rows()[1] + aggregate.rows()[2]);
+        assertEquals(2L * rows, aggregate.onHand()[0] + aggregate.onHand()[1] + aggregate.onHand()[2]);
+        assertEquals(2L * 10 * rows, aggregate.valueCents()[0] + aggregate.valueCents()[1] + aggregate.valueCents()[2]);
+    }
+    
+    @Test
+    void clearKeepsCapacityForTheNextFill() {
+        InventoryColumns columns = new InventoryColumns(1);
+        for (int i = 0; i < 100_000; i++) {
+            columns.upsert(row(i + 1L, i + 1L, 1L, 1, 0, 0, "1.00"));
+        }
+        int capacity = columns.capacity();
+        
+        columns.clear();
+        columns.upsert(row(7L, 7L, 300L, 4, 0, 0, "1.00"));
+        InventoryColumns.WarehouseAggregate aggregate = columns.aggregateByWarehouse();
+        
+        assertEquals(capacity, columns.capacity());
+        assertEquals(1, columns.size());
+        assertEquals(1, aggregate.warehouses());
+        assertEquals(300L, columns.warehouseId(0));
+        assertEquals(4, aggregate.onHand()[0]);
+    }
+    
+    private static int ordinalOf(InventoryColumns columns, InventoryColumns.WarehouseAggregate aggregate, long warehouseId) {
+        for (int w = 0; w < aggregate.warehouses(); w++) {
+            if (columns.warehouseId(w) == warehouseId) {
+                return w;
+            }
+        }
+        throw new AssertionError("No ordinal for warehouse " + warehouseId);
+    }
+    
+    private static InventoryRow row(long inventoryId, long productId, long warehouseId, int quantity, int reserved,
+                                    int reorderLevel, String price) {
+        return new InventoryRow(inventoryId, productId, warehouseId, quantity, reserved, reorderLevel, new BigDecimal(price));
+    }
+}
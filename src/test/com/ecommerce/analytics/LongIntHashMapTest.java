@@ -0,0 +1,51 @@
+package com.ecommerce.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+    
+    @Test
+    void putGetAndOverwrite() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(42L, 1);
+        map.put(-7L, 2);
+        map.put(0L, 3);
+        map.put(42L, 4);
+        
+        assertEquals(4, map.get(42L, -1));
+        assertEquals(2, map.get(-7L, -1));
+        assertEquals(3, map.get(0L, -1));
+        assertEquals(-1, map.get(43L, -1));
+        assertEquals(3, map.size());
+    }
+    
+    @Test
+    void keepsEntriesAcrossResizes() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        for (int i = 0; i < 100_000; i++) {
+            // Multiples of a power of two collide in naive hashing
+            map.put(i * 1024L, i);
+        }
+        
+        assertEquals(100_000, map.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, map.get(i * 1024L, -1));
+        }
+    }
+    
+    @Test
+    void clearRemovesEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(5L, -1));
+        map.put(5L, 50);
+        assertEquals(50, map.get(5L, -1));
+    }
+}
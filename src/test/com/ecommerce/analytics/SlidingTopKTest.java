@@ -0,0 +1,78 @@
+package com.ecommerce.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingTopKTest {
+    
+    private static final long SCOPE = 42;
+    private static final long OTHER_SCOPE = 7;
+    private static final long MINUTE = 60_000;
+    private static final long START = 1_700_000_000_000L - Math.floorMod(1_700_000_000_000L, 5 * MINUTE);
+    
+    private SlidingTopK window() {
+        return new SlidingTopK(Duration.ofHours(1), 12, 1024, 4, 20);
+    }
+    
+    @Test
+    void findsHeavyHittersAmongLongTail() {
+        SlidingTopK window = window();
+        Random random = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            window.record(SCOPE, 1000 + random.nextInt(5000), 1, START + i);
+        }
+        window.record(SCOPE, 1, 500, START);
+        window.record(SCOPE, 2, 300, START);
+        window.record(SCOPE, 3, 200, START);
+        window.record(OTHER_SCOPE, 4, 900, START);
+        
+        List<SlidingTopK.Ranked> top = window.top(SCOPE, 3, START + MINUTE);
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(SlidingTopK.Ranked::productId).toList());
+        // Sketches only overcount
+        assertTrue(top.get(0).units() >= 500 && top.get(0).units() < 600);
+        assertTrue(window.top(SCOPE, 20, START + MINUTE).stream().noneMatch(ranked -> ranked.productId() == 4));
+    }
+    
+    @Test
+    void expiredSlotsLeaveTheWindow() {
+        SlidingTopK window = window();
+        window.record(SCOPE, 1, 100, START);
+        window.record(SCOPE, 2, 50, START + 30 * MINUTE);
+        
+        assertEquals(1L, window.top(SCOPE, 1, START + 59 * MINUTE).get(0).productId());
+        
+        List<SlidingTopK.Ranked> later = window.top(SCOPE, 5, START + 61 * MINUTE);
+        assertEquals(List.of(new SlidingTopK.Ranked(2, 50)), later);
+        assertTrue(window.top(SCOPE, 5, START + 3 * 60 * MINUTE).isEmpty());
+    }
+    
+    @Test
+    void snapshotRestoresCountsAndCandidates() throws IOException {
+        SlidingTopK window = window();
+        window.record(SCOPE, 1, 10, START);
+        window.record(SCOPE, 2, 20, START + 10 * MINUTE);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        window.write(new DataOutputStream(bytes));
+        SlidingTopK restored = window();
+        restored.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        assertEquals(window.top(SCOPE, 5, START + 20 * MINUTE), restored.top(SCOPE, 5, START + 20 * MINUTE));
+        // The slot written at START expires once the window moves past it
+        assertEquals(List.of(new SlidingTopK.Ranked(2, 20)), restored.top(SCOPE, 5, START + 62 * MINUTE));
+        
+        SlidingTopK differentShape = new SlidingTopK(Duration.ofHours(1), 6, 1024, 4, 20);
+        assertThrows(IOException.class,
+                () -> differentShape.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+}
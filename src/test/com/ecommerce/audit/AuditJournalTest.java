@@ -0,0 +1,80 @@
+package com.ecommerce.audit;
+
+import com.ecommerce.config.AuditProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    private AuditProperties properties;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new AuditProperties();
+        properties.setDirectory(directory.toString());
+        // Ten records per segment and a ring smaller than the burst, so rotation and back-pressure both happen
+        properties.setSegmentSize(DataSize.ofBytes(10L * AuditRecord.SIZE));
+        properties.setRingCapacity(16);
+    }
+    
+    @Test
+    void recordsSurviveRotationAndRestart() throws Exception {
+        AuditJournal journal = new AuditJournal(properties);
+        journal.start();
+        for (int i = 1; i <= 25; i++) {
+            journal.inventory(AuditEventType.STOCK_ADDED, (long) i, 100L + i, 7L, i);
+        }
+        journal.stop();
+        
+        AuditJournal restarted = new AuditJournal(properties);
+        restarted.start();
+        restarted.inventory(AuditEventType.STOCK_REMOVED, 99L, null, null, 3);
+        restarted.stop();
+        
+        List<AuditRecord> records = new ArrayList<>();
+        long next = new AuditJournalReader(directory).scan(0, record -> true, records::add);
+        
+        assertEquals(26, records.size());
+        assertEquals(26, next);
+        assertEquals(3, AuditSegments.list(directory).size());
+        for (int i = 0; i < 25; i++) {
+            AuditRecord record = records.get(i);
+            assertEquals(i, record.sequence());
+            assertEquals(AuditEventType.STOCK_ADDED, record.type());
+            assertEquals(i + 1, record.inventoryId());
+            assertEquals(101 + i, record.productId());
+            assertEquals(i + 1, record.quantity());
+        }
+        AuditRecord last = records.get(25);
+        assertEquals(25, last.sequence());
+        assertEquals(AuditEventType.STOCK_REMOVED, last.type());
+        assertEquals(0, last.productId());
+    }
+    
+    @Test
+    void scanResumesFromSequenceAndFilters() throws Exception {
+        AuditJournal journal = new AuditJournal(properties);
+        journal.start();
+        for (int i = 1; i <= 12; i++) {
+            journal.inventory(i % 2 == 0 ? AuditEventType.STOCK_RESERVED : AuditEventType.RESERVATION_RELEASED,
+                    (long) i, 5L, 1L, 1);
+        }
+        journal.stop();
+        
+        List<AuditRecord> reserved = new ArrayList<>();
+        new AuditJournalReader(directory).scan(6, record -> record.type() == AuditEventType.STOCK_RESERVED, reserved::add);
+        
+        assertEquals(List.of(7L, 9L, 11L), reserved.stream().map(AuditRecord::sequence).toList());
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.*;
+import com.ecommerce.serialization.EntityJsonSerializers;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the hot read payloads per wire format, with default bean serialization
+ * ("reflective") versus the hand-written serializers ("tuned").
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.ecommerce.benchmark.SerializationBenchmark"}; the payload sizes are
+ * printed before the JMH run. It needs its own JVM ({@code exec:java} would hand the forked benchmark
+ * JVM Maven's class path instead of the test class path).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    
+    @Param({"json", "cbor", "smile"})
+    public String format;
+    
+    @Param({"reflective", "tuned"})
+    public String serializers;
+    
+    private Order order;
+    private Inventory inventory;
+    private ObjectWriter writer;
+    
+    @Setup
+    public void setUp() {
+        order = sampleOrder(5);
+        inventory = sampleInventory();
+        writer = mapper(format, "tuned".equals(serializers)).writer();
+    }
+    
+    @Benchmark
+    public byte[] order() throws Exception {
+        return writer.writeValueAsBytes(order);
+    }
+    
+    @Benchmark
+    public byte[] inventory() throws Exception {
+        return writer.writeValueAsBytes(inventory);
+    }
+    
+    static ObjectMapper mapper(String format, boolean tuned) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (tuned) {
+            mapper.registerModule(EntityJsonSerializers.module());
+        }
+        return mapper;
+    }
+    
+    static Order sampleOrder(int items) {
+        Warehouse warehouse = Warehouse.builder()
+                .id(1L).code("WH001").name("East Coast Distribution").address("1 Main St")
+                .city("New York").state("NY").zipCode("10001").active(true)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now())
+                .build();
+        
+        Order order = new Order();
+        order.setId(42L);
+        order.setOrderNumber("ORD-1A2B3C4D");
+        order.setCustomerEmail("customer@example.com");
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setWarehouse(warehouse);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            Product product = sampleProduct(i + 1L);
+            OrderItem item = new OrderItem();
+            item.setId(100L + i);
+            item.setProduct(product);
+            item.setQuantity(i + 1);
+            item.setUnitPrice(product.getPrice());
+            item.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(i + 1)));
+            order.addItem(item);
+            total = total.add(item.getSubtotal());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+    
+    static Inventory sampleInventory() {
+        return Inventory.builder()
+                .id(7L)
+                .product(sampleProduct(1L))
+                .warehouse(sampleOrder(0).getWarehouse())
+                .quantity(120).reservedQuantity(15).reorderLevel(10).reorderQuantity(50)
+                .bucketCount(0).bucketQuantity(0).bucketReservedQuantity(0)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now())
+                .build();
+    }
+    
+    private static Product sampleProduct(Long id) {
+        return Product.builder()
+                .id(id).sku("SKU-" + id).name("Product " + id)
+                .description("A reasonably sized product description for benchmarking purposes")
+                .price(new BigDecimal("49.99")).category("Electronics").brand("Acme").active(true)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now())
+                .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-6s %-11s %12s %16s%n", "format", "serializers", "order bytes", "inventory bytes");
+        for (String format : new String[] {"json", "cbor", "smile"}) {
+            for (boolean tuned : new boolean[] {false, true}) {
+                ObjectMapper mapper = mapper(format, tuned);
+                System.out.printf("%-6s %-11s %12d %16d%n", format, tuned ? "tuned" : "reflective",
+                        mapper.writeValueAsBytes(sampleOrder(5)).length,
+                        mapper.writeValueAsBytes(sampleInventory()).length);
+            }
+        }
+        
+        new Runner(new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.capture;
+
+import com.ecommerce.config.CaptureProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficCaptureTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void recordsSurviveRotationInOrder() throws Exception {
+        CaptureProperties properties = new CaptureProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        // A few records per file, so rotation happens
+        properties.setFileSize(DataSize.ofBytes(200));
+        
+        TrafficCapture capture = new TrafficCapture(properties);
+        capture.start();
+        for (int i = 1; i <= 20; i++) {
+            capture.record(new CaptureRecord(1_000_000L * i, 500, 201, 100 + i, "POST", "/api/orders",
+                    "application/json", "", ("{\"warehouseId\":" + i + "}").getBytes(StandardCharsets.UTF_8), i == 7));
+        }
+        capture.stop();
+        
+        List<CaptureRecord> records = new ArrayList<>();
+        long count = new CaptureLogReader(directory).read(records::add);
+        
+        assertEquals(20, count);
+        assertTrue(CaptureFiles.list(directory).size() > 1);
+        for (int i = 0; i < 20; i++) {
+            CaptureRecord record = records.get(i);
+            assertEquals(1_000_000L * (i + 1), record.timestampMicros());
+            assertEquals(101 + i, record.createdId());
+            assertEquals("{\"warehouseId\":" + (i + 1) + "}", new String(record.body(), StandardCharsets.UTF_8));
+            assertEquals(i == 6, record.truncated());
+        }
+    }
+    
+    @Test
+    void readsVersionOneFilesWithoutFlags() throws Exception {
+        Path file = directory.resolve(CaptureFiles.fileName(1));
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(CaptureFiles.MAGIC);
+            out.writeShort(1);
+            out.writeLong(1_000_000L);
+            out.writeInt(500);
+            out.writeShort(200);
+            out.writeLong(0);
+            out.writeUTF("GET");
+            out.writeUTF("/api/orders/5");
+            out.writeUTF("");
+            out.writeUTF("application/json");
+            out.writeInt(0);
+        }
+        
+        List<CaptureRecord> records = new ArrayList<>();
+        new CaptureLogReader(directory).read(records::add);
+        
+        assertEquals(1, records.size());
+        assertEquals("/api/orders/5", records.get(0).path());
+        assertFalse(records.get(0).truncated());
+    }
+    
+    @Test
+    void remapsCreatedAndFixedIds() {
+        IdRemapper remapper = new IdRemapper();
+        remapper.map(IdRemapper.Kind.PRODUCT, 5, 50);
+        remapper.map(IdRemapper.Kind.WAREHOUSE, 1, 10);
+        CompletableFuture<Long> created = remapper.expectCreated(IdRemapper.Kind.ORDER, 77);
+        
+        CompletableFuture<String> confirm = remapper.path("/api/orders/77/confirm");
+        assertFalse(confirm.isDone());
+        created.complete(1234L);
+        assertEquals("/api/orders/1234/confirm", confirm.join());
+        
+        assertEquals("/api/orders/78", remapper.path("/api/orders/78").join());
+        assertEquals("/api/inventory/50/10", remapper.path("/api/inventory/5/1").join());
+        assertEquals("/api/inventory?productId=50&warehouseId=10&initialQuantity=3",
+                remapper.path("/api/inventory?productId=5&warehouseId=1&initialQuantity=3").join());
+        
+        byte[] body = "{\"warehouseId\": 1, \"items\": [{\"productId\": 5, \"quantity\": 2}]}".getBytes(StandardCharsets.UTF_8);
+        assertEquals("{\"warehouseId\":10, \"items\": [{\"productId\":50, \"quantity\": 2}]}",
+                new String(remapper.body("/api/orders", body), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void callsOnFailedCreatesAreSkipped() {
+        IdRemapper remapper = new IdRemapper();
+        remapper.expectCreated(IdRemapper.Kind.INVENTORY, 9).complete(null);
+        
+        assertNull(remapper.path("/api/inventory/9/add?quantity=3").join());
+    }
+}
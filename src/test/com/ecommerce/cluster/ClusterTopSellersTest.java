@@ -0,0 +1,100 @@
+package com.ecommerce.cluster;
+
+import com.ecommerce.config.ClusterProperties;
+import com.ecommerce.config.TopSellerProperties;
+import com.ecommerce.dto.TopSeller;
+import com.ecommerce.event.OrderConfirmedEvent;
+import com.ecommerce.service.TopSellerService;
+import com.ecommerce.web.OwnerRoutingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClusterTopSellersTest {
+    
+    private final TopSellerProperties topSellerProperties = new TopSellerProperties();
+    private final AtomicReference<String> remoteQuery = new AtomicReference<>();
+    private final AtomicReference<String> remoteForwardedBy = new AtomicReference<>();
+    private HttpServer remote;
+    private int remoteStatus = 200;
+    private String remoteBody;
+    private ClusterTopSellers clusterTopSellers;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        remote = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        remote.createContext("/api/reports/top-sellers", exchange -> {
+            remoteQuery.set(exchange.getRequestURI().getQuery());
+            remoteForwardedBy.set(exchange.getRequestHeaders().getFirst(OwnerRoutingFilter.FORWARDED_HEADER));
+            byte[] body = remoteBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(remoteStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        remote.start();
+        
+        TopSellerService topSellerService = new TopSellerService(topSellerProperties);
+        topSellerService.onOrderConfirmed(new OrderConfirmedEvent(1L, LocalDateTime.now(),
+                Map.of(1L, 5, 2L, 3), Map.of(1L, "tools", 2L, "tools")));
+        
+        ClusterProperties properties = new ClusterProperties();
+        properties.setNodeId("node-a");
+        WarehouseOwnershipService ownership = mock(WarehouseOwnershipService.class);
+        when(ownership.nodeId()).thenReturn("node-a");
+        when(ownership.members()).thenReturn(Map.of("node-a", "http://127.0.0.1:1",
+                "node-b", "http://127.0.0.1:" + remote.getAddress().getPort()));
+        clusterTopSellers = new ClusterTopSellers(topSellerService, topSellerProperties, ownership, properties,
+                new ObjectMapper());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        remote.stop(0);
+    }
+    
+    @Test
+    void getTopSellers_ShouldSumUnitsOfEveryNode() {
+        // Arrange: node-b sold product 2 before the warehouse moved, and product 3
+        remoteBody = "[{\"productId\":2,\"units\":4},{\"productId\":3,\"units\":1}]";
+        
+        // Act
+        Optional<List<TopSeller>> result = clusterTopSellers.getTopSellers(TopSellerService.Window.HOUR, "tools", null, 2);
+        
+        // Assert: every node is asked for all of its candidates, and only the forwarded call answers locally
+        assertEquals(Optional.of(List.of(new TopSeller(2L, 7), new TopSeller(1L, 5))), result);
+        assertEquals("window=HOUR&limit=" + topSellerProperties.getCandidates() + "&category=tools", remoteQuery.get());
+        assertEquals("node-a", remoteForwardedBy.get());
+    }
+    
+    @Test
+    void getTopSellers_WhenNodeFails_ShouldReturnEmpty() {
+        // Arrange
+        remoteStatus = 500;
+        remoteBody = "{}";
+        
+        // Act & Assert
+        assertTrue(clusterTopSellers.getTopSellers(TopSellerService.Window.DAY, null, 1L, 10).isEmpty());
+    }
+    
+    @Test
+    void getTopSellers_WithLimitAboveCandidates_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> clusterTopSellers.getTopSellers(
+                TopSellerService.Window.HOUR, null, null, topSellerProperties.getCandidates() + 1));
+    }
+}
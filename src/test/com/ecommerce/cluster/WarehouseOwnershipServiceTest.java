@@ -0,0 +1,217 @@
+package com.ecommerce.cluster;
+
+import com.ecommerce.config.ClusterProperties;
+import com.ecommerce.event.WarehouseOwnershipChangedEvent;
+import com.ecommerce.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WarehouseOwnershipServiceTest {
+    
+    private static final List<Long> WAREHOUSES = LongStream.rangeClosed(1, 200).boxed().toList();
+    
+    private final AtomicLong clock = new AtomicLong();
+    private InMemoryClusterCoordinator coordinator;
+    private WarehouseRepository warehouseRepository;
+    // The heartbeat thread publishes into this too
+    private List<WarehouseOwnershipChangedEvent> events;
+    
+    @BeforeEach
+    void setUp() {
+        coordinator = new InMemoryClusterCoordinator(clock::get);
+        warehouseRepository = mock(WarehouseRepository.class);
+        when(warehouseRepository.findAllIds()).thenReturn(WAREHOUSES);
+        events = new CopyOnWriteArrayList<>();
+    }
+    
+    @Test
+    void joiningNodeTakesOverItsShareWithoutDoubleOwnership() {
+        WarehouseOwnershipService a = node("a");
+        a.start();
+        assertEquals(WAREHOUSES.size(), a.ownedWarehouses().size());
+        
+        WarehouseOwnershipService b = node("b");
+        b.start();
+        // a still holds every lease, so b cannot take anything yet
+        assertTrue(b.ownedWarehouses().isEmpty());
+        assertExclusive(a, b);
+        
+        a.rebalance();
+        assertExclusive(a, b);
+        b.rebalance();
+        assertExclusive(a, b);
+        
+        assertEquals(WAREHOUSES.size(), a.ownedWarehouses().size() + b.ownedWarehouses().size());
+        assertTrue(b.ownedWarehouses().size() > 60 && b.ownedWarehouses().size() < 140,
+                "Uneven split: " + b.ownedWarehouses().size());
+        for (Long warehouseId : WAREHOUSES) {
+            String owner = a.isOwner(warehouseId) ? "a" : "b";
+            assertEquals(owner, a.ownerOf(warehouseId));
+            assertEquals(owner, b.ownerOf(warehouseId));
+        }
+        long handedOff = events.stream().filter(event -> !event.acquired()).count();
+        assertEquals(b.ownedWarehouses().size(), handedOff);
+    }
+    
+    @Test
+    void gracefulLeaveHandsOffOnTheNextHeartbeat() {
+        WarehouseOwnershipService a = node("a");
+        WarehouseOwnershipService b = node("b");
+        a.start();
+        b.start();
+        a.rebalance();
+        b.rebalance();
+        
+        b.stop();
+        a.rebalance();
+        
+        assertEquals(WAREHOUSES.size(), a.ownedWarehouses().size());
+        assertTrue(b.ownedWarehouses().isEmpty());
+    }
+    
+    @Test
+    void crashedNodeIsReplacedOnceItsLeasesExpire() {
+        WarehouseOwnershipService a = node("a");
+        WarehouseOwnershipService b = node("b");
+        a.start();
+        b.start();
+        a.rebalance();
+        b.rebalance();
+        Set<Long> orphaned = b.ownedWarehouses();
+        
+        // b stops heartbeating without leaving
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        a.rebalance();
+        assertTrue(orphaned.stream().noneMatch(a::isOwner), "Took over before the leases expired");
+        
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertTrue(orphaned.stream().noneMatch(b::isOwner), "Stalled node still acts as owner");
+        a.rebalance();
+        assertTrue(orphaned.stream().allMatch(a::isOwner));
+        
+        // b wakes up, finds its leases gone and reports them as lost rather than handed off
+        b.rebalance();
+        assertEquals(orphaned, events.stream()
+                .filter(WarehouseOwnershipChangedEvent::leaseLost)
+                .map(WarehouseOwnershipChangedEvent::warehouseId)
+                .collect(Collectors.toSet()));
+    }
+    
+    @Test
+    void heartbeatsRunOnTheirOwnThread() throws Exception {
+        // Counts heartbeats without a Spring scheduler in the test, so they can only come from the service itself
+        CountDownLatch heartbeats = new CountDownLatch(5);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        ClusterCoordinator counting = new DelegatingCoordinator(coordinator) {
+            @Override
+            public void heartbeat(String nodeId, String url, Duration lease) {
+                super.heartbeat(nodeId, url, lease);
+                threads.add(Thread.currentThread().getName());
+                heartbeats.countDown();
+            }
+        };
+        ClusterProperties properties = properties("a");
+        properties.setHeartbeatInterval(20);
+        WarehouseOwnershipService a = new WarehouseOwnershipService(properties, counting, warehouseRepository,
+                event -> events.add((WarehouseOwnershipChangedEvent) event), clock::get);
+        
+        try {
+            a.start();
+            assertTrue(heartbeats.await(2, TimeUnit.SECONDS), "Heartbeats stopped after " + (5 - heartbeats.getCount()));
+        } finally {
+            a.stop();
+        }
+        assertTrue(threads.contains("cluster-heartbeat"), "Heartbeats ran on " + threads);
+    }
+    
+    @Test
+    void ringOnlyMovesWarehousesToTheNewNode() {
+        ConsistentHashRing two = new ConsistentHashRing(List.of("a", "b"), 64);
+        ConsistentHashRing three = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        
+        int moved = 0;
+        for (long warehouseId = 1; warehouseId <= 10_000; warehouseId++) {
+            String before = two.ownerOf(warehouseId);
+            String after = three.ownerOf(warehouseId);
+            if (!before.equals(after)) {
+                assertEquals("c", after);
+                moved++;
+            }
+        }
+        assertTrue(moved > 2_000 && moved < 4_700, "Moved " + moved);
+    }
+    
+    private WarehouseOwnershipService node(String nodeId) {
+        return new WarehouseOwnershipService(properties(nodeId), coordinator, warehouseRepository, event ->
+                events.add((WarehouseOwnershipChangedEvent) event), clock::get);
+    }
+    
+    private static ClusterProperties properties(String nodeId) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId(nodeId);
+        properties.setAdvertisedUrl("http://" + nodeId);
+        return properties;
+    }
+    
+    private void assertExclusive(WarehouseOwnershipService first, WarehouseOwnershipService second) {
+        Set<Long> overlap = new HashSet<>(first.ownedWarehouses());
+        overlap.retainAll(second.ownedWarehouses());
+        assertTrue(overlap.isEmpty(), "Owned by both: " + overlap);
+    }
+    
+    private static class DelegatingCoordinator implements ClusterCoordinator {
+        
+        private final ClusterCoordinator delegate;
+        
+        DelegatingCoordinator(ClusterCoordinator delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void heartbeat(String nodeId, String url, Duration lease) {
+            delegate.heartbeat(nodeId, url, lease);
+        }
+        
+        @Override
+        public Map<String, String> liveMembers() {
+            return delegate.liveMembers();
+        }
+        
+        @Override
+        public void leave(String nodeId) {
+            delegate.leave(nodeId);
+        }
+        
+        @Override
+        public boolean acquire(long warehouseId, String nodeId, Duration lease) {
+            return delegate.acquire(warehouseId, nodeId, lease);
+        }
+        
+        @Override
+        public Set<Long> renew(String nodeId, Duration lease) {
+            return delegate.renew(nodeId, lease);
+        }
+        
+        @Override
+        public void release(long warehouseId, String nodeId) {
+            delegate.release(warehouseId, nodeId);
+        }
+    }
+}
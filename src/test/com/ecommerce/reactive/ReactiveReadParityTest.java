@@ -0,0 +1,96 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.MySqlContainerTest;
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Warehouse;
+import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.WarehouseRepository;
+import com.ecommerce.service.InventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The Netty routes must return the same payloads as the servlet endpoints they mirror.
+ */
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = {"ecommerce.reactive-read.enabled=true", "ecommerce.reactive-read.port=0"})
+class ReactiveReadParityTest extends MySqlContainerTest {
+    
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ReactiveReadServer reactiveReadServer;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private InventoryService inventoryService;
+    
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    
+    private Inventory inventory;
+    private Inventory sharded;
+    
+    @BeforeAll
+    void seed() {
+        Product product = productRepository.save(Product.builder()
+                .sku("PARITY-1").name("Parity product").price(new BigDecimal("12.50"))
+                .category("parity").brand("Acme").active(true).build());
+        Warehouse first = warehouseRepository.save(Warehouse.builder()
+                .code("WH-PARITY-1").name("Parity one").address("1 Main St").city("Springfield")
+                .state("IL").zipCode("62701").active(true).build());
+        Warehouse second = warehouseRepository.save(Warehouse.builder()
+                .code("WH-PARITY-2").name("Parity two").address("2 Main St").city("Springfield")
+                .state("IL").zipCode("62701").active(true).build());
+        inventory = inventoryRepository.save(Inventory.builder()
+                .product(product).warehouse(first).quantity(40).reservedQuantity(5)
+                .reorderLevel(10).reorderQuantity(50).bucketCount(0).build());
+        sharded = inventoryRepository.save(Inventory.builder()
+                .product(product).warehouse(second).quantity(90).reservedQuantity(0)
+                .reorderLevel(10).reorderQuantity(50).bucketCount(0).build());
+        inventoryService.shardInventory(sharded.getId(), 3);
+    }
+    
+    @Test
+    void reactiveRoutes_ShouldMatchServletPayloads() throws Exception {
+        Long productId = inventory.getProduct().getId();
+        List<String> paths = List.of(
+                "/api/inventory/" + inventory.getId(),
+                "/api/inventory/" + sharded.getId(),
+                "/api/inventory/" + productId + "/" + inventory.getWarehouse().getId(),
+                "/api/inventory/product/" + productId,
+                "/api/inventory/product/" + productId + "/available");
+        
+        for (String path : paths) {
+            String servlet = mockMvc.perform(get(path).accept(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse().getContentAsString();
+            HttpResponse<String> reactive = httpClient.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + reactiveReadServer.getPort() + path))
+                    .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                    .timeout(Duration.ofSeconds(10))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            
+            assertEquals(200, reactive.statusCode(), path);
+            assertEquals(objectMapper.readTree(servlet), objectMapper.readTree(reactive.body()), path);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.reactive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveReadServerTest {
+    
+    @Test
+    void r2dbcUrl_ShouldSwapSchemeAndDropJdbcOptions() {
+        assertEquals("r2dbc:mysql://db.internal:3307/ecommerce",
+                ReactiveReadServer.r2dbcUrl("jdbc:mysql://db.internal:3307/ecommerce?rewriteBatchedStatements=true"));
+        assertEquals("r2dbc:mysql://localhost:3306/ecommerce",
+                ReactiveReadServer.r2dbcUrl("jdbc:mysql://localhost:3306/ecommerce"));
+    }
+    
+    @Test
+    void r2dbcUrl_WhenNotJdbc_ShouldThrow() {
+        assertThrows(IllegalStateException.class, () -> ReactiveReadServer.r2dbcUrl(null));
+        assertThrows(IllegalStateException.class, () -> ReactiveReadServer.r2dbcUrl("r2dbc:mysql://localhost/ecommerce"));
+    }
+}
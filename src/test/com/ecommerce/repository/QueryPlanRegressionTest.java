@@ -0,0 +1,273 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.MySqlContainerTest;
+import com.ecommerce.model.Order.OrderStatus;
+import com.ecommerce.model.SalesRollup.Granularity;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every declared repository query against a seeded database and EXPLAINs each statement it sends.
+ * A query that falls back to a full table scan or a filesort fails the build unless it is listed
+ * below with the reason it is expected.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest extends MySqlContainerTest {
+    
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            ProductRepository.class, WarehouseRepository.class, InventoryRepository.class,
+            InventoryBucketRepository.class, OrderRepository.class, SalesRollupRepository.class,
+            OrderArchiveBatchRepository.class, OrderArchiveEntryRepository.class);
+    
+    private static final Set<String> ALLOW_FULL_SCAN = Set.of(
+            // Returns most of the catalog; an index on a boolean would not be used
+            "ProductRepository.findByActiveTrue",
+            // Leading-wildcard LIKE cannot use a B-tree index
+            "ProductRepository.searchProducts",
+            // Compares computed columns of every row
+            "InventoryRepository.findItemsNeedingReorder");
+    
+    private static final Set<String> ALLOW_FILESORT = Set.of(
+            // Ordered by an aggregate
+            "SalesRollupRepository.findProductTotals",
+            // Grouped by an hour bucket computed from created_at
+            "SalesRollupRepository.aggregateOrderRange",
+            // IN over statuses plus a range on updated_at cannot also deliver id order
+            "OrderRepository.findArchivableOrderIds");
+    
+    private static final String[] SEED = {
+            "SET SESSION cte_max_recursion_depth = 100000",
+            "INSERT INTO warehouses (code, name, address, city, state, zip_code, active, created_at, updated_at) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 50) " +
+            "SELECT CONCAT('WH-', n), CONCAT('Warehouse ', n), '1 Main St', 'Springfield', 'IL', '62701', TRUE, NOW(6), NOW(6) FROM seq",
+            "INSERT INTO products (sku, name, description, price, category, brand, active, content_hash, created_at, updated_at) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10000) " +
+            "SELECT CONCAT('SKU-', n), CONCAT('Product ', n), CONCAT('Description of product ', n), (n % 500) + 0.99, " +
+            "CONCAT('cat-', n % 100), CONCAT('brand-', n % 200), n % 10 <> 0, SHA2(CONCAT('SKU-', n), 256), NOW(6), NOW(6) FROM seq",
+            "INSERT INTO inventory (product_id, warehouse_id, quantity, reserved_quantity, reorder_level, reorder_quantity, " +
+            "bucket_count, created_at, updated_at) " +
+            "SELECT p.id, w.id, p.id % 200, 0, 10, 50, 0, NOW(6), NOW(6) FROM products p JOIN warehouses w ON w.id % 25 = p.id % 25",
+            "INSERT INTO inventory_buckets (inventory_id, bucket_index, quantity, reserved_quantity, updated_at) " +
+            "SELECT i.id, b.n, 25, 0, NOW(6) FROM inventory i " +
+            "CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3) b WHERE i.id % 500 = 0",
+            "UPDATE inventory SET bucket_count = 4 WHERE id % 500 = 0",
+            // Skewed toward DELIVERED, as in a store with history
+            "INSERT INTO orders (order_number, customer_email, status, total_amount, warehouse_id, created_at, updated_at) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000) " +
+            "SELECT CONCAT('ORD-', n), CONCAT('customer', n % 2000, '@example.com'), " +
+            "ELT(LEAST(n % 50, 5) + 1, 'PENDING', 'CONFIRMED', 'PROCESSING', 'SHIPPED', 'CANCELLED', 'DELIVERED'), " +
+            "20.00, (n % 50) + 1, NOW(6) - INTERVAL n MINUTE, NOW(6) - INTERVAL n MINUTE FROM seq",
+            "INSERT INTO order_items (order_id, product_id, quantity, unit_price, subtotal) " +
+            "SELECT o.id, ((o.id * 7 + k.n) % 10000) + 1, 1, 10.00, 10.00 FROM orders o " +
+            "CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1) k",
+            "INSERT INTO sales_rollups (granularity, bucket_start, product_id, warehouse_id, units, revenue, order_count) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 19999) " +
+            "SELECT ELT((n % 2) + 1, 'HOUR', 'DAY'), TIMESTAMP('2024-01-01') + INTERVAL (n DIV 20) HOUR, " +
+            "(n % 20) + 1, 1, 1, 10.00, 1 FROM seq",
+            "INSERT INTO order_archive_batches (object_key, order_count, min_order_id, max_order_id, max_created_at, " +
+            "size_bytes, created_at) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000) " +
+            "SELECT CONCAT('orders/batch-', n), 1000, n * 1000, n * 1000 + 999, " +
+            "IF(n % 100 = 0, NULL, TIMESTAMP('2023-01-01') + INTERVAL n HOUR), 65536, NOW(6) FROM seq",
+            "ANALYZE TABLE warehouses, products, inventory, inventory_buckets, orders, order_items, sales_rollups, " +
+            "order_archive_batches"
+    };
+    
+    @Autowired private ProductRepository productRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private InventoryBucketRepository bucketRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private SalesRollupRepository rollupRepository;
+    @Autowired private OrderArchiveBatchRepository batchRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate rollbackOnly;
+    
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute((Connection connection) -> {
+            try (var statement = connection.createStatement()) {
+                for (String sql : SEED) {
+                    statement.execute(sql);
+                }
+            }
+            return null;
+        });
+        rollbackOnly = new TransactionTemplate(transactionManager);
+    }
+    
+    private Map<String, Runnable> cases() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime rollupStart = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Long> ids = List.of(101L, 102L, 103L);
+        
+        Map<String, Runnable> cases = new LinkedHashMap<>();
+        cases.put("ProductRepository.findBySku", () -> productRepository.findBySku("SKU-42"));
+        cases.put("ProductRepository.findByCategory", () -> productRepository.findByCategory("cat-7"));
+        cases.put("ProductRepository.findByBrand", () -> productRepository.findByBrand("brand-13"));
+        cases.put("ProductRepository.findByActiveTrue", () -> productRepository.findByActiveTrue());
+        cases.put("ProductRepository.findUpdatedAtById", () -> productRepository.findUpdatedAtById(42L));
+        cases.put("ProductRepository.findCatalogState", () -> productRepository.findCatalogState());
+        cases.put("ProductRepository.findListingAttributesAfter",
+                () -> productRepository.findListingAttributesAfter(1000L, PageRequest.of(0, 500)));
+        cases.put("ProductRepository.findListingAttributesByIdIn", () -> productRepository.findListingAttributesByIdIn(ids));
+        cases.put("ProductRepository.searchProducts", () -> productRepository.searchProducts("product 42"));
+        
+        cases.put("WarehouseRepository.findByCode", () -> warehouseRepository.findByCode("WH-7"));
+        cases.put("WarehouseRepository.findAllIds", () -> warehouseRepository.findAllIds());
+        
+        cases.put("InventoryRepository.findByProductIdAndWarehouseId",
+                () -> inventoryRepository.findByProductIdAndWarehouseId(42L, 17L));
+        cases.put("InventoryRepository.findByProductId", () -> inventoryRepository.findByProductId(42L));
+        cases.put("InventoryRepository.findByWarehouseId", () -> inventoryRepository.findByWarehouseId(7L));
+        cases.put("InventoryRepository.findForUpdate", inTransaction(() -> inventoryRepository.findForUpdate(42L)));
+        cases.put("InventoryRepository.findItemsNeedingReorder", () -> inventoryRepository.findItemsNeedingReorder());
+        cases.put("InventoryRepository.addStock", inTransaction(() -> inventoryRepository.addStock(42L, 1)));
+        cases.put("InventoryRepository.removeStock", inTransaction(() -> inventoryRepository.removeStock(42L, 1)));
+        cases.put("InventoryRepository.removeFreeStock", inTransaction(() -> inventoryRepository.removeFreeStock(42L, 1)));
+        cases.put("InventoryRepository.reserveStock", inTransaction(() -> inventoryRepository.reserveStock(42L, 1)));
+        cases.put("InventoryRepository.releaseReservedStock",
+                inTransaction(() -> inventoryRepository.releaseReservedStock(42L, 1)));
+        cases.put("InventoryRepository.confirmReservedStock",
+                inTransaction(() -> inventoryRepository.confirmReservedStock(42L, 1)));
+        cases.put("InventoryRepository.releaseReservedStockIfHeld",
+                inTransaction(() -> inventoryRepository.releaseReservedStockIfHeld(42L, 1)));
+        cases.put("InventoryRepository.findStockLevels", () -> inventoryRepository.findStockLevels(ids));
+        cases.put("InventoryRepository.findVersionsById", () -> inventoryRepository.findVersionsById(500L));
+        cases.put("InventoryRepository.findVersionsByProductIdAndWarehouseId",
+                () -> inventoryRepository.findVersionsByProductIdAndWarehouseId(42L, 17L));
+        cases.put("InventoryRepository.findRowsAfter",
+                () -> inventoryRepository.findRowsAfter(1000L, PageRequest.of(0, 500)));
+        cases.put("InventoryRepository.findRowsByIdIn", () -> inventoryRepository.findRowsByIdIn(ids));
+        
+        cases.put("InventoryBucketRepository.findForUpdate", inTransaction(() -> bucketRepository.findForUpdate(500L)));
+        cases.put("InventoryBucketRepository.reserveStock", inTransaction(() -> bucketRepository.reserveStock(500L, 0, 1)));
+        cases.put("InventoryBucketRepository.releaseReservedStock",
+                inTransaction(() -> bucketRepository.releaseReservedStock(500L, 0, 1)));
+        cases.put("InventoryBucketRepository.confirmReservedStock",
+                inTransaction(() -> bucketRepository.confirmReservedStock(500L, 0, 1)));
+        cases.put("InventoryBucketRepository.removeStock", inTransaction(() -> bucketRepository.removeStock(500L, 0, 1)));
+        cases.put("InventoryBucketRepository.addStock", inTransaction(() -> bucketRepository.addStock(500L, 0, 1)));
+        cases.put("InventoryBucketRepository.deleteByInventoryId",
+                inTransaction(() -> bucketRepository.deleteByInventoryId(500L)));
+        
+        cases.put("OrderRepository.findByOrderNumber", () -> orderRepository.findByOrderNumber("ORD-42"));
+        cases.put("OrderRepository.findByCustomerEmail",
+                () -> orderRepository.findByCustomerEmail("customer7@example.com"));
+        cases.put("OrderRepository.findByStatus", () -> orderRepository.findByStatus(OrderStatus.PENDING));
+        cases.put("OrderRepository.findByCreatedAtBetween",
+                () -> orderRepository.findByCreatedAtBetween(now.minusHours(2), now.minusHours(1)));
+        cases.put("OrderRepository.findByWarehouseId", () -> orderRepository.findByWarehouseId(7L));
+        cases.put("OrderRepository.findArchivableOrderIds", () -> orderRepository.findArchivableOrderIds(
+                List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED), now.minusDays(13), PageRequest.of(0, 500)));
+        cases.put("OrderRepository.findWithItemsById", () -> orderRepository.findWithItemsById(42L));
+        cases.put("OrderRepository.findWithItemsByIdIn", () -> orderRepository.findWithItemsByIdIn(ids));
+        cases.put("OrderRepository.deleteItemsByOrderIdIn", inTransaction(() -> orderRepository.deleteItemsByOrderIdIn(ids)));
+        cases.put("OrderRepository.deleteByIdIn", inTransaction(() -> {
+            orderRepository.deleteItemsByOrderIdIn(ids);
+            orderRepository.deleteByIdIn(ids);
+        }));
+        
+        cases.put("SalesRollupRepository.findSeries", () -> rollupRepository.findSeries(
+                Granularity.HOUR, rollupStart, rollupStart.plusDays(1), null, null));
+        cases.put("SalesRollupRepository.findProductTotals", () -> rollupRepository.findProductTotals(
+                Granularity.DAY, rollupStart, rollupStart.plusDays(7), null));
+        cases.put("SalesRollupRepository.deleteRollupsBetween", inTransaction(() -> rollupRepository.deleteRollupsBetween(
+                Granularity.HOUR, rollupStart, rollupStart.plusDays(1))));
+        cases.put("SalesRollupRepository.findOrderIdRange",
+                () -> rollupRepository.findOrderIdRange(now.minusDays(1), now));
+        cases.put("SalesRollupRepository.aggregateOrderRange",
+                () -> rollupRepository.aggregateOrderRange(1L, 500L, now.minusDays(30), now));
+        
+        cases.put("OrderArchiveBatchRepository.findByMaxCreatedAtIsNull", () -> batchRepository.findByMaxCreatedAtIsNull());
+        cases.put("OrderArchiveBatchRepository.findNewestCreatedAt", () -> batchRepository.findNewestCreatedAt());
+        return cases;
+    }
+    
+    @Test
+    void everyDeclaredRepositoryMethodHasAPlanCase() {
+        Set<String> covered = cases().keySet();
+        List<String> missing = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                String key = repository.getSimpleName() + "." + method.getName();
+                if (!method.isDefault() && !Modifier.isStatic(method.getModifiers()) && !covered.contains(key)) {
+                    missing.add(key);
+                }
+            }
+        }
+        assertTrue(missing.isEmpty(), "Repository methods without a query plan case: " + missing);
+    }
+    
+    @Test
+    void repositoryQueriesAvoidFullScansAndFilesorts() {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Runnable> entry : cases().entrySet()) {
+            String key = entry.getKey();
+            SqlCapture.start();
+            try {
+                entry.getValue().run();
+            } finally {
+                for (String sql : SqlCapture.stop()) {
+                    if (isExplainable(sql)) {
+                        violations.addAll(checkPlan(key, sql));
+                    }
+                }
+            }
+        }
+        assertTrue(violations.isEmpty(), "Query plan regressions:\n" + String.join("\n", violations));
+    }
+    
+    private List<String> checkPlan(String key, String sql) {
+        List<String> violations = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+            Object table = row.get("table");
+            // Derived tables and "no tables used" rows say nothing about index use
+            if (table == null || table.toString().startsWith("<")) {
+                continue;
+            }
+            String extra = String.valueOf(row.get("Extra"));
+            if ("ALL".equals(row.get("type")) && !ALLOW_FULL_SCAN.contains(key)) {
+                violations.add(key + ": full scan of " + table + " in " + sql);
+            }
+            if (extra.contains("Using filesort") && !ALLOW_FILESORT.contains(key)) {
+                violations.add(key + ": filesort on " + table + " in " + sql);
+            }
+        }
+        return violations;
+    }
+    
+    private static boolean isExplainable(String sql) {
+        String statement = sql.trim().toLowerCase(Locale.ROOT);
+        return (statement.startsWith("select") || statement.startsWith("update") || statement.startsWith("delete"))
+                && !statement.contains("@@");
+    }
+    
+    private Runnable inTransaction(Runnable work) {
+        return () -> rollbackOnly.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            work.run();
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.repository;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Connector/J interceptor that records statements with their bound values inlined, so tests can
+ * EXPLAIN exactly what a repository method sent. Registered through the {@code queryInterceptors} URL parameter.
+ */
+public class SqlCapture implements QueryInterceptor {
+    
+    private static final List<String> captured = new ArrayList<>();
+    private static volatile boolean recording;
+    
+    public static synchronized void start() {
+        captured.clear();
+        recording = true;
+    }
+    
+    public static synchronized List<String> stop() {
+        recording = false;
+        return new ArrayList<>(captured);
+    }
+    
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+    
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        if (recording) {
+            synchronized (SqlCapture.class) {
+                captured.add(sql.get());
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+    
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        return null;
+    }
+    
+    @Override
+    public void destroy() {
+    }
+}
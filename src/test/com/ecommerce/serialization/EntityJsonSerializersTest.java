@@ -0,0 +1,56 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.model.Product;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityJsonSerializersTest {
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "cbor", "smile"})
+    void productSerializer_ShouldMatchBeanSerializationInEveryFormat(String format) throws Exception {
+        // Arrange
+        Product product = Product.builder()
+                .id(7L)
+                .sku("SKU-7")
+                .name("Kettle")
+                .price(new BigDecimal("24.90"))
+                .category("Kitchen")
+                .active(true)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 23, 30, 15))
+                .updatedAt(LocalDateTime.of(2024, 3, 2, 0, 5))
+                .build();
+        ObjectMapper reflective = mapper(format);
+        ObjectMapper tuned = mapper(format).registerModule(EntityJsonSerializers.module());
+        
+        // Act
+        JsonNode expected = reflective.readTree(reflective.writeValueAsBytes(product));
+        JsonNode actual = tuned.readTree(tuned.writeValueAsBytes(product));
+        
+        // Assert
+        assertEquals(expected, actual);
+        assertEquals("2024-03-01T23:30:15", actual.get("createdAt").asText());
+    }
+    
+    private static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        return new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
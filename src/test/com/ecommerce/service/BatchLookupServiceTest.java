@@ -0,0 +1,62 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.BatchProperties;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchLookupServiceTest {
+    
+    @Mock
+    private InventoryRepository inventoryRepository;
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    private BatchLookupService batchLookupService;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        batchLookupService.close();
+    }
+    
+    @Test
+    void getProducts_WhenBatchIsStuck_ShouldTimeOut() {
+        // Arrange
+        BatchProperties properties = new BatchProperties();
+        properties.setWindow(Duration.ofMillis(1));
+        properties.setTimeout(Duration.ofMillis(100));
+        batchLookupService = new BatchLookupService(properties, inventoryRepository, productRepository);
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.<Product>of();
+        });
+        
+        // Act
+        long start = System.nanoTime();
+        RuntimeException error = assertThrows(RuntimeException.class, () -> batchLookupService.getProducts(List.of(1L)));
+        
+        // Assert
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CatalogProduct;
+import com.ecommerce.dto.CatalogSyncResult;
+import com.ecommerce.event.CatalogChangedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSyncServiceTest {
+    
+    private static final String INSERT = "INSERT INTO products";
+    private static final String UPDATE = "UPDATE products SET name";
+    private static final String DEACTIVATE = "UPDATE products SET active = FALSE";
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @InjectMocks
+    private CatalogSyncService catalogSyncService;
+    
+    @Test
+    void sync_ShouldDiffFeedAgainstCatalog() {
+        // Arrange
+        CatalogProduct same = entry("SKU-1", "Kettle", "24.90");
+        CatalogProduct changed = entry("SKU-2", "Toaster", "39.00");
+        CatalogProduct inactive = entry("SKU-3", "Blender", "59.00");
+        CatalogProduct added = entry("SKU-5", "Mixer", "89.00");
+        when(productRepository.findCatalogState()).thenReturn(List.of(
+                state("SKU-1", 1L, hash(same), true),
+                state("SKU-2", 2L, hash(entry("SKU-2", "Toaster", "35.00")), true),
+                state("SKU-3", 3L, hash(inactive), false),
+                state("SKU-4", 4L, "stale", true)));
+        
+        // Act
+        CatalogSyncResult result = catalogSyncService.sync(List.of(same, changed, inactive, added), true);
+        
+        // Assert
+        assertEquals(4, result.getReceived());
+        assertEquals(1, result.getInserted());
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getDeactivated());
+        
+        List<Product> inserts = batch(INSERT);
+        assertEquals(List.of("SKU-5"), inserts.stream().map(Product::getSku).toList());
+        assertEquals(hash(added), inserts.get(0).getContentHash());
+        assertEquals(2, batch(UPDATE).size());
+        assertEquals(List.of(4L), batch(DEACTIVATE));
+        verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+    }
+    
+    @Test
+    void sync_WhenDeactivateMissingIsOff_ShouldKeepMissingProducts() {
+        // Arrange
+        when(productRepository.findCatalogState()).thenReturn(List.<Object[]>of(state("SKU-4", 4L, "stale", true)));
+        
+        // Act
+        CatalogSyncResult result = catalogSyncService.sync(List.of(entry("SKU-5", "Mixer", "89.00")), false);
+        
+        // Assert
+        assertEquals(1, result.getInserted());
+        assertEquals(0, result.getDeactivated());
+        assertTrue(batch(DEACTIVATE).isEmpty());
+    }
+    
+    @Test
+    void sync_WhenPriceScaleDiffers_ShouldTreatProductAsUnchanged() {
+        // Arrange: stored at the column scale, re-sent without decimals
+        when(productRepository.findCatalogState()).thenReturn(List.<Object[]>of(
+                state("SKU-1", 1L, hash(entry("SKU-1", "Kettle", "25.00")), true)));
+        
+        // Act
+        CatalogSyncResult result = catalogSyncService.sync(List.of(entry("SKU-1", "Kettle", "25")), true);
+        
+        // Assert
+        assertEquals(1, result.getUnchanged());
+        assertTrue(batch(UPDATE).isEmpty());
+        verifyNoInteractions(eventPublisher);
+    }
+    
+    @Test
+    void sync_WhenContentMovesBetweenFields_ShouldDetectChange() {
+        // Arrange: same concatenated text, different field boundaries
+        CatalogProduct stored = entry("SKU-1", "Kettle", "25.00");
+        stored.setDescription("Steel");
+        stored.setCategory("Kitchen");
+        CatalogProduct resent = entry("SKU-1", "Kettle", "25.00");
+        resent.setDescription("Stee");
+        resent.setCategory("lKitchen");
+        when(productRepository.findCatalogState()).thenReturn(List.<Object[]>of(state("SKU-1", 1L, hash(stored), true)));
+        
+        // Act
+        CatalogSyncResult result = catalogSyncService.sync(List.of(resent), true);
+        
+        // Assert
+        assertEquals(1, result.getUpdated());
+    }
+    
+    @Test
+    void sync_WhenFeedRepeatsSku_ShouldKeepLastEntry() {
+        // Arrange
+        when(productRepository.findCatalogState()).thenReturn(List.of());
+        
+        // Act
+        CatalogSyncResult result = catalogSyncService.sync(
+                List.of(entry("SKU-1", "Kettle", "25.00"), entry("SKU-1", "Kettle Pro", "35.00")), true);
+        
+        // Assert
+        assertEquals(2, result.getReceived());
+        List<Product> inserts = batch(INSERT);
+        assertEquals(1, inserts.size());
+        assertEquals("Kettle Pro", inserts.get(0).getName());
+    }
+    
+    @Test
+    void sync_WhenEntryIsMissingSku_ShouldThrow() {
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> catalogSyncService.sync(List.of(entry(" ", "Kettle", "25.00")), true));
+        verifyNoInteractions(jdbcTemplate);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> List<T> batch(String sqlPrefix) {
+        ArgumentCaptor<Collection<T>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(sqlPrefix), rows.capture(), anyInt(), any());
+        return new ArrayList<>(rows.getValue());
+    }
+    
+    private static CatalogProduct entry(String sku, String name, String price) {
+        return CatalogProduct.builder()
+                .sku(sku)
+                .name(name)
+                .price(new BigDecimal(price))
+                .category("Kitchen")
+                .build();
+    }
+    
+    private static String hash(CatalogProduct entry) {
+        Product product = new Product();
+        product.setName(entry.getName());
+        product.setDescription(entry.getDescription());
+        product.setPrice(entry.getPrice());
+        product.setCategory(entry.getCategory());
+        product.setBrand(entry.getBrand());
+        return product.computeContentHash();
+    }
+    
+    private static Object[] state(String sku, Long id, String contentHash, boolean active) {
+        return new Object[] {sku, id, contentHash, active};
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingLoaderTest {
+    
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+    
+    private CoalescingLoader<Long, String> loader;
+    
+    @AfterEach
+    void tearDown() {
+        loader.close();
+    }
+    
+    @Test
+    void load_WhenCallsShareWindow_ShouldIssueOneBatch() throws Exception {
+        // Arrange
+        loader = new CoalescingLoader<>("test", recording(ids -> ids.stream()
+                .filter(id -> id != 3L)
+                .collect(Collectors.toMap(Function.identity(), id -> "v" + id))), Duration.ofMillis(200), 100);
+        
+        // Act
+        CompletableFuture<Map<Long, String>> first = loader.load(List.of(1L, 2L));
+        CompletableFuture<Map<Long, String>> second = loader.load(List.of(2L, 3L));
+        
+        // Assert: one query for the union; each caller sees only its own keys and missing keys are absent
+        assertEquals(Map.of(1L, "v1", 2L, "v2"), first.get(2, TimeUnit.SECONDS));
+        assertEquals(Map.of(2L, "v2"), second.get(2, TimeUnit.SECONDS));
+        assertEquals(List.of(Set.of(1L, 2L, 3L)), batches);
+    }
+    
+    @Test
+    void load_WhenBatchReachesMaxKeys_ShouldFlushBeforeWindow() throws Exception {
+        // Arrange: a window far longer than the test waits
+        loader = new CoalescingLoader<>("test", recording(ids -> ids.stream()
+                .collect(Collectors.toMap(Function.identity(), id -> "v" + id))), Duration.ofMinutes(1), 3);
+        
+        // Act
+        CompletableFuture<Map<Long, String>> first = loader.load(List.of(1L, 2L));
+        CompletableFuture<Map<Long, String>> second = loader.load(List.of(3L));
+        
+        // Assert
+        assertEquals(Map.of(1L, "v1", 2L, "v2"), first.get(2, TimeUnit.SECONDS));
+        assertEquals(Map.of(3L, "v3"), second.get(2, TimeUnit.SECONDS));
+        assertEquals(List.of(Set.of(1L, 2L, 3L)), batches);
+    }
+    
+    @Test
+    void load_WhenBatchFails_ShouldFailEveryCaller() {
+        // Arrange
+        RuntimeException failure = new RuntimeException("database down");
+        loader = new CoalescingLoader<>("test", recording(ids -> {
+            throw failure;
+        }), Duration.ofMillis(50), 100);
+        
+        // Act
+        CompletableFuture<Map<Long, String>> first = loader.load(List.of(1L));
+        CompletableFuture<Map<Long, String>> second = loader.load(List.of(2L));
+        
+        // Assert
+        ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(2, TimeUnit.SECONDS));
+        ExecutionException secondError = assertThrows(ExecutionException.class, () -> second.get(2, TimeUnit.SECONDS));
+        assertSame(failure, firstError.getCause());
+        assertSame(failure, secondError.getCause());
+        assertEquals(1, batches.size());
+    }
+    
+    @Test
+    void load_WithNoKeys_ShouldCompleteWithoutBatch() throws Exception {
+        // Arrange
+        loader = new CoalescingLoader<>("test", recording(ids -> Map.of()), Duration.ofMillis(50), 100);
+        
+        // Act & Assert
+        assertEquals(Map.of(), loader.load(List.of()).get(2, TimeUnit.SECONDS));
+        assertTrue(batches.isEmpty());
+    }
+    
+    private Function<Set<Long>, Map<Long, String>> recording(Function<Set<Long>, Map<Long, String>> load) {
+        return ids -> {
+            batches.add(Set.copyOf(ids));
+            return load.apply(ids);
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlockRetryTest {
+    
+    private final DeadlockRetry deadlockRetry = new DeadlockRetry();
+    
+    @Test
+    void call_WhenDeadlockedOnce_ShouldRetry() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        
+        // Act
+        String result = deadlockRetry.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+            }
+            return "done";
+        });
+        
+        // Assert
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+    }
+    
+    @Test
+    void call_WhenAlwaysDeadlocked_ShouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        
+        // Act & Assert
+        assertThrows(CannotAcquireLockException.class, () -> deadlockRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+        }));
+        assertEquals(DeadlockRetry.MAX_ATTEMPTS, attempts.get());
+    }
+    
+    @Test
+    void call_WithOtherFailure_ShouldNotRetry() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> deadlockRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("Duplicate entry");
+        }));
+        assertEquals(1, attempts.get());
+    }
+    
+    @Test
+    void call_InsideTransaction_ShouldLeaveRetryToOutermostCaller() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        
+        // Act & Assert
+        try {
+            assertThrows(CannotAcquireLockException.class, () -> deadlockRetry.run(() -> {
+                attempts.incrementAndGet();
+                throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.ClusterProperties;
+import com.ecommerce.config.DemandProperties;
+import com.ecommerce.event.OrderCancelledEvent;
+import com.ecommerce.event.OrderConfirmedEvent;
+import com.ecommerce.event.WarehouseOwnershipChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DemandModelServiceTest {
+    
+    private static final long PRODUCT_ID = 1L;
+    private static final long WAREHOUSE_ID = 2L;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    private final DemandProperties properties = new DemandProperties();
+    
+    private final ClusterProperties clusterProperties = new ClusterProperties();
+    
+    @Test
+    void onOrderCancelled_ShouldTakeUnitsOutOfTheOpenDay() throws Exception {
+        // Arrange
+        DemandModelService demandModelService = new DemandModelService(jdbcTemplate, properties, clusterProperties);
+        demandModelService.onOrderConfirmed(confirmed(Map.of(PRODUCT_ID, 5, 3L, 4)));
+        
+        // Act
+        demandModelService.onOrderCancelled(new OrderCancelledEvent(WAREHOUSE_ID, Map.of(PRODUCT_ID, 2)));
+        demandModelService.flush();
+        
+        // Assert
+        assertEquals(Map.of(PRODUCT_ID, 3, 3L, 4), flushedOpenDayUnits());
+    }
+    
+    @Test
+    void onOrderCancelled_ShouldNotGoBelowZero() throws Exception {
+        // Arrange
+        DemandModelService demandModelService = new DemandModelService(jdbcTemplate, properties, clusterProperties);
+        demandModelService.onOrderConfirmed(confirmed(Map.of(PRODUCT_ID, 1)));
+        
+        // Act
+        demandModelService.onOrderCancelled(new OrderCancelledEvent(WAREHOUSE_ID, Map.of(PRODUCT_ID, 5)));
+        demandModelService.flush();
+        
+        // Assert
+        assertEquals(Map.of(PRODUCT_ID, 0), flushedOpenDayUnits());
+    }
+    
+    @Test
+    void onOrderCancelled_WithoutEstimate_ShouldDoNothing() {
+        // Arrange
+        DemandModelService demandModelService = new DemandModelService(jdbcTemplate, properties, clusterProperties);
+        
+        // Act
+        demandModelService.onOrderCancelled(new OrderCancelledEvent(WAREHOUSE_ID, Map.of(PRODUCT_ID, 5)));
+        demandModelService.flush();
+        
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+    
+    @Test
+    void onOrderCancelled_WhenWarehouseIsNotOwned_ShouldIgnoreIt() throws Exception {
+        // Arrange
+        clusterProperties.setEnabled(true);
+        DemandModelService demandModelService = new DemandModelService(jdbcTemplate, properties, clusterProperties);
+        demandModelService.onOwnershipChanged(new WarehouseOwnershipChangedEvent(WAREHOUSE_ID, true, false));
+        demandModelService.onOrderConfirmed(confirmed(Map.of(PRODUCT_ID, 5)));
+        
+        // Act
+        demandModelService.onOrderCancelled(new OrderCancelledEvent(WAREHOUSE_ID + 1, Map.of(PRODUCT_ID, 5)));
+        demandModelService.flush();
+        
+        // Assert
+        assertEquals(Map.of(PRODUCT_ID, 5), flushedOpenDayUnits());
+    }
+    
+    @Test
+    void onOwnershipChanged_WhenHandedOff_ShouldWriteEstimatesBack() throws Exception {
+        // Arrange
+        clusterProperties.setEnabled(true);
+        DemandModelService demandModelService = new DemandModelService(jdbcTemplate, properties, clusterProperties);
+        demandModelService.onOwnershipChanged(new WarehouseOwnershipChangedEvent(WAREHOUSE_ID, true, false));
+        demandModelService.onOrderConfirmed(confirmed(Map.of(PRODUCT_ID, 5)));
+        
+        // Act
+        demandModelService.onOwnershipChanged(new WarehouseOwnershipChangedEvent(WAREHOUSE_ID, false, false));
+        
+        // Assert
+        assertEquals(Map.of(PRODUCT_ID, 5), flushedOpenDayUnits());
+    }
+    
+    @Test
+    void onOwnershipChanged_WhenLeaseLost_ShouldDiscardEstimates() {
+        // Arrange
+        clusterProperties.setEnabled(true);
+        DemandModelService demandModelService = new DemandModelService(jdbcTemplate, properties, clusterProperties);
+        demandModelService.onOwnershipChanged(new WarehouseOwnershipChangedEvent(WAREHOUSE_ID, true, false));
+        demandModelService.onOrderConfirmed(confirmed(Map.of(PRODUCT_ID, 5)));
+        
+        // Act
+        demandModelService.onOwnershipChanged(new WarehouseOwnershipChangedEvent(WAREHOUSE_ID, false, true));
+        demandModelService.flush();
+        
+        // Assert
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+    
+    private static OrderConfirmedEvent confirmed(Map<Long, Integer> unitsByProduct) {
+        return new OrderConfirmedEvent(WAREHOUSE_ID, LocalDateTime.now(), unitsByProduct, Map.of());
+    }
+    
+    // Replays the flushed upsert batch and reads back open_day_units per product
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> flushedOpenDayUnits() throws Exception {
+        ArgumentCaptor<List<Object>> batch = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO inventory_demand"), batch.capture(), anyInt(), setter.capture());
+        
+        Map<Long, Integer> units = new HashMap<>();
+        for (Object snapshot : new ArrayList<>(batch.getValue())) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.getValue().setValues(ps, snapshot);
+            ArgumentCaptor<Long> productId = ArgumentCaptor.forClass(Long.class);
+            ArgumentCaptor<Integer> openDayUnits = ArgumentCaptor.forClass(Integer.class);
+            verify(ps).setLong(eq(1), productId.capture());
+            verify(ps).setInt(eq(7), openDayUnits.capture());
+            units.put(productId.getValue(), openDayUnits.getValue());
+        }
+        return units;
+    }
+}
@@ -0,0 +1,276 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.InventoryBucket;
+import com.ecommerce.repository.InventoryBucketRepository;
+import com.ecommerce.repository.InventoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryBucketServiceTest {
+    
+    @Mock
+    private InventoryRepository inventoryRepository;
+    
+    @Mock
+    private InventoryBucketRepository bucketRepository;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @InjectMocks
+    private InventoryBucketService bucketService;
+    
+    private Inventory inventory;
+    
+    @BeforeEach
+    void setUp() {
+        inventory = Inventory.builder()
+                .id(1L)
+                .quantity(5)
+                .reservedQuantity(5)
+                .bucketCount(3)
+                .build();
+    }
+    
+    @Test
+    void shard_ShouldSplitFreeStockAndKeepHoldsOnParent() {
+        // Arrange
+        inventory.setQuantity(10);
+        inventory.setReservedQuantity(2);
+        inventory.setBucketCount(0);
+        when(inventoryRepository.findForUpdate(1L)).thenReturn(Optional.of(inventory));
+        when(bucketRepository.findForUpdate(1L)).thenReturn(List.of());
+        
+        // Act
+        bucketService.shard(1L, 3);
+        
+        // Assert
+        ArgumentCaptor<List<InventoryBucket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bucketRepository).saveAll(saved.capture());
+        assertEquals(List.of(3, 3, 2), saved.getValue().stream().map(InventoryBucket::getQuantity).toList());
+        assertEquals(2, inventory.getQuantity());
+        assertEquals(2, inventory.getReservedQuantity());
+        assertEquals(3, inventory.getBucketCount());
+    }
+    
+    @Test
+    void reserveStock_WhenBucketHasStock_ShouldUseFastPath() {
+        // Arrange
+        when(bucketRepository.reserveStock(eq(1L), anyInt(), eq(2))).thenReturn(1);
+        
+        // Act & Assert
+        assertTrue(bucketService.reserveStock(inventory, 2));
+        verify(inventoryRepository, never()).reserveStock(anyLong(), anyInt());
+        verify(inventoryRepository, never()).findForUpdate(anyLong());
+    }
+    
+    @Test
+    void reserveStock_WhenBucketsAreEmpty_ShouldFallBackToParent() {
+        // Arrange
+        when(bucketRepository.reserveStock(eq(1L), anyInt(), eq(2))).thenReturn(0);
+        when(inventoryRepository.reserveStock(1L, 2)).thenReturn(1);
+        
+        // Act & Assert
+        assertTrue(bucketService.reserveStock(inventory, 2));
+        verify(bucketRepository, times(3)).reserveStock(eq(1L), anyInt(), eq(2));
+        verify(inventoryRepository, never()).findForUpdate(anyLong());
+    }
+    
+    @Test
+    void reserveStock_WhenNoSingleRowFits_ShouldReserveAndRebalance() {
+        // Arrange: 8 free units spread over three buckets, none holding 6
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 2, 1), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.reserveStock(eq(1L), anyInt(), eq(6))).thenReturn(0);
+        when(inventoryRepository.reserveStock(1L, 6)).thenReturn(0);
+        
+        // Act
+        boolean reserved = bucketService.reserveStock(inventory, 6);
+        
+        // Assert: hold lands on the parent, the 2 units left over are spread across buckets
+        assertTrue(reserved);
+        assertEquals(11, inventory.getReservedQuantity());
+        assertEquals(11, inventory.getQuantity());
+        assertEquals(List.of(1, 1, 0), buckets.stream().map(InventoryBucket::getAvailableQuantity).toList());
+        assertEquals(List.of(0, 1, 0), buckets.stream().map(InventoryBucket::getReservedQuantity).toList());
+        assertEquals(14, totalQuantity(buckets));
+        verify(bucketRepository).saveAll(buckets);
+        verify(inventoryRepository).save(inventory);
+    }
+    
+    @Test
+    void reserveStock_WhenTotalFreeStockIsShort_ShouldReturnFalse() {
+        // Arrange
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 2, 1), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.reserveStock(eq(1L), anyInt(), eq(9))).thenReturn(0);
+        when(inventoryRepository.reserveStock(1L, 9)).thenReturn(0);
+        
+        // Act & Assert
+        assertFalse(bucketService.reserveStock(inventory, 9));
+        verify(bucketRepository, never()).saveAll(any());
+        verify(inventoryRepository, never()).save(any());
+    }
+    
+    @Test
+    void removeStock_WhenBucketHasStock_ShouldUseFastPath() {
+        // Arrange
+        when(bucketRepository.removeStock(eq(1L), anyInt(), eq(2))).thenReturn(1);
+        
+        // Act & Assert
+        assertTrue(bucketService.removeStock(inventory, 2));
+        verify(inventoryRepository, never()).removeFreeStock(anyLong(), anyInt());
+        verify(inventoryRepository, never()).findForUpdate(anyLong());
+    }
+    
+    @Test
+    void removeStock_WhenNoSingleRowFits_ShouldRemoveAndRebalance() {
+        // Arrange: 8 free units spread over three buckets, none holding 6
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 2, 1), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.removeStock(eq(1L), anyInt(), eq(6))).thenReturn(0);
+        when(inventoryRepository.removeFreeStock(1L, 6)).thenReturn(0);
+        
+        // Act
+        boolean removed = bucketService.removeStock(inventory, 6);
+        
+        // Assert: holds stay where they were, the 2 units left over are spread across buckets
+        assertTrue(removed);
+        assertEquals(5, inventory.getQuantity());
+        assertEquals(5, inventory.getReservedQuantity());
+        assertEquals(List.of(1, 1, 0), buckets.stream().map(InventoryBucket::getAvailableQuantity).toList());
+        assertEquals(List.of(0, 1, 0), buckets.stream().map(InventoryBucket::getReservedQuantity).toList());
+        assertEquals(8, totalQuantity(buckets));
+        verify(bucketRepository).saveAll(buckets);
+        verify(inventoryRepository).save(inventory);
+    }
+    
+    @Test
+    void removeStock_WhenTotalFreeStockIsShort_ShouldReturnFalse() {
+        // Arrange
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 2, 1), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.removeStock(eq(1L), anyInt(), eq(9))).thenReturn(0);
+        when(inventoryRepository.removeFreeStock(1L, 9)).thenReturn(0);
+        
+        // Act & Assert
+        assertFalse(bucketService.removeStock(inventory, 9));
+        verify(bucketRepository, never()).saveAll(any());
+        verify(inventoryRepository, never()).save(any());
+    }
+    
+    @Test
+    void confirmReservation_WhenHoldSpansRows_ShouldDeductFromEachRow() {
+        // Arrange: 5 held on the parent, 3 on bucket 1
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 4, 3), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.confirmReservedStock(eq(1L), anyInt(), eq(7))).thenReturn(0);
+        when(inventoryRepository.confirmReservedStock(1L, 7)).thenReturn(0);
+        
+        // Act
+        bucketService.confirmReservation(inventory, 7);
+        
+        // Assert
+        assertEquals(0, inventory.getQuantity());
+        assertEquals(0, inventory.getReservedQuantity());
+        assertEquals(2, buckets.get(1).getQuantity());
+        assertEquals(1, buckets.get(1).getReservedQuantity());
+        assertEquals(3, buckets.get(0).getQuantity());
+        verify(bucketRepository).saveAll(buckets);
+    }
+    
+    @Test
+    void releaseReservedStock_WhenHoldSpansRows_ShouldKeepStock() {
+        // Arrange
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 4, 3), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.releaseReservedStock(eq(1L), anyInt(), eq(7))).thenReturn(0);
+        when(inventoryRepository.releaseReservedStockIfHeld(1L, 7)).thenReturn(0);
+        
+        // Act
+        bucketService.releaseReservedStock(inventory, 7);
+        
+        // Assert
+        assertEquals(5, inventory.getQuantity());
+        assertEquals(0, inventory.getReservedQuantity());
+        assertEquals(4, buckets.get(1).getQuantity());
+        assertEquals(1, buckets.get(1).getReservedQuantity());
+    }
+    
+    @Test
+    void releaseReservedStock_WhenMoreThanHeld_ShouldThrowWithoutSaving() {
+        // Arrange
+        List<InventoryBucket> buckets = buckets(bucket(0, 3, 0), bucket(1, 4, 3), bucket(2, 4, 0));
+        stubLockedRows(buckets);
+        when(bucketRepository.releaseReservedStock(eq(1L), anyInt(), eq(9))).thenReturn(0);
+        when(inventoryRepository.releaseReservedStockIfHeld(1L, 9)).thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> bucketService.releaseReservedStock(inventory, 9));
+        verify(bucketRepository, never()).saveAll(any());
+        verify(inventoryRepository, never()).save(any());
+    }
+    
+    @Test
+    void returnStock_ShouldAddUnitsToBucket() {
+        // Arrange
+        when(bucketRepository.addStock(eq(1L), anyInt(), eq(4))).thenReturn(1);
+        
+        // Act
+        bucketService.returnStock(inventory, 4);
+        
+        // Assert
+        verify(bucketRepository).addStock(eq(1L), intThat(index -> index >= 0 && index < 3), eq(4));
+        verify(inventoryRepository, never()).addStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    void returnStock_WhenBucketIsGone_ShouldAddUnitsToParent() {
+        // Arrange
+        when(bucketRepository.addStock(eq(1L), anyInt(), eq(4))).thenReturn(0);
+        
+        // Act
+        bucketService.returnStock(inventory, 4);
+        
+        // Assert
+        verify(inventoryRepository).addStock(1L, 4);
+    }
+    
+    private void stubLockedRows(List<InventoryBucket> buckets) {
+        when(inventoryRepository.findForUpdate(1L)).thenReturn(Optional.of(inventory));
+        when(bucketRepository.findForUpdate(1L)).thenReturn(buckets);
+    }
+    
+    private int totalQuantity(List<InventoryBucket> buckets) {
+        return inventory.getQuantity() + buckets.stream().mapToInt(InventoryBucket::getQuantity).sum();
+    }
+    
+    private static List<InventoryBucket> buckets(InventoryBucket... buckets) {
+        return new ArrayList<>(List.of(buckets));
+    }
+    
+    private static InventoryBucket bucket(int index, int quantity, int reserved) {
+        return InventoryBucket.builder()
+                .inventoryId(1L)
+                .bucketIndex(index)
+                .quantity(quantity)
+                .reservedQuantity(reserved)
+                .build();
+    }
+}
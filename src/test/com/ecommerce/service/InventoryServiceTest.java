@@ -1,5 +1,8 @@
 package com.ecommerce.service;
 
+import com.ecommerce.audit.AuditEventType;
+import com.ecommerce.audit.AuditJournal;
+import com.ecommerce.config.DemandProperties;
 import com.ecommerce.model.Inventory;
 import com.ecommerce.model.Product;
 import com.ecommerce.model.Warehouse;
@@ -11,7 +14,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -32,6 +37,18 @@ class InventoryServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
     
+    @Mock
+    private InventoryBucketService inventoryBucketService;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private AuditJournal auditJournal;
+    
+    @Spy
+    private DemandProperties demandProperties = new DemandProperties();
+    
     @InjectMocks
     private InventoryService inventoryService;
     
@@ -116,16 +133,114 @@ class InventoryServiceTest {
         verify(inventoryRepository, never()).reserveStock(anyLong(), anyInt());
     }
     
+    @Test
+    void reserveStock_WhenSharded_ShouldReserveInBuckets() {
+        // Arrange
+        testInventory.setBucketCount(4);
+        testInventory.setQuantity(0);
+        testInventory.setBucketQuantity(100);
+        testInventory.setBucketReservedQuantity(0);
+        when(inventoryRepository.findByProductIdAndWarehouseId(1L, 1L))
+                .thenReturn(Optional.of(testInventory));
+        when(inventoryBucketService.reserveStock(testInventory, 10)).thenReturn(true);
+        
+        // Act
+        boolean result = inventoryService.reserveStock(1L, 1L, 10);
+        
+        // Assert
+        assertTrue(result);
+        verify(inventoryRepository, never()).reserveStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    void returnStock_WhenSharded_ShouldReturnToBuckets() {
+        // Arrange
+        testInventory.setBucketCount(4);
+        when(inventoryRepository.findByProductIdAndWarehouseId(1L, 1L))
+                .thenReturn(Optional.of(testInventory));
+        
+        // Act
+        inventoryService.returnStock(1L, 1L, 3);
+        
+        // Assert
+        verify(inventoryBucketService).returnStock(testInventory, 3);
+        verify(inventoryRepository, never()).addStock(anyLong(), anyInt());
+    }
+    
     @Test
     void addStock_WithPositiveQuantity_ShouldSucceed() {
         // Arrange
-        doNothing().when(inventoryRepository).addStock(1L, 50);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
         
         // Act
         inventoryService.addStock(1L, 50);
         
         // Assert
         verify(inventoryRepository, times(1)).addStock(1L, 50);
+        verify(auditJournal).inventory(AuditEventType.STOCK_ADDED, 1L, 1L, 1L, 50);
+    }
+    
+    @Test
+    void addStock_WhenInventoryMissing_ShouldThrowException() {
+        // Arrange
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> inventoryService.addStock(1L, 50));
+        verify(inventoryRepository, never()).addStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    void removeStock_ShouldJournalProductAndWarehouse() {
+        // Arrange
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        when(inventoryRepository.removeStock(1L, 20)).thenReturn(1);
+        
+        // Act
+        inventoryService.removeStock(1L, 20);
+        
+        // Assert
+        verify(auditJournal).inventory(AuditEventType.STOCK_REMOVED, 1L, 1L, 1L, 20);
+    }
+    
+    @Test
+    void removeStock_WhenSharded_ShouldRemoveFromBuckets() {
+        // Arrange
+        testInventory.setBucketCount(4);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        when(inventoryBucketService.removeStock(testInventory, 20)).thenReturn(true);
+        
+        // Act
+        inventoryService.removeStock(1L, 20);
+        
+        // Assert
+        verify(inventoryRepository, never()).removeStock(anyLong(), anyInt());
+        verify(auditJournal).inventory(AuditEventType.STOCK_REMOVED, 1L, 1L, 1L, 20);
+    }
+    
+    @Test
+    void removeStock_WhenShardedStockIsShort_ShouldThrowException() {
+        // Arrange
+        testInventory.setBucketCount(4);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        when(inventoryBucketService.removeStock(testInventory, 20)).thenReturn(false);
+        
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> inventoryService.removeStock(1L, 20));
+        verifyNoInteractions(auditJournal);
+    }
+    
+    @Test
+    void shardInventory_ShouldJournalProductAndWarehouse() {
+        // Arrange
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        
+        // Act
+        inventoryService.shardInventory(1L, 4);
+        
+        // Assert
+        verify(inventoryBucketService).shard(1L, 4);
+        verify(auditJournal).inventory(AuditEventType.INVENTORY_SHARDED, 1L, 1L, 1L, 4);
     }
     
     @Test
@@ -156,4 +271,25 @@ class InventoryServiceTest {
         // Assert
         assertEquals(135, total); // (100-10) + (50-5) = 135
     }
+    
+    @Test
+    void getTotalAvailableStock_ShouldIncludeBucketStock() {
+        // Arrange
+        Inventory hot = Inventory.builder()
+                .quantity(5)
+                .reservedQuantity(5)
+                .bucketCount(4)
+                .bucketQuantity(80)
+                .bucketReservedQuantity(20)
+                .build();
+        
+        when(inventoryRepository.findByProductId(1L))
+                .thenReturn(java.util.List.of(hot));
+        
+        // Act
+        Integer total = inventoryService.getTotalAvailableStock(1L);
+        
+        // Assert
+        assertEquals(60, total); // (5+80) - (5+20) = 60
+    }
 }
\ No newline at end of file
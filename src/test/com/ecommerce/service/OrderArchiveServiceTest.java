@@ -0,0 +1,174 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.ArchiveProperties;
+import com.ecommerce.model.*;
+import com.ecommerce.repository.OrderArchiveBatchRepository;
+import com.ecommerce.repository.OrderArchiveEntryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.storage.FileSystemArchiveStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private OrderArchiveBatchRepository batchRepository;
+    
+    @Mock
+    private OrderArchiveEntryRepository entryRepository;
+    
+    @Mock
+    private OrderViewService orderViewService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @TempDir
+    Path archiveDir;
+    
+    private OrderArchiveService archiveService;
+    
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        archiveService = new OrderArchiveService(orderRepository, batchRepository, entryRepository, orderViewService,
+                new FileSystemArchiveStore(archiveDir), new ArchiveProperties(), objectMapper, transactionManager);
+    }
+    
+    @Test
+    void archiveCompletedOrders_ShouldWriteBatchIndexAndDeleteOrders() {
+        // Arrange
+        Order first = shippedOrder(1L);
+        Order second = shippedOrder(2L);
+        when(orderRepository.findArchivableOrderIds(anyCollection(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(Collections.emptyList());
+        when(orderRepository.findWithItemsByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(batchRepository.save(any(OrderArchiveBatch.class))).thenAnswer(invocation -> {
+            OrderArchiveBatch batch = invocation.getArgument(0);
+            batch.setId(7L);
+            return batch;
+        });
+        
+        // Act
+        int archived = archiveService.archiveCompletedOrders();
+        
+        // Assert
+        assertEquals(2, archived);
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderArchiveEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(entryRepository).saveAll(entries.capture());
+        assertEquals(2, entries.getValue().size());
+        assertEquals(1, entries.getValue().get(1).getPosition());
+        verify(orderRepository).deleteItemsByOrderIdIn(List.of(1L, 2L));
+        verify(orderRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(orderViewService).delete(List.of(1L, 2L));
+    }
+    
+    @Test
+    void archiveCompletedOrders_WhenOrdersVanishBeforeLoad_ShouldSkipBatch() {
+        // Arrange
+        when(orderRepository.findArchivableOrderIds(anyCollection(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(orderRepository.findWithItemsByIdIn(List.of(1L, 2L))).thenReturn(Collections.emptyList());
+        
+        // Act
+        int archived = archiveService.archiveCompletedOrders();
+        
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(batchRepository, entryRepository, orderViewService, transactionManager);
+        verify(orderRepository, never()).deleteByIdIn(anyCollection());
+    }
+    
+    @Test
+    void findArchivedOrder_ShouldResolveOrderFromBatch() {
+        // Arrange
+        ArgumentCaptor<OrderArchiveBatch> batchCaptor = ArgumentCaptor.forClass(OrderArchiveBatch.class);
+        when(orderRepository.findArchivableOrderIds(anyCollection(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(Collections.emptyList());
+        when(orderRepository.findWithItemsByIdIn(anyCollection()))
+                .thenReturn(List.of(shippedOrder(1L), shippedOrder(2L)));
+        when(batchRepository.save(batchCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+        archiveService.archiveCompletedOrders();
+        
+        OrderArchiveBatch batch = batchCaptor.getValue();
+        batch.setId(7L);
+        when(entryRepository.findById(2L)).thenReturn(Optional.of(OrderArchiveEntry.builder()
+                .orderId(2L)
+                .batchId(7L)
+                .position(1)
+                .build()));
+        when(batchRepository.findById(7L)).thenReturn(Optional.of(batch));
+        
+        // Act
+        Optional<Order> result = archiveService.findArchivedOrder(2L);
+        
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("ORD-2", result.get().getOrderNumber());
+        assertEquals(Order.OrderStatus.SHIPPED, result.get().getStatus());
+        assertEquals(1, result.get().getItems().size());
+        assertEquals("TEST-001", result.get().getItems().get(0).getProduct().getSku());
+    }
+    
+    private Order shippedOrder(Long id) {
+        Product product = Product.builder()
+                .id(1L)
+                .sku("TEST-001")
+                .name("Test Product")
+                .price(new BigDecimal("99.99"))
+                .build();
+        Warehouse warehouse = Warehouse.builder()
+                .id(1L)
+                .code("WH001")
+                .build();
+        
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setCustomerEmail("customer@example.com");
+        order.setStatus(Order.OrderStatus.SHIPPED);
+        order.setWarehouse(warehouse);
+        order.setTotalAmount(new BigDecimal("199.98"));
+        order.setCreatedAt(LocalDateTime.now().minusDays(200));
+        order.setUpdatedAt(LocalDateTime.now().minusDays(180));
+        
+        OrderItem item = new OrderItem();
+        item.setId(id * 10);
+        item.setProduct(product);
+        item.setQuantity(2);
+        item.setUnitPrice(product.getPrice());
+        item.setSubtotal(new BigDecimal("199.98"));
+        order.addItem(item);
+        return order;
+    }
+}
@@ -0,0 +1,258 @@
+package com.ecommerce.service;
+
+import com.ecommerce.audit.AuditEventType;
+import com.ecommerce.audit.AuditJournal;
+import com.ecommerce.config.ReconciliationProperties;
+import com.ecommerce.dto.ReconciliationResult;
+import com.ecommerce.event.InventoryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationReconciliationServiceTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private AuditJournal auditJournal;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final ReconciliationProperties properties = new ReconciliationProperties();
+    
+    private ReservationReconciliationService reconciliationService;
+    
+    // In-memory stand-ins for the tables the job reads and the rows it writes
+    private record InventoryRow(long id, long warehouseId, long productId, int reserved, int bucketCount, int bucketReserved) {}
+    
+    private final List<InventoryRow> inventory = new ArrayList<>();
+    private final Map<Long, Map<Long, Integer>> holdsByWarehouse = new HashMap<>();
+    private final Set<Long> changedSinceSnapshot = new HashSet<>();
+    private final Map<Long, Integer> repairs = new ConcurrentHashMap<>();
+    private final List<long[]> partitions = Collections.synchronizedList(new ArrayList<>());
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        reconciliationService = new ReservationReconciliationService(jdbcTemplate, properties, eventPublisher,
+                auditJournal, transactionManager);
+        
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT id FROM warehouses"), eq(Long.class))).thenReturn(List.of(1L));
+        lenient().when(jdbcTemplate.queryForMap(startsWith("SELECT MIN(id)"))).thenReturn(Map.of("min_id", 1L, "max_id", 10L));
+        
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            long warehouseId = invocation.getArgument(2);
+            long from = invocation.getArgument(3);
+            long to = invocation.getArgument(4);
+            partitions.add(new long[] {warehouseId, from, to});
+            for (Map.Entry<Long, Integer> hold : holdsByWarehouse.getOrDefault(warehouseId, Map.of()).entrySet()) {
+                if (hold.getKey() >= from && hold.getKey() <= to) {
+                    handler.processRow(row(hold.getKey(), hold.getValue()));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT oi.product_id"), any(RowCallbackHandler.class), anyLong(), anyLong(), anyLong());
+        
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            long warehouseId = invocation.getArgument(2);
+            long from = invocation.getArgument(3);
+            long to = invocation.getArgument(4);
+            for (InventoryRow row : inventory) {
+                if (row.warehouseId() == warehouseId && row.productId() >= from && row.productId() <= to) {
+                    handler.processRow(row(row.id(), row.productId(), row.reserved(), row.bucketCount(), row.bucketReserved()));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT i.id"), any(RowCallbackHandler.class), anyLong(), anyLong(), anyLong());
+        
+        // The compare-and-set repair misses rows that changed after the snapshot
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("UPDATE inventory"), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Object> batch = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            int[] counts = new int[batch.size()];
+            int index = 0;
+            for (Object repair : batch) {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                setter.setValues(ps, repair);
+                ArgumentCaptor<Integer> expected = ArgumentCaptor.forClass(Integer.class);
+                ArgumentCaptor<Long> inventoryId = ArgumentCaptor.forClass(Long.class);
+                verify(ps).setInt(eq(1), expected.capture());
+                verify(ps).setLong(eq(3), inventoryId.capture());
+                boolean applied = !changedSinceSnapshot.contains(inventoryId.getValue());
+                if (applied) {
+                    repairs.put(inventoryId.getValue(), expected.getValue());
+                }
+                counts[index++] = applied ? 1 : 0;
+            }
+            return new int[][] {counts};
+        });
+    }
+    
+    @Test
+    void reconcile_ShouldRepairRowsThatDriftFromPendingHolds() {
+        // Arrange
+        inventory.add(new InventoryRow(11, 1, 1, 5, 0, 0));
+        inventory.add(new InventoryRow(12, 1, 2, 7, 0, 0));
+        inventory.add(new InventoryRow(13, 1, 3, 2, 0, 0));
+        holdsByWarehouse.put(1L, Map.of(1L, 5, 2L, 3, 4L, 6));
+        
+        // Act
+        ReconciliationResult result = reconciliationService.reconcile(true);
+        
+        // Assert: product 2 holds 3 but records 7, product 3 holds nothing, product 4 has no inventory row
+        assertEquals(3, result.getInventoryRows());
+        assertEquals(2, result.getDrifted());
+        assertEquals(2, result.getRepaired());
+        assertEquals(1, result.getMissingInventory());
+        assertEquals(Map.of(12L, 3, 13L, 0), repairs);
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(12L));
+        verify(eventPublisher).publishEvent(new InventoryChangedEvent(13L));
+        verify(auditJournal).inventory(AuditEventType.RESERVATION_REPAIRED, 12L, 2L, 1L, -4);
+        verify(auditJournal).inventory(AuditEventType.RESERVATION_REPAIRED, 13L, 3L, 1L, -2);
+    }
+    
+    @Test
+    void reconcile_WhenRowChangedAfterSnapshot_ShouldSkipIt() {
+        // Arrange
+        inventory.add(new InventoryRow(12, 1, 2, 7, 0, 0));
+        inventory.add(new InventoryRow(13, 1, 3, 2, 0, 0));
+        holdsByWarehouse.put(1L, Map.of(2L, 3));
+        changedSinceSnapshot.add(12L);
+        
+        // Act
+        ReconciliationResult result = reconciliationService.reconcile(true);
+        
+        // Assert
+        assertEquals(2, result.getDrifted());
+        assertEquals(1, result.getRepaired());
+        assertEquals(1, result.getSkippedConcurrent());
+        assertEquals(Map.of(13L, 0), repairs);
+        verify(eventPublisher, never()).publishEvent(new InventoryChangedEvent(12L));
+    }
+    
+    @Test
+    void reconcile_ShouldCountBucketHoldsAndLeaveShardedRowsAlone() {
+        // Arrange: row 14 holds 1 itself and 4 in buckets against 5 pending; row 15 holds 5 against 2
+        inventory.add(new InventoryRow(14, 1, 5, 1, 3, 4));
+        inventory.add(new InventoryRow(15, 1, 6, 1, 3, 4));
+        holdsByWarehouse.put(1L, Map.of(5L, 5, 6L, 2));
+        
+        // Act
+        ReconciliationResult result = reconciliationService.reconcile(true);
+        
+        // Assert
+        assertEquals(1, result.getDrifted());
+        assertEquals(1, result.getSkippedSharded());
+        assertEquals(0, result.getRepaired());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+    
+    @Test
+    void reconcile_WithoutRepair_ShouldOnlyReport() {
+        // Arrange
+        inventory.add(new InventoryRow(12, 1, 2, 7, 0, 0));
+        
+        // Act
+        ReconciliationResult result = reconciliationService.reconcile(false);
+        
+        // Assert
+        assertEquals(1, result.getDrifted());
+        assertEquals(0, result.getRepaired());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verifyNoInteractions(eventPublisher, auditJournal);
+    }
+    
+    @Test
+    void reconcile_ShouldSplitEachWarehouseIntoProductRanges() {
+        // Arrange: ids 1..100 with ranges narrower than 25 split into four partitions per warehouse
+        properties.setProductRangeSize(25);
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM warehouses"), eq(Long.class))).thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.queryForMap(startsWith("SELECT MIN(id)"))).thenReturn(Map.of("min_id", 1L, "max_id", 100L));
+        inventory.add(new InventoryRow(21, 1, 1, 0, 0, 0));
+        inventory.add(new InventoryRow(22, 1, 50, 0, 0, 0));
+        inventory.add(new InventoryRow(23, 1, 51, 0, 0, 0));
+        inventory.add(new InventoryRow(24, 2, 100, 1, 0, 0));
+        
+        // Act
+        ReconciliationResult result = reconciliationService.reconcile(true);
+        
+        // Assert: partitions tile each warehouse's id range exactly once, and results merge across them
+        assertEquals(8, result.getPartitions());
+        assertEquals(8, partitions.size());
+        for (long warehouseId : new long[] {1, 2}) {
+            List<long[]> ranges = partitions.stream()
+                    .filter(partition -> partition[0] == warehouseId)
+                    .sorted((a, b) -> Long.compare(a[1], b[1]))
+                    .toList();
+            assertEquals(4, ranges.size());
+            long next = 1;
+            for (long[] range : ranges) {
+                assertEquals(next, range[1]);
+                assertTrue(range[2] - range[1] < 25);
+                next = range[2] + 1;
+            }
+            assertEquals(101, next);
+        }
+        assertEquals(4, result.getInventoryRows());
+        assertEquals(1, result.getRepaired());
+        assertEquals(Map.of(24L, 0), repairs);
+    }
+    
+    @Test
+    void reconcile_WithoutProducts_ShouldDoNothing() {
+        // Arrange
+        Map<String, Object> empty = new HashMap<>();
+        empty.put("min_id", null);
+        empty.put("max_id", null);
+        when(jdbcTemplate.queryForMap(startsWith("SELECT MIN(id)"))).thenReturn(empty);
+        
+        // Act
+        ReconciliationResult result = reconciliationService.reconcile(true);
+        
+        // Assert
+        assertEquals(0, result.getPartitions());
+        assertTrue(partitions.isEmpty());
+    }
+    
+    private static ResultSet row(Object... columns) throws Exception {
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        for (int i = 0; i < columns.length; i++) {
+            long value = ((Number) columns[i]).longValue();
+            when(rs.getLong(i + 1)).thenReturn(value);
+            when(rs.getInt(i + 1)).thenReturn((int) value);
+        }
+        return rs;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.RollupProperties;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.SalesRollup.Granularity;
+import com.ecommerce.model.Warehouse;
+import com.ecommerce.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+    
+    private static final LocalDateTime MARCH_1 = LocalDateTime.of(2024, 3, 1, 0, 0);
+    
+    @Mock
+    private SalesRollupRepository rollupRepository;
+    
+    @Mock
+    private OrderArchiveService archiveService;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SalesRollupService rollupService;
+    
+    @BeforeEach
+    void setUp() {
+        rollupService = new SalesRollupService(rollupRepository, archiveService, jdbcTemplate,
+                new RollupProperties(), transactionManager);
+    }
+    
+    @Test
+    void rebuild_WhenRangeReachesArchivedDays_ShouldRefuse() {
+        // Arrange
+        when(archiveService.liveHistoryStart()).thenReturn(Optional.of(MARCH_1));
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> rollupService.rebuild(MARCH_1.minusDays(1), null));
+        verify(rollupRepository, never()).deleteRollupsBetween(any(), any(), any());
+    }
+    
+    @Test
+    void rebuild_ShouldReplaceWholeDaysOfTheRangeOnly() {
+        // Arrange
+        LocalDateTime end = MARCH_1.plusDays(2);
+        when(archiveService.liveHistoryStart()).thenReturn(Optional.of(MARCH_1));
+        when(rollupRepository.findOrderIdRange(MARCH_1, end)).thenReturn(List.<Object[]>of(new Object[] {5L, 9L}));
+        when(rollupRepository.aggregateOrderRange(5L, 9L, MARCH_1, end)).thenReturn(List.<Object[]>of(
+                new Object[] {"2024-03-01 10:00:00", 7L, 1L, 3L, new BigDecimal("30.00"), 2L}));
+        
+        // Act: both bounds fall inside a day and are widened to its edges
+        long rows = rollupService.rebuild(MARCH_1.plusHours(10), MARCH_1.plusDays(1).plusHours(5));
+        
+        // Assert
+        assertEquals(2, rows);
+        verify(rollupRepository).deleteRollupsBetween(Granularity.HOUR, MARCH_1, end);
+        verify(rollupRepository).deleteRollupsBetween(Granularity.DAY, MARCH_1, end);
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), upserts.capture());
+        Object[] day = upserts.getValue().get(1);
+        assertEquals("DAY", day[0]);
+        assertEquals(Timestamp.valueOf(MARCH_1), day[1]);
+        assertEquals(3L, day[4]);
+    }
+    
+    @Test
+    void recordOrder_DuringRebuild_ShouldWaitUntilItCompletes() throws Exception {
+        // Arrange
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(archiveService.liveHistoryStart()).thenReturn(Optional.empty());
+        when(rollupRepository.deleteRollupsBetween(any(), any(), any())).thenAnswer(invocation -> {
+            deleting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+        when(rollupRepository.findOrderIdRange(any(), any())).thenReturn(List.<Object[]>of(new Object[] {null, null}));
+        
+        // Act
+        CompletableFuture<Long> rebuild = CompletableFuture.supplyAsync(() -> rollupService.rebuild(MARCH_1, null));
+        assertTrue(deleting.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> record = CompletableFuture.runAsync(() -> rollupService.recordOrder(confirmedOrder(), 1));
+        
+        // Assert
+        verify(jdbcTemplate, after(200).never()).batchUpdate(anyString(), anyList());
+        release.countDown();
+        assertEquals(0L, rebuild.get(5, TimeUnit.SECONDS));
+        record.get(5, TimeUnit.SECONDS);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+    
+    private Order confirmedOrder() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setWarehouse(Warehouse.builder().id(1L).build());
+        order.setCreatedAt(MARCH_1.plusDays(3));
+        
+        OrderItem item = new OrderItem();
+        item.setProduct(Product.builder().id(7L).build());
+        item.setQuantity(2);
+        item.setSubtotal(new BigDecimal("20.00"));
+        order.addItem(item);
+        return order;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    @Test
+    void tryAcquire_WhenLimitReached_ShouldReject() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET, 0.5);
+        
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+    
+    @Test
+    void release_WhenSlow_ShouldShrinkLimitButNotBelowMinimum() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, TARGET, 0.5);
+        
+        // Act: each request starts after the previous one finished
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(now, now + TARGET * 2, false);
+            now += TARGET * 3;
+        }
+        
+        // Assert
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    @Test
+    void release_WhenSlowRequestsOverlap_ShouldShrinkOncePerRoundTrip() {
+        // Arrange: four requests in flight together, all slow
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, TARGET, 0.5);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        
+        // Act & Assert: only the first completion of the burst cuts the limit
+        for (int i = 0; i < 4; i++) {
+            limiter.release(0, TARGET * 2 + i, true);
+        }
+        assertEquals(4, limiter.getLimit());
+        
+        // A request started after that cut shrinks it again
+        limiter.tryAcquire();
+        limiter.release(TARGET * 2, TARGET * 4, false);
+        assertEquals(2, limiter.getLimit());
+    }
+    
+    @Test
+    void release_WhenFastUnderLoad_ShouldGrowLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET, 0.5);
+        
+        // Act
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(0, TARGET / 2, false);
+            limiter.release(0, TARGET / 2, false);
+        }
+        
+        // Assert
+        assertTrue(limiter.getLimit() > 2);
+    }
+}
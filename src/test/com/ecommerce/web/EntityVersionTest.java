@@ -0,0 +1,74 @@
+package com.ecommerce.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityVersionTest {
+    
+    private final EntityVersion version = EntityVersion.of("product", 7L, LocalDateTime.of(2024, 3, 1, 12, 0));
+    
+    @Test
+    void etagFor_ShouldDifferPerWireFormat() {
+        // Act
+        String json = version.etagFor("application/json");
+        String cbor = version.etagFor("application/cbor");
+        String smile = version.etagFor("application/x-jackson-smile");
+        
+        // Assert
+        assertEquals(version.etag(), json);
+        assertEquals(version.etag(), version.etagFor(null));
+        assertNotEquals(json, cbor);
+        assertNotEquals(json, smile);
+        assertNotEquals(cbor, smile);
+        assertTrue(cbor.startsWith("\"") && cbor.endsWith("-cbor\""));
+    }
+    
+    @Test
+    void etagFor_ShouldFollowQualityValues() {
+        // Act & Assert
+        assertEquals(version.etag(), version.etagFor("application/cbor;q=0.5, application/json"));
+        assertEquals(version.etagFor("application/cbor"), version.etagFor("application/json;q=0.2, application/cbor"));
+        assertEquals(version.etag(), version.etagFor("*/*"));
+    }
+    
+    @Test
+    void checkNotModified_WhenTagBelongsToOtherFormat_ShouldServeBody() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/7");
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, version.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // Act
+        boolean notModified = version.checkNotModified(new ServletWebRequest(request, response));
+        
+        // Assert
+        assertFalse(notModified);
+        assertEquals(version.etagFor("application/cbor"), response.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+    }
+    
+    @Test
+    void checkNotModified_WhenTagMatchesFormat_ShouldAnswer304() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/7");
+        request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, version.etagFor("application/x-jackson-smile"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // Act
+        boolean notModified = version.checkNotModified(new ServletWebRequest(request, response));
+        
+        // Assert
+        assertTrue(notModified);
+        assertEquals(304, response.getStatus());
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+    }
+}
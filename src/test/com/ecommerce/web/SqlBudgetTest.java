@@ -0,0 +1,130 @@
+package com.ecommerce.web;
+
+import com.ecommerce.MySqlContainerTest;
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Warehouse;
+import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.WarehouseRepository;
+import com.ecommerce.service.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Statement budgets per endpoint. Raising a budget should be a deliberate change in review,
+ * not a side effect of a new lazy association.
+ */
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = "ecommerce.sql-stats.response-headers=true")
+class SqlBudgetTest extends MySqlContainerTest {
+    
+    private static final int ITEMS_PER_ORDER = 3;
+    
+    @Autowired private MockMvc mockMvc;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private OrderService orderService;
+    
+    private Product product;
+    private Inventory inventory;
+    private Order order;
+    
+    @BeforeAll
+    void seed() {
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("WH-BUDGET").name("Budget").address("1 Main St").city("Springfield")
+                .state("IL").zipCode("62701").active(true).build());
+        
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Product saved = productRepository.save(Product.builder()
+                    .sku("BUDGET-" + i).name("Budget product " + i).price(new BigDecimal("9.99"))
+                    .category("budget").active(true).build());
+            Inventory stock = inventoryRepository.save(Inventory.builder()
+                    .product(saved).warehouse(warehouse).quantity(100).reservedQuantity(0)
+                    .reorderLevel(10).reorderQuantity(50).bucketCount(0).build());
+            if (i == 0) {
+                product = saved;
+                inventory = stock;
+            }
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(saved.getId());
+            item.setQuantity(2);
+            items.add(item);
+        }
+        
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerEmail("budget@example.com");
+        request.setWarehouseId(warehouse.getId());
+        request.setItems(items);
+        order = orderService.createOrder(request);
+    }
+    
+    @Test
+    void productReadFitsBudget() throws Exception {
+        // version lookup + product
+        assertWithinBudget(get("/api/products/{id}", product.getId()), 2);
+    }
+    
+    @Test
+    void inventoryReadFitsBudget() throws Exception {
+        // version lookup + inventory + its product and warehouse
+        assertWithinBudget(get("/api/inventory/{id}", inventory.getId()), 4);
+    }
+    
+    @Test
+    void orderReadFitsBudget() throws Exception {
+        // pre-rendered document by primary key
+        assertWithinBudget(get("/api/orders/{id}", order.getId()), 1);
+    }
+    
+    @Test
+    void orderReadAfterProductEditServesCurrentDocument() throws Exception {
+        // The edit leaves the stored document behind the product's version, so the next read renders it again
+        product.setName("Budget product edited");
+        product = productRepository.save(product);
+        MvcResult rendered = mockMvc.perform(get("/api/orders/{id}", order.getId())).andReturn();
+        assertTrue(rendered.getResponse().getContentAsString().contains("Budget product edited"));
+        
+        assertWithinBudget(get("/api/orders/{id}", order.getId()), 1);
+    }
+    
+    @Test
+    void orderConfirmFitsBudget() throws Exception {
+        // order graph, inventory lookup and update per item, order update, document upsert,
+        // one rollup row per item and granularity
+        assertWithinBudget(post("/api/orders/{id}/confirm", order.getId()), 3 + 4 * ITEMS_PER_ORDER);
+    }
+    
+    private void assertWithinBudget(RequestBuilder request, int budget) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertTrue(result.getResponse().getStatus() < 400, "Unexpected status " + result.getResponse().getStatus());
+        
+        int statements = Integer.parseInt(result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertTrue(statements <= budget, "Executed " + statements + " statements, budget is " + budget);
+        assertEquals("0", result.getResponse().getHeader(SqlStatisticsFilter.REPEATED_HEADER),
+                "Repeated query shapes detected");
+    }
+}
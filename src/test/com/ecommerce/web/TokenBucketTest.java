@@ -0,0 +1,37 @@
+package com.ecommerce.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    
+    @Test
+    void tryAcquire_WhenEmpty_ShouldReportWaitUntilRefill() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 1.0, 0);
+        
+        // Act & Assert
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire(TimeUnit.SECONDS.toNanos(1)));
+    }
+    
+    @Test
+    void tryAcquire_WithFractionalRate_ShouldRefillExactly() {
+        // Arrange: 3 tokens per second, so one every 333,333,333 ns
+        TokenBucket bucket = new TokenBucket(3, 3.0, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        
+        // Act & Assert
+        assertEquals(333_333_333, bucket.tryAcquire(0));
+        assertEquals(1, bucket.tryAcquire(333_333_332));
+        assertEquals(0, bucket.tryAcquire(333_333_333));
+        assertTrue(bucket.isFull(TimeUnit.SECONDS.toNanos(10)));
+    }
+}